@@ -59,6 +59,20 @@ dependencies {
     implementation("org.bouncycastle:bcprov-jdk18on:1.81")
 }
 
+// Kangaroo12 hashes batches of short messages with the incubating Vector API when the module is present at run time
+val vectorModule = listOf("--add-modules", "jdk.incubator.vector")
+
+tasks.withType<JavaCompile> {
+    options.compilerArgs.addAll(vectorModule)
+}
+
+tasks.withType<Javadoc> {
+    (options as StandardJavadocDocletOptions).addStringOption("-add-modules", "jdk.incubator.vector")
+}
+
 tasks.test {
     useJUnitPlatform()
+    jvmArgs(vectorModule)
+    // Benchmarks are skipped unless requested with -Dfourqj.benchmark=true
+    systemProperty("fourqj.benchmark", System.getProperty("fourqj.benchmark") ?: "false")
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+package fourqj.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import fourqj.constants.Key;
+import fourqj.constants.Params;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.InvalidArgumentException;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Non-blocking facade over {@link SchnorrQ} returning {@link CompletableFuture}s.
+ * <p>
+ * Scalar multiplications run on a bounded compute pool, by default one thread per core, so
+ * any number of concurrent callers never oversubscribes the CPU. Messages streamed from
+ * channels and input streams are read, and hashed as they arrive, on virtual threads; only
+ * the final curve check is handed to the compute pool, so a slow stream never holds a
+ * compute thread.
+ * <p>
+ * Every operation accepts an optional deadline, after which its future completes with a
+ * {@link java.util.concurrent.TimeoutException}. Cancelling a future, or letting its deadline
+ * pass, skips work that has not started yet and stops a streamed read at its next chunk;
+ * a scalar multiplication already running is left to finish and its result is discarded.
+ * <p>
+ * Instances own their executors and should be closed when no longer needed.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public class AsyncSchnorrQ implements AutoCloseable {
+    // Chunk size used when streaming messages from channels and input streams
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+
+    private final SchnorrQ schnorrQ;
+    private final HashFunction hashFunction;
+    private final ExecutorService computePool;
+    private final ExecutorService ioExecutor;
+
+    public AsyncSchnorrQ() {
+        this(new SHA512());
+    }
+
+    public AsyncSchnorrQ(HashFunction hash) {
+        this(hash, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param hash the hash function used for signing and verification
+     * @param computeThreads the number of threads running scalar multiplications
+     * @throws InvalidArgumentException if computeThreads is not positive
+     */
+    public AsyncSchnorrQ(HashFunction hash, int computeThreads) {
+        ValidationChain.of(hash).notNull("Hash function cannot be null.");
+        ValidationChain.of(computeThreads)
+                .validate(n -> n > 0, () -> new InvalidArgumentException("Compute pool must have at least one thread."));
+        this.schnorrQ = new SchnorrQ(hash);
+        this.hashFunction = hash;
+        this.computePool = new ForkJoinPool(computeThreads);
+        this.ioExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /** Signs a message without a deadline, see {@link #sign(SigningKeyMaterial, byte[], Duration)}. */
+    public CompletableFuture<byte[]> sign(SigningKeyMaterial key, byte[] message) {
+        return sign(key, message, null);
+    }
+
+    /**
+     * Signs a message on the compute pool, see {@link SchnorrQ#sign(SigningKeyMaterial, byte[])}.
+     *
+     * @param key the signing key material
+     * @param message the message bytes to be signed, which must not change until the future completes
+     * @param timeout the deadline, or null for none
+     * @return a future completing with the 64-byte signature (R || s)
+     */
+    public CompletableFuture<byte[]> sign(SigningKeyMaterial key, byte[] message, Duration timeout) {
+        return submit(() -> schnorrQ.sign(key, message), timeout);
+    }
+
+    /** Verifies a signature without a deadline, see {@link #verify(byte[], byte[], byte[], Duration)}. */
+    public CompletableFuture<Boolean> verify(byte[] publicKey, byte[] signature, byte[] message) {
+        return verify(publicKey, signature, message, null);
+    }
+
+    /**
+     * Verifies a signature on the compute pool, see {@link SchnorrQ#verify(byte[], byte[], byte[])}.
+     * Validation failures complete the future exceptionally, as the blocking method would throw.
+     *
+     * @param publicKey the signer's 32-byte public key
+     * @param signature the 64-byte signature (R || s)
+     * @param message the message bytes that were signed, which must not change until the future completes
+     * @param timeout the deadline, or null for none
+     * @return a future completing with whether the signature is valid
+     */
+    public CompletableFuture<Boolean> verify(byte[] publicKey, byte[] signature, byte[] message, Duration timeout) {
+        return submit(() -> schnorrQ.verify(publicKey, signature, message), timeout);
+    }
+
+    /** Verifies a signature over a streamed message without a deadline, see {@link #verify(byte[], byte[], ReadableByteChannel, Duration)}. */
+    public CompletableFuture<Boolean> verify(byte[] publicKey, byte[] signature, ReadableByteChannel message) {
+        return verify(publicKey, signature, message, null);
+    }
+
+    /**
+     * Verifies a signature over a message read from a channel, see
+     * {@link SchnorrQ#verify(byte[], byte[], ReadableByteChannel)}. The channel is read and
+     * hashed on a virtual thread and is not closed. Read failures complete the future with
+     * an {@link UncheckedIOException}.
+     *
+     * @param publicKey the signer's 32-byte public key
+     * @param signature the 64-byte signature (R || s)
+     * @param message the channel supplying the message
+     * @param timeout the deadline, or null for none
+     * @return a future completing with whether the signature is valid
+     */
+    public CompletableFuture<Boolean> verify(byte[] publicKey, byte[] signature, ReadableByteChannel message, Duration timeout) {
+        return streamVerify(publicKey, signature, timeout, (challenge, result) -> {
+            final ByteBuffer chunk = ByteBuffer.allocate(STREAM_CHUNK_SIZE);
+            while (!result.isDone() && message.read(chunk) >= 0) {
+                challenge.update(chunk.flip());
+                chunk.clear();
+            }
+        });
+    }
+
+    /** Verifies a signature over a streamed message without a deadline, see {@link #verify(byte[], byte[], InputStream, Duration)}. */
+    public CompletableFuture<Boolean> verify(byte[] publicKey, byte[] signature, InputStream message) {
+        return verify(publicKey, signature, message, null);
+    }
+
+    /**
+     * Verifies a signature over a message read from an input stream,
+     * see {@link #verify(byte[], byte[], ReadableByteChannel, Duration)}. The stream is not closed.
+     */
+    public CompletableFuture<Boolean> verify(byte[] publicKey, byte[] signature, InputStream message, Duration timeout) {
+        return streamVerify(publicKey, signature, timeout, (challenge, result) -> {
+            final byte[] chunk = new byte[STREAM_CHUNK_SIZE];
+            int read;
+            while (!result.isDone() && (read = message.read(chunk)) >= 0) {
+                challenge.update(chunk, Params.noOffset, read);
+            }
+        });
+    }
+
+    /** Shuts down the executors, letting operations already submitted finish; later calls return failed futures. */
+    @Override
+    public void close() {
+        computePool.shutdown();
+        ioExecutor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface MessageReader {
+        void absorb(HashFunction.Hasher challenge, CompletableFuture<?> result) throws IOException;
+    }
+
+    // Runs the work on the compute pool unless the result is already settled by cancellation or the deadline
+    private <T> CompletableFuture<T> submit(Supplier<T> work, Duration timeout) {
+        final CompletableFuture<T> result = withDeadline(new CompletableFuture<>(), timeout);
+        execute(computePool, result, () -> complete(result, work));
+        return result;
+    }
+
+    // Reads and hashes the message on a virtual thread, then checks the signature on the compute pool
+    private CompletableFuture<Boolean> streamVerify(byte[] publicKey, byte[] signature, Duration timeout, MessageReader reader) {
+        final CompletableFuture<Boolean> result = withDeadline(new CompletableFuture<>(), timeout);
+        execute(ioExecutor, result, () -> {
+            if (result.isDone()) return;
+            final BigInteger h;
+            try {
+                SchnorrQ.SchnorrHelper.checkLength(publicKey, Key.KEY_SIZE, "Public key");
+                SchnorrQ.SchnorrHelper.checkLength(signature, Key.SIGNATURE_SIZE, "Signature");
+                final HashFunction.Hasher challenge = schnorrQ.startChallenge(
+                        SchnorrQ.NO_DOMAIN, publicKey, Params.noOffset, signature, Params.noOffset, hashFunction.newHasher());
+                reader.absorb(challenge, result);
+                if (result.isDone()) return;
+                h = SchnorrQ.SchnorrHelper.scalar(challenge);
+            } catch (IOException e) {
+                result.completeExceptionally(new UncheckedIOException(e));
+                return;
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            execute(computePool, result, () -> complete(result, () ->
+                    schnorrQ.finishVerify(publicKey, Params.noOffset, signature, Params.noOffset, h)));
+        });
+        return result;
+    }
+
+    // Fails the result instead of throwing when the executor has been shut down by close()
+    private static void execute(Executor executor, CompletableFuture<?> result, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, Supplier<T> work) {
+        if (result.isDone()) return;
+        try {
+            result.complete(work.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> withDeadline(CompletableFuture<T> result, Duration timeout) {
+        if (timeout == null) return result;
+        return result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,125 @@
+package fourqj.api;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Verifies messages signed by {@link BatchSigner}, each against the batch header and its inclusion proof.
+ * <p>
+ * The proof is folded into a root with at most ceil(log2(n)) hashes and compared with the root
+ * in the header. The signature over the root is verified once per public key and header, and the
+ * outcome cached, so the remaining messages of a batch cost only their hashes. The cache holds
+ * up to a fixed number of headers and is emptied when full.
+ * <p>
+ * Instances are safe for use by several threads.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public class BatchProofVerifier {
+    private static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final SchnorrQ schnorrQ;
+    private final HashFunction hashFunction;
+    private final int cacheSize;
+    private final Map<ByteBuffer, Boolean> roots = new ConcurrentHashMap<>();
+    private final AtomicLong rootVerifications = new AtomicLong();
+
+    public BatchProofVerifier() {
+        this(new SHA512());
+    }
+
+    public BatchProofVerifier(HashFunction hash) {
+        this(hash, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param hash the hash function the batches were signed with
+     * @param cacheSize the number of verified root signatures remembered
+     * @throws InvalidArgumentException if cacheSize is not positive
+     */
+    public BatchProofVerifier(HashFunction hash, int cacheSize) {
+        ValidationChain.of(hash).notNull("Hash function cannot be null.");
+        ValidationChain.of(cacheSize)
+                .validate(n -> n > 0, () -> new InvalidArgumentException("Cache size must be positive."));
+        this.schnorrQ = new SchnorrQ(hash);
+        this.hashFunction = hash;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Verifies that a message belongs to a batch signed by the given key.
+     *
+     * @param publicKey the signer's 32-byte public key
+     * @param header the batch header, see {@link SignedBatch#header()}
+     * @param proof the message's inclusion proof, see {@link SignedBatch#proof(int)}
+     * @param message the message
+     * @return true if the proof leads to the signed root, false otherwise
+     * @throws InvalidArgumentException if an input is null or has the wrong size, or the root signature is malformed
+     * @throws EncryptionException if the public key does not decode to a curve point
+     */
+    public boolean verify(byte[] publicKey, byte[] header, byte[] proof, byte[] message) throws EncryptionException {
+        SchnorrQ.SchnorrHelper.checkLength(publicKey, Key.KEY_SIZE, "Public key");
+        SchnorrQ.SchnorrHelper.checkLength(header, SignedBatch.HEADER_SIZE, "Batch header");
+        ValidationChain.of(proof).notNull("Proof cannot be null.");
+        ValidationChain.of(message).notNull("Message cannot be null.");
+
+        final int size = BatchSigner.readInt(header, 0);
+        if (size <= 0 || proof.length < Integer.BYTES) return false;
+        final int index = BatchSigner.readInt(proof, 0);
+        if (index < 0 || index >= size
+                || proof.length != Integer.BYTES + SignedBatch.siblingCount(index, size) * BatchSigner.NODE_SIZE) {
+            return false;
+        }
+
+        final byte[] node = new byte[BatchSigner.NODE_SIZE];
+        BatchSigner.leaf(hashFunction, message, node, 0);
+        int offset = Integer.BYTES;
+        for (int i = index, width = size; width > 1; i >>>= 1, width = (width + 1) / 2) {
+            if ((i ^ 1) >= width) continue;         // Carried up without a sibling
+            if ((i & 1) == 0) {
+                BatchSigner.node(hashFunction, node, 0, proof, offset, node, 0);
+            } else {
+                BatchSigner.node(hashFunction, proof, offset, node, 0, node, 0);
+            }
+            offset += BatchSigner.NODE_SIZE;
+        }
+        if (!Arrays.equals(node, 0, BatchSigner.NODE_SIZE, header, Integer.BYTES, Integer.BYTES + BatchSigner.NODE_SIZE)) {
+            return false;
+        }
+        return rootSignatureValid(publicKey, header);
+    }
+
+    /** @return the number of root signatures verified, as opposed to answered from the cache */
+    public long rootVerificationCount() {
+        return rootVerifications.get();
+    }
+
+    private boolean rootSignatureValid(byte[] publicKey, byte[] header) throws EncryptionException {
+        final byte[] keyBytes = Arrays.copyOf(publicKey, Key.KEY_SIZE + SignedBatch.HEADER_SIZE);
+        System.arraycopy(header, 0, keyBytes, Key.KEY_SIZE, SignedBatch.HEADER_SIZE);
+        final ByteBuffer key = ByteBuffer.wrap(keyBytes);
+        final Boolean cached = roots.get(key);
+        if (cached != null) return cached;
+
+        rootVerifications.incrementAndGet();
+        final byte[] signature = Arrays.copyOfRange(header, Integer.BYTES + BatchSigner.NODE_SIZE, SignedBatch.HEADER_SIZE);
+        final boolean valid = schnorrQ.verify(publicKey, signature,
+                BatchSigner.rootMessage(BatchSigner.readInt(header, 0), header, Integer.BYTES));
+        if (roots.size() >= cacheSize) roots.clear();
+        roots.put(key, valid);
+        return valid;
+    }
+}
@@ -0,0 +1,157 @@
+package fourqj.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import fourqj.constants.Params;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.utils.ConcurrencyUtils;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Signs a batch of messages with a single SchnorrQ signature over the root of a Merkle tree.
+ * <p>
+ * Each message becomes a leaf H(0x00 || M)[0:32], and each interior node is
+ * H(0x01 || left || right)[0:32]; the prefixes keep leaves and interior nodes from being
+ * confused. A node without a sibling is carried up to the next level unchanged. The signed
+ * message is a domain string followed by the leaf count and the root, so the count is
+ * authenticated and fixes the shape of the tree.
+ * <p>
+ * Signing a batch thus costs one fixed-base scalar multiplication plus about 2n hashes, rather
+ * than n scalar multiplications. Each message is later checked with the batch header and its
+ * own inclusion proof of ceil(log2(n)) hashes at most, see {@link BatchProofVerifier}.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public class BatchSigner {
+    static final int NODE_SIZE = 32;
+    private static final byte[] DOMAIN_STRING = "SchnorrQ Merkle batch".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LEAF_PREFIX = { 0 };
+    private static final byte[] NODE_PREFIX = { 1 };
+    // Hashing a leaf is cheap, so parallel chunks must be large to be worth handing out
+    private static final int LEAF_MIN_CHUNK = 1024;
+
+    private final HashFunction hashFunction;
+    private final SchnorrQ schnorrQ;
+
+    public BatchSigner() {
+        this(new SHA512());
+    }
+
+    /**
+     * @param hash the hash function used for the tree and the root signature
+     */
+    public BatchSigner(HashFunction hash) {
+        ValidationChain.of(hash).notNull("Hash function cannot be null.");
+        this.hashFunction = hash;
+        this.schnorrQ = new SchnorrQ(hash);
+    }
+
+    /**
+     * Signs a batch, hashing the leaves on the common fork-join pool,
+     * see {@link #sign(SigningKeyMaterial, byte[][], Executor)}.
+     */
+    public SignedBatch sign(SigningKeyMaterial key, byte[][] messages) throws EncryptionException {
+        return sign(key, messages, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Signs a batch, hashing the leaves on the common fork-join pool,
+     * see {@link #sign(SigningKeyMaterial, byte[][], Executor)}.
+     */
+    public SignedBatch sign(SigningKeyMaterial key, List<byte[]> messages) throws EncryptionException {
+        ValidationChain.of(messages).notNull("Messages cannot be null.");
+        return sign(key, messages.toArray(byte[][]::new), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the Merkle tree over the messages and signs its root.
+     *
+     * @param key the signing key material
+     * @param messages the messages in the batch, in proof index order
+     * @param executor the executor hashing the leaves
+     * @return the signed batch, from which the header and per-message proofs are taken
+     * @throws EncryptionException if hashing or signing fails
+     * @throws InvalidArgumentException if the batch is empty or holds null messages, or the key material is unusable
+     */
+    public SignedBatch sign(SigningKeyMaterial key, byte[][] messages, Executor executor) throws EncryptionException {
+        ValidationChain.of(key).notNull("Signing key material cannot be null.");
+        ValidationChain.of(executor).notNull("Executor cannot be null.");
+        SchnorrQ.SchnorrHelper.checkBatch(messages, "Messages", -1);
+        ValidationChain.of(messages)
+                .validate(m -> m.length > 0, () -> new InvalidArgumentException("Cannot sign an empty batch."));
+
+        final int count = messages.length;
+        final byte[][] levels = new byte[levelCount(count)][];
+        levels[0] = new byte[count * NODE_SIZE];
+        ConcurrencyUtils.parallelFor(count, executor, LEAF_MIN_CHUNK, i -> leaf(hashFunction, messages[i], levels[0], i * NODE_SIZE));
+
+        for (int level = 1, width = count; level < levels.length; level++) {
+            final byte[] below = levels[level - 1];
+            final int parents = (width + 1) / 2;
+            final byte[] nodes = levels[level] = new byte[parents * NODE_SIZE];
+            for (int i = 0; i < width / 2; i++) {
+                node(hashFunction, below, 2 * i * NODE_SIZE, below, (2 * i + 1) * NODE_SIZE, nodes, i * NODE_SIZE);
+            }
+            if ((width & 1) == 1) {
+                System.arraycopy(below, (width - 1) * NODE_SIZE, nodes, (parents - 1) * NODE_SIZE, NODE_SIZE);
+            }
+            width = parents;
+        }
+
+        final byte[] root = levels[levels.length - 1];
+        return new SignedBatch(levels, schnorrQ.sign(key, rootMessage(count, root, Params.noOffset)));
+    }
+
+    // The number of tree levels, leaves included, for the given number of leaves
+    static int levelCount(int leaves) {
+        return leaves == 1 ? 1 : Integer.SIZE - Integer.numberOfLeadingZeros(leaves - 1) + 1;
+    }
+
+    // H(0x00 || message)[0:32]
+    static void leaf(HashFunction hash, byte[] message, byte[] out, int offset) throws EncryptionException {
+        final byte[] digest = hash.hasher()
+                .update(LEAF_PREFIX)
+                .update(message)
+                .doFinal();
+        System.arraycopy(digest, 0, out, offset, NODE_SIZE);
+    }
+
+    // H(0x01 || left || right)[0:32]
+    static void node(HashFunction hash, byte[] left, int leftOffset, byte[] right, int rightOffset, byte[] out, int offset)
+            throws EncryptionException {
+        final byte[] digest = hash.hasher()
+                .update(NODE_PREFIX)
+                .update(left, leftOffset, NODE_SIZE)
+                .update(right, rightOffset, NODE_SIZE)
+                .doFinal();
+        System.arraycopy(digest, 0, out, offset, NODE_SIZE);
+    }
+
+    // DOMAIN_STRING || leaf count (4 bytes, little-endian) || root: the message actually signed
+    static byte[] rootMessage(int count, byte[] root, int rootOffset) {
+        final byte[] message = new byte[DOMAIN_STRING.length + Integer.BYTES + NODE_SIZE];
+        System.arraycopy(DOMAIN_STRING, 0, message, 0, DOMAIN_STRING.length);
+        writeInt(count, message, DOMAIN_STRING.length);
+        System.arraycopy(root, rootOffset, message, DOMAIN_STRING.length + Integer.BYTES, NODE_SIZE);
+        return message;
+    }
+
+    static void writeInt(int value, byte[] out, int offset) {
+        for (int i = 0; i < Integer.BYTES; i++) out[offset + i] = (byte) (value >>> (Byte.SIZE * i));
+    }
+
+    static int readInt(byte[] in, int offset) {
+        int value = 0;
+        for (int i = 0; i < Integer.BYTES; i++) value |= (in[offset + i] & 0xFF) << (Byte.SIZE * i);
+        return value;
+    }
+}
@@ -0,0 +1,355 @@
+package fourqj.api;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import fourqj.constants.Key;
+import fourqj.constants.Params;
+import fourqj.crypto.core.Curve;
+import fourqj.crypto.core.ECC;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.exceptions.ValidationException;
+import fourqj.fieldoperations.FP;
+import fourqj.types.point.ExtendedPoint;
+import fourqj.types.point.FieldPoint;
+import fourqj.utils.CryptoUtils;
+import fourqj.utils.LittleEndianCodec;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Verification service that coalesces concurrent {@link #verify} calls into batches.
+ * <p>
+ * Calls are queued on a lock-free queue and return a future at once. A dispatcher thread
+ * flushes the queue when it holds maxBatchSize requests or when the oldest request has waited
+ * maxDelay, and each flush runs on the executor. A flush checks all of its signatures with one
+ * randomized batch equation
+ * <pre>
+ *     (sum z_i*s_i)*G + sum (z_i*h_i)*A_i - sum z_i*R_i = O
+ * </pre>
+ * evaluated by a single multi-scalar multiplication, with fresh random 128-bit z_i. When the
+ * equation fails the batch is halved until the invalid signatures are isolated, so each future
+ * still completes with exactly the result of {@link SchnorrQ#verify(byte[], byte[], byte[])}.
+ * <p>
+ * The batch equation is only equivalent to individual verification for points in the
+ * prime-order subgroup. Public keys are checked once and cached; signatures under a key
+ * outside the subgroup are verified individually. Each commitment R is checked for a
+ * canonical encoding and subgroup membership before it joins the batch.
+ * <p>
+ * At most maxQueueDepth requests wait at once; further calls are shed and fail immediately
+ * with a {@link RejectedExecutionException}. Queueing plus verification latency of recent
+ * requests is tracked, see {@link #latencyPercentile(double)}.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class BatchingVerifier implements AutoCloseable {
+    // Bit length of the random batch coefficients, which bounds the chance of a forged batch passing to 2^-127
+    private static final int COEFFICIENT_BITS = 128;
+    private static final int COEFFICIENT_SIZE = COEFFICIENT_BITS / Byte.SIZE;
+    // Batches smaller than this are verified individually, where the subgroup checks would cost more than they save
+    private static final int MIN_EQUATION_SIZE = 4;
+    // Decoded public keys kept, the cache is cleared when it grows past this
+    private static final int PUBLIC_KEY_CACHE_SIZE = 4096;
+    // Number of recent latencies kept for percentiles
+    private static final int LATENCY_SAMPLES = 4096;
+
+    private final SchnorrQ schnorrQ;
+    private final HashFunction hashFunction;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final int maxQueueDepth;
+    private final Executor executor;
+
+    private final ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Map<ByteBuffer, PublicKey> publicKeys = new ConcurrentHashMap<>();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong individual = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_SAMPLES);
+
+    public BatchingVerifier() {
+        this(new SHA512(), 64, Duration.ofMillis(2), 4096, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param hash the hash function used for verification
+     * @param maxBatchSize the number of queued requests that triggers a flush
+     * @param maxDelay the longest time a request waits before its batch is flushed
+     * @param maxQueueDepth the number of queued requests above which calls are shed
+     * @param executor the executor verifying flushed batches
+     * @throws InvalidArgumentException if a size is not positive, the delay is negative or an argument is null
+     */
+    public BatchingVerifier(HashFunction hash, int maxBatchSize, Duration maxDelay, int maxQueueDepth, Executor executor) {
+        ValidationChain.of(hash).notNull("Hash function cannot be null.");
+        ValidationChain.of(executor).notNull("Executor cannot be null.");
+        ValidationChain.of(maxDelay)
+                .validate(Objects::nonNull, () -> new InvalidArgumentException("Maximum delay cannot be null."))
+                .validate(d -> !d.isNegative(), () -> new InvalidArgumentException("Maximum delay cannot be negative."));
+        ValidationChain.of(maxBatchSize)
+                .validate(n -> n > 0 && maxQueueDepth >= n, () -> new InvalidArgumentException(
+                        "Batch size must be positive and no larger than the queue depth."));
+
+        this.schnorrQ = new SchnorrQ(hash);
+        this.hashFunction = hash;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxQueueDepth = maxQueueDepth;
+        this.executor = executor;
+        this.dispatcher = new Thread(this::dispatch, "fourqj-batching-verifier");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queues a signature for verification.
+     * <p>
+     * Inputs that {@link SchnorrQ#verify(byte[], byte[], byte[])} would reject by throwing
+     * complete the future exceptionally with the same exception.
+     *
+     * @param publicKey the signer's 32-byte public key
+     * @param signature the 64-byte signature (R || s)
+     * @param message the message bytes that were signed, which must not change until the future completes
+     * @return a future completing with whether the signature is valid, or failing with a
+     *         {@link RejectedExecutionException} if the queue is full or the verifier is closed
+     */
+    public CompletableFuture<Boolean> verify(byte[] publicKey, byte[] signature, byte[] message) {
+        try {
+            SchnorrQ.SchnorrHelper.checkLength(publicKey, Key.KEY_SIZE, "Public key");
+            SchnorrQ.SchnorrHelper.checkLength(signature, Key.SIGNATURE_SIZE, "Signature");
+            ValidationChain.of(message).notNull("Message cannot be null.");
+        } catch (InvalidArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (!running) return CompletableFuture.failedFuture(new RejectedExecutionException("Batching verifier is closed."));
+
+        final int queued = depth.incrementAndGet();
+        if (queued > maxQueueDepth) {
+            depth.decrementAndGet();
+            shed.incrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Batching verifier is saturated."));
+        }
+        final Request request = new Request(publicKey, signature, message, new CompletableFuture<>(), System.nanoTime());
+        queue.offer(request);
+        // Closed while queueing: take the request back unless the final flush already picked it up
+        if (!running && queue.remove(request)) {
+            depth.decrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Batching verifier is closed."));
+        }
+        if (queued == 1 || queued >= maxBatchSize) LockSupport.unpark(dispatcher);
+        return request.result;
+    }
+
+    /**
+     * Returns a percentile of the time from {@link #verify} to completion over recent requests.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency, or zero if no request has completed yet
+     */
+    public Duration latencyPercentile(double percentile) {
+        ValidationChain.of(percentile)
+                .validate(p -> p >= 0 && p <= 100, () -> new InvalidArgumentException("Percentile must be between 0 and 100."));
+        final int samples = (int) Math.min(completed.get(), LATENCY_SAMPLES);
+        if (samples == 0) return Duration.ZERO;
+        final long[] sorted = new long[samples];
+        for (int i = 0; i < samples; i++) sorted[i] = latencies.get(i);
+        Arrays.sort(sorted);
+        // Nearest-rank percentile
+        final int rank = Math.max(1, (int) Math.ceil(percentile / 100 * samples));
+        return Duration.ofNanos(sorted[rank - 1]);
+    }
+
+    /** @return the 99th percentile latency of recent requests */
+    public Duration p99Latency() {
+        return latencyPercentile(99);
+    }
+
+    /** @return the number of batches flushed so far */
+    public long batchCount() {
+        return batches.get();
+    }
+
+    /** @return the number of calls shed because the queue was full */
+    public long shedCount() {
+        return shed.get();
+    }
+
+    /**
+     * @return the number of signatures verified on their own rather than through a batch equation:
+     *         members of small batches, of batches that failed, and signatures under keys outside the subgroup
+     */
+    public long individualVerificationCount() {
+        return individual.get();
+    }
+
+    /** @return the number of requests waiting to be flushed */
+    public int queueDepth() {
+        return depth.get();
+    }
+
+    /** Stops accepting requests and flushes the ones already queued; their futures still complete. */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Request(byte[] publicKey, byte[] signature, byte[] message, CompletableFuture<Boolean> result, long enqueued) {}
+
+    private record PublicKey(ExtendedPoint extended, boolean inSubgroup) {}
+
+    // A request whose signature can take part in the batch equation
+    private record Candidate(Request request, ExtendedPoint publicKey, ExtendedPoint commitment, BigInteger h, BigInteger s) {}
+
+    private void dispatch() {
+        while (running || !queue.isEmpty()) {
+            final Request oldest = queue.peek();
+            if (oldest == null) {
+                // A producer between counting its request and queueing it may skip the unpark, so wait at most maxDelay for it
+                if (depth.get() > 0) LockSupport.parkNanos(this, maxDelayNanos);
+                else LockSupport.park(this);
+                continue;
+            }
+            final long deadline = oldest.enqueued + maxDelayNanos;
+            long wait;
+            while (running && depth.get() < maxBatchSize && (wait = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+
+            final List<Request> batch = new ArrayList<>(Math.min(depth.get(), maxBatchSize));
+            Request request;
+            while (batch.size() < maxBatchSize && (request = queue.poll()) != null) batch.add(request);
+            depth.addAndGet(-batch.size());
+            batches.incrementAndGet();
+            try {
+                executor.execute(() -> flush(batch));
+            } catch (RejectedExecutionException e) {
+                for (Request r : batch) r.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void flush(List<Request> batch) {
+        final List<Candidate> candidates = new ArrayList<>(batch.size());
+        final boolean useEquation = batch.size() >= MIN_EQUATION_SIZE;
+        for (Request request : batch) {
+            try {
+                final BigInteger h = SchnorrQ.SchnorrHelper.scalar(schnorrQ.startChallenge(
+                        SchnorrQ.NO_DOMAIN, request.publicKey, Params.noOffset, request.signature, Params.noOffset,
+                        hashFunction.hasher()).update(request.message));
+                final PublicKey publicKey = useEquation ? publicKey(request.publicKey) : null;
+                if (publicKey == null || !publicKey.inSubgroup) {
+                    complete(request, verifySingle(request, h));
+                    continue;
+                }
+                final ExtendedPoint commitment = SchnorrQ.SchnorrHelper.subgroupPoint(request.signature, Params.noOffset);
+                if (commitment == null) {
+                    complete(request, false);
+                    continue;
+                }
+                candidates.add(new Candidate(request, publicKey.extended, commitment, h,
+                        LittleEndianCodec.readScalar(request.signature, Key.KEY_SIZE)));
+            } catch (RuntimeException e) {
+                request.result.completeExceptionally(e);
+                recordLatency(request);
+            }
+        }
+        verifyCandidates(candidates, 0, candidates.size());
+    }
+
+    // Checks candidates [from, to) with the batch equation, halving on failure
+    private void verifyCandidates(List<Candidate> candidates, int from, int to) {
+        if (from == to) return;
+        if (to - from == 1) {
+            final Candidate candidate = candidates.get(from);
+            complete(candidate.request, verifySingle(candidate.request, candidate.h));
+            return;
+        }
+        if (batchEquationHolds(candidates.subList(from, to))) {
+            for (int i = from; i < to; i++) complete(candidates.get(i).request, true);
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        verifyCandidates(candidates, from, middle);
+        verifyCandidates(candidates, middle, to);
+    }
+
+    private boolean batchEquationHolds(List<Candidate> candidates) {
+        final int n = candidates.size();
+        final ExtendedPoint[] points = new ExtendedPoint[2 * n + 1];
+        final BigInteger[] scalars = new BigInteger[2 * n + 1];
+        BigInteger generatorScalar = BigInteger.ZERO;
+        final byte[] coefficients = new byte[n * COEFFICIENT_SIZE];
+        CryptoUtils.randomBytes(coefficients);
+        for (int i = 0; i < n; i++) {
+            final Candidate candidate = candidates.get(i);
+            final BigInteger z = LittleEndianCodec.readInteger(coefficients, i * COEFFICIENT_SIZE, COEFFICIENT_SIZE)
+                    .setBit(COEFFICIENT_BITS - 1);
+            generatorScalar = generatorScalar.add(z.multiply(candidate.s));
+            points[2 * i] = candidate.publicKey;
+            scalars[2 * i] = FP.reduceModOrder(z.multiply(candidate.h));
+            points[2 * i + 1] = candidate.commitment;
+            scalars[2 * i + 1] = z.negate();
+        }
+        points[2 * n] = Curve.pointSetup(ECC.getGeneratorPoint());
+        scalars[2 * n] = FP.reduceModOrder(generatorScalar);
+        return ECC.isNeutral(ECC.eccMulMulti(points, scalars));
+    }
+
+    private boolean verifySingle(Request request, BigInteger h) {
+        individual.incrementAndGet();
+        return schnorrQ.finishVerify(request.publicKey, Params.noOffset, request.signature, Params.noOffset, h);
+    }
+
+    // Decodes a public key and checks its subgroup membership, once per distinct key
+    private PublicKey publicKey(byte[] encoded) throws ValidationException {
+        final ByteBuffer key = ByteBuffer.wrap(encoded.clone());
+        final PublicKey cached = publicKeys.get(key);
+        if (cached != null) return cached;
+
+        final FieldPoint point = CryptoUtils.decode(encoded, Params.noOffset);
+        final PublicKey decoded = new PublicKey(Curve.pointSetup(point), ECC.isInPrimeSubgroup(point));
+        if (publicKeys.size() >= PUBLIC_KEY_CACHE_SIZE) publicKeys.clear();
+        publicKeys.put(key, decoded);
+        return decoded;
+    }
+
+    private void complete(Request request, boolean valid) {
+        request.result.complete(valid);
+        recordLatency(request);
+    }
+
+    private void recordLatency(Request request) {
+        final long index = completed.getAndIncrement();
+        latencies.set((int) (index % LATENCY_SAMPLES), System.nanoTime() - request.enqueued);
+    }
+}
@@ -0,0 +1,177 @@
+package fourqj.api;
+
+import java.math.BigInteger;
+
+import fourqj.crypto.core.Conversion;
+import fourqj.crypto.core.Curve;
+import fourqj.crypto.core.ECC;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.ValidationException;
+import fourqj.fieldoperations.FP;
+import fourqj.types.data.F2Element;
+import fourqj.types.point.ExtendedPoint;
+import fourqj.types.point.FieldPoint;
+import fourqj.utils.CryptoUtils;
+
+import static fourqj.utils.SchnorrQUtils.ValidationChain;
+
+
+/**
+ * Immutable point on the FourQ curve supporting group operations.
+ * <p>
+ * Points are held in extended twisted Edwards coordinates (X:Y:Z:Ta:Tb), so
+ * {@link #add}, {@link #subtract}, {@link #negate} and {@link #twice} never invert.
+ * The affine form is computed lazily, at most once per instance, the first time it
+ * is needed by {@link #toAffine}, {@link #encode}, {@link #multiply} or {@link #hashCode}.
+ * This lets protocols such as key blinding or key aggregation chain many operations
+ * and pay for a single inversion at the end.
+ * <p>
+ * Equality is projective: two instances are equal if they represent the same point,
+ * regardless of their Z coordinates.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class CurvePoint {
+    private static final CurvePoint GENERATOR = new CurvePoint(ECC.getGeneratorPoint());
+    private static final CurvePoint IDENTITY = new CurvePoint(ECC.eccIdentity());
+
+    private final ExtendedPoint point;
+    private volatile FieldPoint affine;
+
+    private CurvePoint(ExtendedPoint point) {
+        this.point = point;
+    }
+
+    private CurvePoint(FieldPoint affine) {
+        this.affine = new FieldPoint(reduce(affine.getX()), reduce(affine.getY()));
+        this.point = Curve.pointSetup(this.affine);
+    }
+
+    /** @return the generator G of the prime-order subgroup */
+    public static CurvePoint generator() {
+        return GENERATOR;
+    }
+
+    /** @return the neutral element (0, 1) */
+    public static CurvePoint identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * Creates a point from affine coordinates.
+     *
+     * @param p the affine point (x, y), copied
+     * @return the point
+     * @throws ValidationException if (x, y) is not on the curve
+     */
+    public static CurvePoint fromAffine(FieldPoint p) {
+        ValidationChain.of(p).notNull("Point cannot be null.");
+        final CurvePoint result = new CurvePoint(p);
+        if (!ECC.eccPointValidate(result.point)) throw new ValidationException("Point is not on the curve.");
+        return result;
+    }
+
+    /**
+     * Decodes a compressed 32-byte point, see {@link CryptoUtils#decode}.
+     *
+     * @param encoded the compressed point
+     * @return the decoded point
+     * @throws EncryptionException if the encoding does not describe a curve point
+     */
+    public static CurvePoint decode(BigInteger encoded) throws EncryptionException {
+        ValidationChain.of(encoded).notNull("Encoded point cannot be null.");
+        return new CurvePoint(CryptoUtils.decode(encoded));
+    }
+
+    /** @return this + other */
+    public CurvePoint add(CurvePoint other) {
+        return new CurvePoint(ECC.eccAdd(Conversion.r1ToR2(other.point), point));
+    }
+
+    /** @return this - other */
+    public CurvePoint subtract(CurvePoint other) {
+        return new CurvePoint(ECC.eccAdd(Conversion.r1ToR2(ECC.eccNeg(other.point)), point));
+    }
+
+    /** @return -this */
+    public CurvePoint negate() {
+        return new CurvePoint(ECC.eccNeg(point));
+    }
+
+    /** @return 2 * this */
+    public CurvePoint twice() {
+        return new CurvePoint(ECC.eccDouble(point));
+    }
+
+    /**
+     * Variable-base scalar multiplication, see {@link ECC#eccMul}.
+     * The scalar is reduced modulo the curve order, so the result is only
+     * meaningful for points in the prime-order subgroup.
+     *
+     * @param k the scalar
+     * @return k * this
+     */
+    public CurvePoint multiply(BigInteger k) throws EncryptionException {
+        ValidationChain.of(k).notNull("Scalar cannot be null.");
+        return new CurvePoint(ECC.eccMul(affine(), k, false));
+    }
+
+    /** @return true if this is the neutral element */
+    public boolean isIdentity() {
+        return ECC.isNeutral(point);
+    }
+
+    /** @return true if this point lies in the prime-order subgroup, see {@link ECC#isInPrimeSubgroup} */
+    public boolean isInPrimeSubgroup() {
+        return ECC.isInPrimeSubgroup(affine());
+    }
+
+    /** @return the affine coordinates (x, y) of this point, as a fresh copy */
+    public FieldPoint toAffine() {
+        return copy(affine());
+    }
+
+    /** @return the compressed 32-byte encoding of this point, see {@link CryptoUtils#encode} */
+    public BigInteger encode() {
+        return CryptoUtils.encode(affine());
+    }
+
+    private FieldPoint affine() {
+        FieldPoint result = affine;
+        if (result == null) {
+            result = ECC.eccNorm(point);
+            affine = result;
+        }
+        return result;
+    }
+
+    private static FieldPoint copy(FieldPoint p) {
+        return new FieldPoint(p.getX().dup(), p.getY().dup());
+    }
+
+    // Fully reduced coordinates keep hashCode consistent with the projective equals
+    private static F2Element reduce(F2Element a) {
+        return new F2Element(FP.PUtil.fpMod1271(a.real), FP.PUtil.fpMod1271(a.im));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return switch (o) {
+            case CurvePoint that -> this == that || ECC.eccEquals(this.point, that.point);
+            case null, default -> false;
+        };
+    }
+
+    // Hashes the affine form, so the first call normalizes the point
+    @Override
+    public int hashCode() {
+        final FieldPoint p = affine();
+        return 31 * p.getX().hashCode() + p.getY().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return affine().toString();
+    }
+}
@@ -0,0 +1,265 @@
+package fourqj.api;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.exceptions.ValidationException;
+import fourqj.types.data.Pair;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Streaming public-key encryption to FourQ keys (ECIES).
+ * <p>
+ * The sender generates an ephemeral key pair and agrees on a shared secret with the
+ * recipient's {@link KeyExchange} public key, with the cofactor cleared. Kangaroo-12, used as
+ * an extendable-output function over the header, the recipient's public key and the shared
+ * secret, derives a 256-bit key and a 7-byte nonce prefix for an AEAD cipher of the JDK.
+ * <p>
+ * The plaintext is sealed in segments of a fixed size, segment i under the nonce
+ * (prefix || i as 4 big-endian bytes || 1 if i is the last segment, else 0), so segments
+ * cannot be reordered, dropped or cut off unnoticed. The ciphertext is
+ * <pre>
+ *     header     = version || cipher || segment size (4 bytes, big-endian) || ephemeral public key
+ *     ciphertext = header || sealed segment 0 || ... || sealed segment n
+ * </pre>
+ * where every sealed segment carries a 16-byte tag, and only the last may be shorter than the
+ * segment size. Encryption and decryption run over channels through direct buffers holding a
+ * single segment, so memory use does not depend on the payload size.
+ * <p>
+ * Decryption writes out each segment as soon as it authenticates. If decryption throws, the
+ * output written so far must be discarded.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class Ecies {
+    public static final int HEADER_SIZE = 2 + Integer.BYTES + Key.KEY_SIZE;
+    public static final int TAG_SIZE = 16;
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+    public static final int MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final byte VERSION = 1;
+    private static final int CIPHER_KEY_SIZE = 32;
+    private static final int NONCE_PREFIX_SIZE = 7;
+    private static final int NONCE_SIZE = 12;
+    private static final long MAX_SEGMENTS = 1L << Integer.SIZE;
+    private static final byte[] KDF_CUSTOMIZATION = "fourqj ECIES".getBytes(StandardCharsets.US_ASCII);
+    private static final Kangaroo12 KDF = new Kangaroo12();
+
+    /** The AEAD ciphers that seal the segments. */
+    public enum Aead {
+        CHACHA20_POLY1305("ChaCha20-Poly1305", "ChaCha20"),
+        AES_256_GCM("AES/GCM/NoPadding", "AES");
+
+        private final String transformation;
+        private final String keyAlgorithm;
+
+        Aead(String transformation, String keyAlgorithm) {
+            this.transformation = transformation;
+            this.keyAlgorithm = keyAlgorithm;
+        }
+
+        private AlgorithmParameterSpec parameters(byte[] nonce) {
+            return this == AES_256_GCM ? new GCMParameterSpec(TAG_SIZE * Byte.SIZE, nonce) : new IvParameterSpec(nonce);
+        }
+    }
+
+    private final Aead aead;
+    private final int segmentSize;
+
+    public Ecies() {
+        this(Aead.CHACHA20_POLY1305, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param aead the cipher sealing the segments
+     * @param segmentSize the plaintext bytes per segment, between 1 and {@link #MAX_SEGMENT_SIZE}
+     * @throws InvalidArgumentException if the segment size is out of range
+     */
+    public Ecies(Aead aead, int segmentSize) {
+        ValidationChain.of(aead).notNull("Cipher cannot be null.");
+        ValidationChain.of(segmentSize)
+                .validate(size -> size > 0 && size <= MAX_SEGMENT_SIZE, () -> new InvalidArgumentException(
+                        String.format("Segment size must be between 1 and %d.", MAX_SEGMENT_SIZE)));
+        this.aead = aead;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Encrypts everything readable from the plaintext channel to the recipient, writing the
+     * ciphertext to the other channel. Neither channel is closed.
+     *
+     * @param recipientPublicKey the recipient's 32-byte {@link KeyExchange} public key
+     * @param plaintext the channel to encrypt, read until its end
+     * @param ciphertext the channel receiving the ciphertext
+     * @throws IOException if reading or writing a channel fails
+     * @throws InvalidArgumentException if an argument is null or the key is not 32 bytes long
+     * @throws ValidationException if the recipient's key is not a valid public key
+     * @throws EncryptionException if the cipher is not available or the plaintext exceeds 2^32 segments
+     */
+    public void encrypt(byte[] recipientPublicKey, ReadableByteChannel plaintext, WritableByteChannel ciphertext)
+            throws IOException {
+        SchnorrQ.SchnorrHelper.checkLength(recipientPublicKey, Key.KEY_SIZE, "Recipient public key");
+        ValidationChain.of(plaintext).notNull("Plaintext channel cannot be null.");
+        ValidationChain.of(ciphertext).notNull("Ciphertext channel cannot be null.");
+        final PeerPublicKey recipient = KeyExchange.peerPublicKey(recipientPublicKey);
+
+        final Pair<byte[], byte[]> ephemeral = KeyExchange.compressedKeyGeneration();
+        final byte[] shared = KeyExchange.compressedSecretAgreement(ephemeral.first, recipient);
+        Arrays.fill(ephemeral.first, (byte) 0);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .put(VERSION)
+                .put((byte) (aead.ordinal() + 1))
+                .putInt(segmentSize)
+                .put(ephemeral.second)
+                .flip();
+
+        final SegmentCipher cipher = new SegmentCipher(aead, Cipher.ENCRYPT_MODE, header.array(), recipientPublicKey, shared);
+        writeFully(ciphertext, header);
+        processSegments(plaintext, ciphertext, cipher, segmentSize, segmentSize + TAG_SIZE);
+    }
+
+    /**
+     * Decrypts a ciphertext produced by {@link #encrypt} for the holder of the secret key. The
+     * cipher and segment size are read from the header, so any instance can decrypt. Neither
+     * channel is closed.
+     *
+     * @param recipientSecretKey the recipient's 32-byte {@link KeyExchange} secret key
+     * @param ciphertext the channel to decrypt, read until its end
+     * @param plaintext the channel receiving the plaintext
+     * @throws IOException if reading or writing a channel fails
+     * @throws InvalidArgumentException if an argument is null or the key is not 32 bytes long
+     * @throws ValidationException if the header is malformed or a segment fails authentication,
+     *         including when the ciphertext was truncated or was not encrypted to this key
+     * @throws EncryptionException if the cipher is not available
+     */
+    public void decrypt(byte[] recipientSecretKey, ReadableByteChannel ciphertext, WritableByteChannel plaintext)
+            throws IOException {
+        SchnorrQ.SchnorrHelper.checkLength(recipientSecretKey, Key.KEY_SIZE, "Recipient secret key");
+        ValidationChain.of(ciphertext).notNull("Ciphertext channel cannot be null.");
+        ValidationChain.of(plaintext).notNull("Plaintext channel cannot be null.");
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (!fill(ciphertext, header)) throw new ValidationException("Ciphertext is shorter than its header.");
+        header.flip();
+        final byte version = header.get();
+        final int cipherId = header.get();
+        final int size = header.getInt();
+        if (version != VERSION) throw new ValidationException("Unsupported ciphertext version " + version + ".");
+        if (cipherId < 1 || cipherId > Aead.values().length) throw new ValidationException("Unknown cipher " + cipherId + ".");
+        if (size <= 0 || size > MAX_SEGMENT_SIZE) throw new ValidationException("Segment size is out of range.");
+        final byte[] ephemeralPublicKey = new byte[Key.KEY_SIZE];
+        header.get(ephemeralPublicKey);
+
+        final byte[] shared = KeyExchange.compressedSecretAgreement(recipientSecretKey, ephemeralPublicKey);
+        final SegmentCipher cipher = new SegmentCipher(Aead.values()[cipherId - 1], Cipher.DECRYPT_MODE, header.array(),
+                KeyExchange.compressedPublicKey(recipientSecretKey), shared);
+        processSegments(ciphertext, plaintext, cipher, size + TAG_SIZE, size);
+    }
+
+    /**
+     * @param plaintextSize the number of plaintext bytes
+     * @return the size of the ciphertext this instance produces for them
+     * @throws InvalidArgumentException if plaintextSize is negative
+     */
+    public long ciphertextSize(long plaintextSize) {
+        ValidationChain.of(plaintextSize)
+                .validate(size -> size >= 0, () -> new InvalidArgumentException("Plaintext size cannot be negative."));
+        final long segments = plaintextSize == 0 ? 1 : (plaintextSize + segmentSize - 1) / segmentSize;
+        return HEADER_SIZE + plaintextSize + segments * TAG_SIZE;
+    }
+
+    // Transforms segment after segment, reading one byte beyond each to find out whether it is the last
+    private static void processSegments(ReadableByteChannel source, WritableByteChannel sink, SegmentCipher cipher,
+                                        int inputSegmentSize, int outputSegmentSize) throws IOException {
+        final ByteBuffer input = ByteBuffer.allocateDirect(inputSegmentSize + 1);
+        final ByteBuffer output = ByteBuffer.allocateDirect(outputSegmentSize);
+        for (long index = 0; ; index++) {
+            if (index == MAX_SEGMENTS) throw new EncryptionException("Payload exceeds the maximum number of segments.");
+            final boolean last = !fill(source, input);
+            input.flip();
+            if (!last) input.limit(inputSegmentSize);
+            output.clear();
+            cipher.process(index, last, input, output);
+            writeFully(sink, output.flip());
+            if (last) return;
+            // Keep the byte read ahead as the start of the next segment
+            input.limit(inputSegmentSize + 1);
+            input.compact();
+        }
+    }
+
+    // Reads until the buffer is full or the channel ends, and returns whether it is full
+    private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) return false;
+        }
+        return true;
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    // The AEAD cipher of one message, with the key and nonce prefix derived from its header
+    private static final class SegmentCipher {
+        private final Aead aead;
+        private final int mode;
+        private final Cipher cipher;
+        private final SecretKeySpec key;
+        private final byte[] nonce = new byte[NONCE_SIZE];
+
+        SegmentCipher(Aead aead, int mode, byte[] header, byte[] recipientPublicKey, byte[] shared) {
+            final byte[] input = new byte[HEADER_SIZE + Key.KEY_SIZE + KeyExchange.SHARED_SECRET_SIZE];
+            System.arraycopy(header, 0, input, 0, HEADER_SIZE);
+            System.arraycopy(recipientPublicKey, 0, input, HEADER_SIZE, Key.KEY_SIZE);
+            System.arraycopy(shared, 0, input, HEADER_SIZE + Key.KEY_SIZE, KeyExchange.SHARED_SECRET_SIZE);
+            final byte[] keyMaterial = new byte[CIPHER_KEY_SIZE + NONCE_PREFIX_SIZE];
+            KDF.computeXof(input, KDF_CUSTOMIZATION, keyMaterial, 0, keyMaterial.length);
+
+            this.aead = aead;
+            this.mode = mode;
+            this.key = new SecretKeySpec(keyMaterial, 0, CIPHER_KEY_SIZE, aead.keyAlgorithm);
+            System.arraycopy(keyMaterial, CIPHER_KEY_SIZE, nonce, 0, NONCE_PREFIX_SIZE);
+            Arrays.fill(input, (byte) 0);
+            Arrays.fill(keyMaterial, (byte) 0);
+            Arrays.fill(shared, (byte) 0);
+            try {
+                this.cipher = Cipher.getInstance(aead.transformation);
+            } catch (GeneralSecurityException e) {
+                throw new EncryptionException(String.format("No such cipher: %s", aead.transformation));
+            }
+        }
+
+        void process(long index, boolean last, ByteBuffer input, ByteBuffer output) {
+            for (int i = 0; i < Integer.BYTES; i++) nonce[NONCE_PREFIX_SIZE + i] = (byte) (index >>> (Byte.SIZE * (Integer.BYTES - 1 - i)));
+            nonce[NONCE_SIZE - 1] = (byte) (last ? 1 : 0);
+            try {
+                cipher.init(mode, key, aead.parameters(nonce));
+                cipher.doFinal(input, output);
+            } catch (AEADBadTagException e) {
+                throw new ValidationException("Ciphertext segment " + index + " failed authentication.");
+            } catch (GeneralSecurityException e) {
+                if (mode == Cipher.DECRYPT_MODE) throw new ValidationException("Ciphertext segment " + index + " is malformed.");
+                throw new EncryptionException("Segment " + index + " could not be encrypted: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package fourqj.api;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.types.data.Pair;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * A pool of ephemeral key pairs generated ahead of time, for bursts of handshakes.
+ * <p>
+ * Low-priority background threads fill a lock-free bounded ring up to its capacity and then
+ * sleep. Once {@link #take()} drains the ring below the low watermark they wake and refill
+ * it to capacity again, so refilling happens in runs instead of after every pair. Each pair
+ * is handed out exactly once. When the ring is empty, {@link #take()} generates a pair on
+ * the calling thread instead of waiting.
+ * <p>
+ * If the generator throws, the background threads retry after a delay that doubles with each
+ * further failure, up to one second. Until a retry succeeds, {@link #take()} on an empty pool
+ * fails with the background failure as its cause.
+ * <p>
+ * By default the pairs are {@link KeyExchange} key pairs, (secret key, public key) as 32-byte
+ * arrays. Closing the pool stops the background threads and wipes the secret keys of the
+ * pairs never handed out. Instances are safe for use by several threads.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class EphemeralKeyPool implements AutoCloseable {
+    // Wait before the first retry of a failing generator, and the cap of its doubling
+    private static final long INITIAL_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Supplier<Pair<byte[], byte[]>> generator;
+    private final Ring<Pair<byte[], byte[]>> ring;
+    private final int capacity;
+    private final int lowWatermark;
+    private final Thread[] refillers;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile boolean running = true;
+    // The last failure of a background generation, cleared by the next success
+    private volatile RuntimeException refillFailure;
+
+    /**
+     * Creates a pool of {@link KeyExchange} key pairs refilled by a single thread.
+     *
+     * @param capacity the number of pairs kept ready
+     * @param lowWatermark the number of ready pairs below which refilling starts
+     */
+    public EphemeralKeyPool(int capacity, int lowWatermark) {
+        this(KeyExchange::compressedKeyGeneration, capacity, lowWatermark, 1);
+    }
+
+    /**
+     * @param generator creates one key pair (secret key, public key) per call
+     * @param capacity the number of pairs kept ready
+     * @param lowWatermark the number of ready pairs below which refilling starts, between 1 and capacity
+     * @param refillThreads the number of background threads generating pairs
+     * @throws InvalidArgumentException if a size or the thread count is out of range
+     */
+    public EphemeralKeyPool(Supplier<Pair<byte[], byte[]>> generator, int capacity, int lowWatermark, int refillThreads) {
+        ValidationChain.of(generator).notNull("Key pair generator cannot be null.");
+        ValidationChain.of(capacity)
+                .validate(n -> n > 0, () -> new InvalidArgumentException("Pool capacity must be positive."));
+        ValidationChain.of(lowWatermark)
+                .validate(n -> n > 0 && n <= capacity, () -> new InvalidArgumentException(
+                        "Low watermark must be between 1 and the pool capacity."));
+        ValidationChain.of(refillThreads)
+                .validate(n -> n > 0, () -> new InvalidArgumentException("Pool must have at least one refill thread."));
+
+        this.generator = generator;
+        this.ring = new Ring<>(capacity);
+        this.capacity = capacity;
+        this.lowWatermark = lowWatermark;
+        this.refillers = new Thread[refillThreads];
+        for (int i = 0; i < refillThreads; i++) {
+            refillers[i] = new Thread(this::refill, "fourqj-key-pool-" + i);
+            refillers[i].setDaemon(true);
+            refillers[i].setPriority(Thread.MIN_PRIORITY);
+            refillers[i].start();
+        }
+    }
+
+    /**
+     * Hands out a key pair, generating it on the calling thread if none is ready.
+     *
+     * @return a key pair (secret key, public key) not returned by any other call
+     * @throws InvalidArgumentException if the pool has been closed
+     * @throws EncryptionException if a pair has to be generated and generation fails, or the
+     *         background threads' last attempt failed, which is then the cause
+     */
+    public Pair<byte[], byte[]> take() throws EncryptionException {
+        if (!running) throw new InvalidArgumentException("Key pool has been closed.");
+        final Pair<byte[], byte[]> pair = ring.poll();
+        if (ring.size() < lowWatermark) {
+            for (Thread refiller : refillers) LockSupport.unpark(refiller);
+        }
+        if (pair != null) {
+            hits.incrementAndGet();
+            return pair;
+        }
+        misses.incrementAndGet();
+        final RuntimeException failure = refillFailure;
+        if (failure != null) throw new EncryptionException("Background key pair generation is failing.", failure);
+        return generator.get();
+    }
+
+    /** @return the number of key pairs ready to be handed out */
+    public int available() {
+        return ring.size();
+    }
+
+    /** @return the number of calls to {@link #take()} served from the pool */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /** @return the number of calls to {@link #take()} that found the pool empty and generated their pair inline */
+    public long missCount() {
+        return misses.get();
+    }
+
+    /** Stops the background threads and wipes the secret keys of the pairs left in the pool. */
+    @Override
+    public void close() {
+        running = false;
+        for (Thread refiller : refillers) refiller.interrupt();
+        for (Thread refiller : refillers) {
+            try {
+                refiller.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Pair<byte[], byte[]> pair;
+        while ((pair = ring.poll()) != null) Arrays.fill(pair.first, (byte) 0);
+    }
+
+    // Fills the ring to capacity, then sleeps until it drops below the low watermark. Backs off while the generator fails.
+    private void refill() {
+        long backoff = INITIAL_BACKOFF_NANOS;
+        while (running) {
+            boolean failed = false;
+            while (running && ring.size() < capacity) {
+                final Pair<byte[], byte[]> pair;
+                try {
+                    pair = generator.get();
+                } catch (RuntimeException e) {
+                    refillFailure = e;
+                    failed = true;
+                    break;
+                }
+                if (refillFailure != null) refillFailure = null;
+                backoff = INITIAL_BACKOFF_NANOS;
+                if (!running || !ring.offer(pair)) {
+                    Arrays.fill(pair.first, (byte) 0);
+                    break;
+                }
+            }
+            if (failed) {
+                // Unparks from take() do not cut the wait short, so a failing generator is retried at a bounded rate
+                final long deadline = System.nanoTime() + backoff;
+                long wait;
+                while (running && (wait = deadline - System.nanoTime()) > 0) LockSupport.parkNanos(this, wait);
+                backoff = Math.min(2 * backoff, MAX_BACKOFF_NANOS);
+                continue;
+            }
+            while (running && ring.size() >= lowWatermark) LockSupport.park(this);
+        }
+    }
+
+    /**
+     * Bounded lock-free multi-producer multi-consumer ring after Vyukov. Each slot carries a
+     * sequence number telling producers and consumers whose turn it is, so a successful
+     * compare-and-set on the head or tail claims a slot outright.
+     */
+    private static final class Ring<T> {
+        private final AtomicReferenceArray<T> items;
+        private final AtomicLongArray sequences;
+        private final int capacity;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+
+        Ring(int capacity) {
+            final int slots = Integer.highestOneBit(Math.max(2, capacity * 2 - 1));
+            this.items = new AtomicReferenceArray<>(slots);
+            this.sequences = new AtomicLongArray(slots);
+            for (int i = 0; i < slots; i++) sequences.set(i, i);
+            this.capacity = capacity;
+            this.mask = slots - 1;
+        }
+
+        boolean offer(T item) {
+            long position = tail.get();
+            while (true) {
+                if (position - head.get() >= capacity) return false;
+                final int slot = (int) (position & mask);
+                final long difference = sequences.get(slot) - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        items.set(slot, item);
+                        sequences.set(slot, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (difference < 0) {
+                    return false;       // Slot still held by a consumer a full lap behind
+                } else {
+                    position = tail.get();
+                }
+            }
+        }
+
+        T poll() {
+            long position = head.get();
+            while (true) {
+                final int slot = (int) (position & mask);
+                final long difference = sequences.get(slot) - (position + 1);
+                if (difference == 0) {
+                    if (head.compareAndSet(position, position + 1)) {
+                        final T item = items.getAndSet(slot, null);
+                        sequences.set(slot, position + mask + 1);
+                        return item;
+                    }
+                    position = head.get();
+                } else if (difference < 0) {
+                    return null;        // Empty
+                } else {
+                    position = head.get();
+                }
+            }
+        }
+
+        int size() {
+            return (int) Math.max(0, Math.min(capacity, tail.get() - head.get()));
+        }
+    }
+}
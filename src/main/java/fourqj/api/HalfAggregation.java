@@ -0,0 +1,193 @@
+package fourqj.api;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import fourqj.constants.Key;
+import fourqj.constants.Params;
+import fourqj.crypto.core.Curve;
+import fourqj.crypto.core.ECC;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.exceptions.ValidationErrors;
+import fourqj.fieldoperations.FP;
+import fourqj.types.point.ExtendedPoint;
+import fourqj.types.point.FieldPoint;
+import fourqj.utils.ByteArrayUtils;
+import fourqj.utils.CryptoUtils;
+import fourqj.utils.LittleEndianCodec;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Non-interactive half-aggregation of SchnorrQ signatures.
+ * <p>
+ * Signatures (R_i, s_i) by keys A_i on messages M_i are combined, by anyone and without the
+ * secret keys, into an aggregate R_1 || ... || R_n || s_agg of 32(n + 1) bytes, roughly half
+ * the size of the individual signatures. Here s_agg = sum(z_i*s_i) mod order, where z_1 = 1
+ * and each further z_i is a 128-bit coefficient derived from a hash of every R_j, A_j and
+ * challenge h_j = H(R_j || A_j || M_j). The aggregate is checked with a single multi-scalar
+ * multiplication:
+ * <pre>
+ *     s_agg*G + sum(z_i*h_i*A_i) - sum(z_i*R_i) = O
+ * </pre>
+ * Aggregation does not check the signatures; an aggregate containing an invalid signature
+ * fails verification. Since the equation is evaluated without clearing the cofactor, every
+ * A_i and R_i must be canonically encoded and lie in the prime-order subgroup. Public keys
+ * produced by {@link SchnorrQ} always do, so this only rejects deliberately malformed keys.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public class HalfAggregation {
+    private static final byte[] DOMAIN_STRING = "SchnorrQ half-aggregation".getBytes(StandardCharsets.US_ASCII);
+    private static final int COEFFICIENT_SIZE = 16;
+
+    private final HashFunction hashFunction;
+    private final SchnorrQ schnorrQ;
+
+    public HalfAggregation() {
+        this(new SHA512());
+    }
+
+    /**
+     * @param hash the hash function the signatures were created with
+     */
+    public HalfAggregation(HashFunction hash) {
+        ValidationChain.of(hash).notNull("Hash function cannot be null.");
+        this.hashFunction = hash;
+        this.schnorrQ = new SchnorrQ(hash);
+    }
+
+    /**
+     * @param count the number of signatures aggregated
+     * @return the size in bytes of their aggregate
+     */
+    public static int aggregateSize(int count) {
+        return (count + 1) * Key.KEY_SIZE;
+    }
+
+    /**
+     * Aggregates SchnorrQ signatures. Entry i of each array belongs to the same signature.
+     *
+     * @param publicKeys the signers' 32-byte public keys
+     * @param messages the signed messages
+     * @param signatures the 64-byte signatures (R || s)
+     * @return the aggregate R_1 || ... || R_n || s_agg
+     * @throws InvalidArgumentException if the arrays are empty, differ in length or hold malformed entries
+     * @throws EncryptionException if hashing fails
+     */
+    public byte[] aggregate(byte[][] publicKeys, byte[][] messages, byte[][] signatures) throws EncryptionException {
+        checkInputs(publicKeys, messages);
+        SchnorrQ.SchnorrHelper.checkBatch(signatures, "Signatures", Key.SIGNATURE_SIZE);
+        ValidationChain.of(signatures)
+                .validate(s -> s.length == publicKeys.length, () -> new InvalidArgumentException(
+                        "Public keys, messages and signatures must have the same length."));
+
+        final int n = signatures.length;
+        final byte[] aggregate = new byte[aggregateSize(n)];
+        final BigInteger[] challenges = new BigInteger[n];
+        for (int i = 0; i < n; i++) {
+            SchnorrQ.SchnorrHelper.validateVerifyInputs(publicKeys[i], Params.noOffset, signatures[i], Params.noOffset);
+            System.arraycopy(signatures[i], Params.noOffset, aggregate, i * Key.KEY_SIZE, Key.KEY_SIZE);
+            challenges[i] = schnorrQ.challenge(SchnorrQ.NO_DOMAIN, signatures[i], Params.noOffset,
+                    publicKeys[i], Params.noOffset, ByteBuffer.wrap(messages[i]));
+        }
+
+        final BigInteger[] coefficients = coefficients(publicKeys, aggregate, challenges);
+        BigInteger sum = BigInteger.ZERO;
+        for (int i = 0; i < n; i++) {
+            sum = sum.add(coefficients[i].multiply(LittleEndianCodec.readScalar(signatures[i], Key.KEY_SIZE)));
+        }
+        LittleEndianCodec.writeScalar(FP.reduceModOrder(sum), aggregate, n * Key.KEY_SIZE);
+        return aggregate;
+    }
+
+    /**
+     * Verifies an aggregate against the public keys and messages it was created from, in the same order.
+     *
+     * @param publicKeys the signers' 32-byte public keys
+     * @param messages the signed messages
+     * @param aggregate the aggregate returned by {@link #aggregate}
+     * @return true if every aggregated signature is valid, false otherwise
+     * @throws InvalidArgumentException if the inputs are malformed or the aggregate has the wrong size
+     * @throws EncryptionException if a public key does not decode to a curve point
+     */
+    public boolean verify(byte[][] publicKeys, byte[][] messages, byte[] aggregate) throws EncryptionException {
+        checkInputs(publicKeys, messages);
+        final int n = publicKeys.length;
+        SchnorrQ.SchnorrHelper.checkLength(aggregate, aggregateSize(n), "Aggregate");
+
+        final BigInteger generatorScalar = LittleEndianCodec.readScalar(aggregate, n * Key.KEY_SIZE);
+        if (generatorScalar.compareTo(Params.CURVE_ORDER) >= 0) return false;
+
+        final ExtendedPoint[] points = new ExtendedPoint[2 * n + 1];
+        final BigInteger[] scalars = new BigInteger[2 * n + 1];
+        final BigInteger[] challenges = new BigInteger[n];
+        for (int i = 0; i < n; i++) {
+            ValidationChain.of(publicKeys[i])
+                    .validate(pk -> !ByteArrayUtils.testBit(pk, Params.noOffset, Key.KEY_SIZE, Key.PUB_TEST_BIT),
+                            ValidationErrors::publicKeyError);
+            final FieldPoint publicKey = CryptoUtils.decode(publicKeys[i], Params.noOffset);
+            final ExtendedPoint commitment = SchnorrQ.SchnorrHelper.subgroupPoint(aggregate, i * Key.KEY_SIZE);
+            if (commitment == null || !ECC.isInPrimeSubgroup(publicKey)) return false;
+
+            points[2 * i] = Curve.pointSetup(publicKey);
+            points[2 * i + 1] = commitment;
+            challenges[i] = schnorrQ.challenge(SchnorrQ.NO_DOMAIN, aggregate, i * Key.KEY_SIZE,
+                    publicKeys[i], Params.noOffset, ByteBuffer.wrap(messages[i]));
+        }
+
+        final BigInteger[] coefficients = coefficients(publicKeys, aggregate, challenges);
+        for (int i = 0; i < n; i++) {
+            scalars[2 * i] = FP.reduceModOrder(coefficients[i].multiply(challenges[i]));
+            scalars[2 * i + 1] = coefficients[i].negate();
+        }
+        points[2 * n] = Curve.pointSetup(ECC.getGeneratorPoint());
+        scalars[2 * n] = generatorScalar;
+        return ECC.isNeutral(ECC.eccMulMulti(points, scalars));
+    }
+
+    private static void checkInputs(byte[][] publicKeys, byte[][] messages) throws InvalidArgumentException {
+        SchnorrQ.SchnorrHelper.checkBatch(publicKeys, "Public keys", Key.KEY_SIZE);
+        SchnorrQ.SchnorrHelper.checkBatch(messages, "Messages", -1);
+        ValidationChain.of(publicKeys)
+                .validate(pks -> pks.length > 0, () -> new InvalidArgumentException("Cannot aggregate zero signatures."))
+                .validate(pks -> pks.length == messages.length, () -> new InvalidArgumentException(
+                        "Public keys, messages and signatures must have the same length."));
+    }
+
+    // z_1 = 1 and z_i = H(L || i)[0:16] for i > 1, where L = H(domain || n || R_1 || A_1 || h_1 || ... || R_n || A_n || h_n)
+    private BigInteger[] coefficients(byte[][] publicKeys, byte[] commitments, BigInteger[] challenges) throws EncryptionException {
+        final int n = challenges.length;
+        final byte[] encoded = new byte[Key.KEY_SIZE];
+        final byte[] count = new byte[Integer.BYTES];
+        LittleEndianCodec.writeInteger(BigInteger.valueOf(n), count, Params.noOffset, Integer.BYTES);
+        final HashFunction.Hasher transcript = hashFunction.hasher()
+                .update(DOMAIN_STRING)
+                .update(count);
+        for (int i = 0; i < n; i++) {
+            LittleEndianCodec.writeScalar(challenges[i], encoded, Params.noOffset);
+            transcript.update(commitments, i * Key.KEY_SIZE, Key.KEY_SIZE)
+                    .update(publicKeys[i])
+                    .update(encoded);
+        }
+        final byte[] digest = transcript.doFinal();
+
+        final BigInteger[] coefficients = new BigInteger[n];
+        coefficients[0] = BigInteger.ONE;
+        for (int i = 1; i < n; i++) {
+            LittleEndianCodec.writeInteger(BigInteger.valueOf(i), count, Params.noOffset, Integer.BYTES);
+            final byte[] z = hashFunction.hasher()
+                    .update(digest)
+                    .update(count)
+                    .doFinal();
+            coefficients[i] = LittleEndianCodec.readInteger(z, Params.noOffset, COEFFICIENT_SIZE);
+        }
+        return coefficients;
+    }
+}
@@ -0,0 +1,183 @@
+package fourqj.api;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import fourqj.constants.Key;
+import fourqj.constants.Params;
+import fourqj.crypto.core.Conversion;
+import fourqj.crypto.core.Curve;
+import fourqj.crypto.core.ECC;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.fieldoperations.FP;
+import fourqj.types.point.ExtendedPoint;
+import fourqj.types.point.FieldPoint;
+import fourqj.types.point.PreComputedExtendedPoint;
+import fourqj.utils.CryptoUtils;
+import fourqj.utils.LittleEndianCodec;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Hierarchical deterministic derivation of SchnorrQ keys.
+ * <p>
+ * A parent key is a SchnorrQ key pair together with a 32-byte chain code. Child number i is
+ * derived from the digest D = H(domain || chainCode || parentPublicKey || i):
+ * <pre>
+ *     tweak            = D[0:32] mod order
+ *     child secret     = parent secret + tweak mod order
+ *     child public key = parent public key + tweak*G
+ *     child chain code = D[32:64]
+ * </pre>
+ * so the public key of any child follows from the parent's public key and chain code alone,
+ * with one fixed-base multiplication and one point addition. {@link #derivePublicKeys}
+ * derives a range of children and normalizes them all with a single field inversion. A child's
+ * nonce seed is derived from the parent's, so children sign deterministically and independently.
+ * <p>
+ * As with any such public derivation, a child's secret key together with the parent's chain
+ * code reveals the parent's secret key; keep chain codes secret from holders of child keys.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public class KeyDerivation {
+    public static final int CHAIN_CODE_SIZE = 32;
+    private static final byte[] DOMAIN_STRING = "SchnorrQ key derivation".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NONCE_DOMAIN_STRING = "SchnorrQ key derivation nonce".getBytes(StandardCharsets.US_ASCII);
+
+    private final HashFunction hashFunction;
+
+    public KeyDerivation() {
+        this(new SHA512());
+    }
+
+    /**
+     * @param hash the hash function of the derivation and of the keys being derived
+     */
+    public KeyDerivation(HashFunction hash) {
+        ValidationChain.of(hash).notNull("Hash function cannot be null.");
+        this.hashFunction = hash;
+    }
+
+    /**
+     * Derives the signing key of a child.
+     *
+     * @param parent the parent's signing key material
+     * @param chainCode the parent's 32-byte chain code
+     * @param index the child number, non-negative
+     * @return the child's signing key material, usable with a {@link SchnorrQ} on the same hash function
+     * @throws InvalidArgumentException if an argument is invalid or the parent key material is unusable
+     * @throws EncryptionException if the child key is zero, which happens with negligible probability; use the next index
+     */
+    public SigningKeyMaterial deriveSigningKey(SigningKeyMaterial parent, byte[] chainCode, int index) throws EncryptionException {
+        ValidationChain.of(parent).notNull("Signing key material cannot be null.");
+        checkInputs(parent.publicKeyBytes(), chainCode, index);
+        final byte[] parentHash = parent.secretHash(hashFunction);
+
+        final byte[] digest = derivationDigest(parent.publicKeyBytes(), chainCode, index);
+        final BigInteger secret = FP.addModOrder(
+                FP.moduloOrder(LittleEndianCodec.readScalar(parentHash, Params.noOffset)), tweak(digest));
+        if (secret.signum() == 0) throw new EncryptionException("Derived secret key is zero.");
+
+        final byte[] childHash = new byte[HashFunction.HASH_OUTPUT_SIZE];
+        LittleEndianCodec.writeScalar(secret, childHash, Params.noOffset);
+        final byte[] nonceSeed = hashFunction.hasher()
+                .update(NONCE_DOMAIN_STRING)
+                .update(parentHash, Key.KEY_SIZE, Key.KEY_SIZE)
+                .update(digest)
+                .doFinal();
+        System.arraycopy(nonceSeed, 0, childHash, Key.KEY_SIZE, Key.KEY_SIZE);
+        Arrays.fill(nonceSeed, (byte) 0);
+
+        final byte[] publicKey = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(ECC.eccMulFixed(secret), publicKey, Params.noOffset);
+        return new SigningKeyMaterial(childHash, publicKey, hashFunction.getClass());
+    }
+
+    /**
+     * Derives the public key of a child from the parent's public key.
+     *
+     * @param parentPublicKey the parent's 32-byte public key
+     * @param chainCode the parent's 32-byte chain code
+     * @param index the child number, non-negative
+     * @return the child's 32-byte public key
+     * @throws InvalidArgumentException if an argument is invalid
+     * @throws EncryptionException if the parent public key does not decode to a curve point
+     */
+    public byte[] derivePublicKey(byte[] parentPublicKey, byte[] chainCode, int index) throws EncryptionException {
+        return derivePublicKeys(parentPublicKey, chainCode, index, 1);
+    }
+
+    /**
+     * Derives the public keys of the children firstIndex to firstIndex + count - 1, normalizing
+     * them together with a single field inversion.
+     *
+     * @param parentPublicKey the parent's 32-byte public key
+     * @param chainCode the parent's 32-byte chain code
+     * @param firstIndex the first child number, non-negative
+     * @param count the number of children
+     * @return the children's 32-byte public keys back to back, count * 32 bytes
+     * @throws InvalidArgumentException if an argument is invalid or the indices run past Integer.MAX_VALUE
+     * @throws EncryptionException if the parent public key does not decode to a curve point
+     */
+    public byte[] derivePublicKeys(byte[] parentPublicKey, byte[] chainCode, int firstIndex, int count) throws EncryptionException {
+        checkInputs(parentPublicKey, chainCode, firstIndex);
+        ValidationChain.of(count)
+                .validate(n -> n >= 0 && n <= Integer.MAX_VALUE / Key.KEY_SIZE && (n == 0 || firstIndex <= Integer.MAX_VALUE - (n - 1)),
+                        () -> new InvalidArgumentException("Child count is out of range."));
+
+        final PreComputedExtendedPoint parent = Conversion.r1ToR2(Curve.pointSetup(CryptoUtils.decode(parentPublicKey, Params.noOffset)));
+        final ExtendedPoint[] children = new ExtendedPoint[count];
+        for (int i = 0; i < count; i++) {
+            final BigInteger tweak = tweak(derivationDigest(parentPublicKey, chainCode, firstIndex + i));
+            children[i] = ECC.eccAdd(parent, ECC.eccMulFixedExtended(tweak));
+        }
+
+        final FieldPoint[] affine = ECC.eccNormBatch(children);
+        final byte[] publicKeys = new byte[count * Key.KEY_SIZE];
+        for (int i = 0; i < count; i++) CryptoUtils.encode(affine[i], publicKeys, i * Key.KEY_SIZE);
+        return publicKeys;
+    }
+
+    /**
+     * Derives the chain code of a child, needed to derive its own children.
+     *
+     * @param parentPublicKey the parent's 32-byte public key
+     * @param chainCode the parent's 32-byte chain code
+     * @param index the child number, non-negative
+     * @return the child's 32-byte chain code
+     * @throws InvalidArgumentException if an argument is invalid
+     */
+    public byte[] deriveChainCode(byte[] parentPublicKey, byte[] chainCode, int index) throws EncryptionException {
+        checkInputs(parentPublicKey, chainCode, index);
+        return Arrays.copyOfRange(derivationDigest(parentPublicKey, chainCode, index), Key.KEY_SIZE, Key.KEY_SIZE + CHAIN_CODE_SIZE);
+    }
+
+    private static void checkInputs(byte[] parentPublicKey, byte[] chainCode, int index) throws InvalidArgumentException {
+        SchnorrQ.SchnorrHelper.checkLength(parentPublicKey, Key.KEY_SIZE, "Parent public key");
+        SchnorrQ.SchnorrHelper.checkLength(chainCode, CHAIN_CODE_SIZE, "Chain code");
+        ValidationChain.of(index)
+                .validate(i -> i >= 0, () -> new InvalidArgumentException("Child index cannot be negative."));
+    }
+
+    // H(domain || chainCode || parentPublicKey || index), with the index as 4 little-endian bytes
+    private byte[] derivationDigest(byte[] parentPublicKey, byte[] chainCode, int index) throws EncryptionException {
+        final byte[] encodedIndex = new byte[Integer.BYTES];
+        for (int i = 0; i < Integer.BYTES; i++) encodedIndex[i] = (byte) (index >>> (Byte.SIZE * i));
+        return hashFunction.hasher()
+                .update(DOMAIN_STRING)
+                .update(chainCode)
+                .update(parentPublicKey)
+                .update(encodedIndex)
+                .doFinal();
+    }
+
+    private static BigInteger tweak(byte[] digest) {
+        return FP.moduloOrder(LittleEndianCodec.readScalar(digest, Params.noOffset));
+    }
+}
@@ -0,0 +1,133 @@
+package fourqj.api;
+
+import java.util.Arrays;
+
+import fourqj.constants.Key;
+import fourqj.constants.Params;
+import fourqj.crypto.core.ECC;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.exceptions.ValidationException;
+import fourqj.types.data.Pair;
+import fourqj.types.point.FieldPoint;
+import fourqj.types.point.PreComputedExtendedPoint;
+import fourqj.utils.CryptoUtils;
+import fourqj.utils.LittleEndianCodec;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Elliptic curve Diffie-Hellman key agreement on FourQ with 32-byte compressed public keys,
+ * following CompressedKeyGeneration, CompressedPublicKey and CompressedSecretAgreement of the
+ * reference implementation.
+ * <p>
+ * A secret key is 32 random bytes read as a little-endian scalar, and its public key is the
+ * encoding of the fixed-base multiple secretKey*G. The shared secret is the y-coordinate of
+ * 392*secretKey*A for the peer's public key A. Clearing the cofactor maps any point of small
+ * order to the neutral element, which is rejected, so a malicious peer cannot learn bits of
+ * the secret key from the result. This is the FourQ counterpart of the all-zero output check
+ * of X25519.
+ * <p>
+ * The shared secret is not uniformly random and should be passed through a key derivation
+ * function before use.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class KeyExchange {
+    public static final int SHARED_SECRET_SIZE = 32;
+
+    private KeyExchange() {}
+
+    /**
+     * Generates an ephemeral key pair.
+     *
+     * @return a Pair containing the 32-byte secret key and the 32-byte public key
+     * @throws EncryptionException if the scalar multiplication fails
+     */
+    public static Pair<byte[], byte[]> compressedKeyGeneration() throws EncryptionException {
+        final byte[] secretKey = new byte[Key.KEY_SIZE];
+        CryptoUtils.randomBytes(secretKey);
+        return new Pair<>(secretKey, compressedPublicKey(secretKey));
+    }
+
+    /**
+     * Computes the public key secretKey*G of a secret key.
+     *
+     * @param secretKey the 32-byte secret key
+     * @return the 32-byte encoded public key
+     * @throws InvalidArgumentException if secretKey is null or not 32 bytes long
+     * @throws EncryptionException if the scalar multiplication fails
+     */
+    public static byte[] compressedPublicKey(byte[] secretKey) throws EncryptionException {
+        SchnorrQ.SchnorrHelper.checkLength(secretKey, Key.KEY_SIZE, "Secret key");
+        final byte[] publicKey = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(ECC.eccMulFixed(LittleEndianCodec.readScalar(secretKey, Params.noOffset)), publicKey, Params.noOffset);
+        return publicKey;
+    }
+
+    /**
+     * Decodes and validates a peer's public key and precomputes its multiples, for peers whose
+     * key is used in several agreements.
+     *
+     * @param peerPublicKey the peer's 32-byte public key, copied
+     * @return the prepared public key
+     * @throws InvalidArgumentException if peerPublicKey is null or not 32 bytes long
+     * @throws ValidationException if the key does not decode to a curve point or has small order
+     */
+    public static PeerPublicKey peerPublicKey(byte[] peerPublicKey) throws EncryptionException {
+        SchnorrQ.SchnorrHelper.checkLength(peerPublicKey, Key.KEY_SIZE, "Peer public key");
+        final FieldPoint point = CryptoUtils.decode(peerPublicKey, Params.noOffset);  // Also checks that the point is on the curve
+        final PreComputedExtendedPoint[] table = ECC.eccMulPrecompute(point, true);
+        // The table starts with 392*A, which is neutral exactly when A has small order
+        if (ECC.isNeutral(table[0])) throw lowOrderError();
+        return new PeerPublicKey(peerPublicKey.clone(), table);
+    }
+
+    /**
+     * Computes the shared secret with a peer, see {@link #compressedSecretAgreement(byte[], PeerPublicKey)}.
+     *
+     * @param secretKey our 32-byte secret key
+     * @param peerPublicKey the peer's 32-byte public key
+     * @return the 32-byte shared secret
+     * @throws InvalidArgumentException if a key is null or not 32 bytes long
+     * @throws ValidationException if the peer key is invalid or the shared secret is the neutral point
+     */
+    public static byte[] compressedSecretAgreement(byte[] secretKey, byte[] peerPublicKey) throws EncryptionException {
+        SchnorrQ.SchnorrHelper.checkLength(secretKey, Key.KEY_SIZE, "Secret key");
+        SchnorrQ.SchnorrHelper.checkLength(peerPublicKey, Key.KEY_SIZE, "Peer public key");
+        final FieldPoint point = CryptoUtils.decode(peerPublicKey, Params.noOffset);
+        return sharedSecret(ECC.eccMul(point, LittleEndianCodec.readScalar(secretKey, Params.noOffset), true));
+    }
+
+    /**
+     * Computes the shared secret with a peer whose public key has been prepared by {@link #peerPublicKey}.
+     *
+     * @param secretKey our 32-byte secret key
+     * @param peerPublicKey the peer's prepared public key
+     * @return the 32-byte shared secret, the y-coordinate of 392*secretKey*A
+     * @throws InvalidArgumentException if secretKey is null or not 32 bytes long
+     * @throws ValidationException if the shared secret is the neutral point
+     */
+    public static byte[] compressedSecretAgreement(byte[] secretKey, PeerPublicKey peerPublicKey) throws EncryptionException {
+        SchnorrQ.SchnorrHelper.checkLength(secretKey, Key.KEY_SIZE, "Secret key");
+        ValidationChain.of(peerPublicKey).notNull("Peer public key cannot be null.");
+        return sharedSecret(ECC.eccMul(peerPublicKey.table(), LittleEndianCodec.readScalar(secretKey, Params.noOffset)));
+    }
+
+    private static byte[] sharedSecret(FieldPoint shared) throws ValidationException {
+        final byte[] secret = new byte[SHARED_SECRET_SIZE];
+        LittleEndianCodec.writeF2Element(shared.getY(), secret, Params.noOffset);
+        // The neutral point (0, 1) would leave the secret independent of our key
+        if (shared.getX().isZero()) {
+            Arrays.fill(secret, (byte) 0);
+            throw lowOrderError();
+        }
+        return secret;
+    }
+
+    private static ValidationException lowOrderError() {
+        return new ValidationException("Shared secret is the neutral point: the peer public key has small order or the secret key is zero.");
+    }
+}
@@ -0,0 +1,342 @@
+package fourqj.api;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import fourqj.constants.Key;
+import fourqj.constants.Params;
+import fourqj.crypto.core.Conversion;
+import fourqj.crypto.core.Curve;
+import fourqj.crypto.core.ECC;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.exceptions.ValidationException;
+import fourqj.fieldoperations.FP;
+import fourqj.types.point.ExtendedPoint;
+import fourqj.types.point.FieldPoint;
+import fourqj.utils.CryptoUtils;
+import fourqj.utils.LittleEndianCodec;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * n-of-n multi-signatures in the style of MuSig2: n signers jointly produce one ordinary
+ * SchnorrQ signature, valid under one aggregate public key, in two rounds.
+ * <p>
+ * Key aggregation weights every key X_i with a coefficient a_i = H(L || X_i), where L hashes
+ * the whole list of keys, so no signer can choose a key that cancels the others. The
+ * aggregate key X = sum(a_i*X_i) is computed with one multi-scalar multiplication.
+ * <ol>
+ *     <li>Each signer calls {@link #generateNonce} and sends the 64-byte public nonce
+ *     (R_i1 || R_i2) to the others. This round does not depend on the message and can be
+ *     done ahead of time.</li>
+ *     <li>Each signer opens a {@link Session} over all public nonces and the message, which
+ *     fixes R = R_1 + b*R_2 with R_j = sum(R_ij) and b = H(X || R_1 || R_2 || M), and sends
+ *     its 32-byte partial signature s_i = r_i1 + b*r_i2 - h*a_i*x_i.</li>
+ * </ol>
+ * Anyone holding the partial signatures combines them with {@link Session#aggregate} into
+ * (R || sum(s_i)), checked by {@link SchnorrQ#verify(byte[], byte[], byte[])} against X at the
+ * cost of a single verification, whatever the number of signers.
+ * <p>
+ * A secret nonce must never sign twice; {@link SecretNonce} refuses a second use. All keys
+ * and nonces must lie in the prime-order subgroup.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public class MuSig {
+    public static final int PUBLIC_NONCE_SIZE = 2 * Key.KEY_SIZE;
+    public static final int PARTIAL_SIGNATURE_SIZE = Key.KEY_SIZE;
+    private static final byte[] KEY_LIST_DOMAIN = "SchnorrQ MuSig key list".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COEFFICIENT_DOMAIN = "SchnorrQ MuSig coefficient".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NONCE_DOMAIN = "SchnorrQ MuSig nonce".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BINDING_DOMAIN = "SchnorrQ MuSig binding".getBytes(StandardCharsets.US_ASCII);
+
+    private final HashFunction hashFunction;
+    private final SchnorrQ schnorrQ;
+
+    public MuSig() {
+        this(new SHA512());
+    }
+
+    /**
+     * @param hash the hash function of the signers' keys and of the resulting signature
+     */
+    public MuSig(HashFunction hash) {
+        ValidationChain.of(hash).notNull("Hash function cannot be null.");
+        this.hashFunction = hash;
+        this.schnorrQ = new SchnorrQ(hash);
+    }
+
+    /**
+     * Aggregates the signers' public keys. Every signer must use the same list, in the same order.
+     *
+     * @param publicKeys the signers' distinct 32-byte public keys
+     * @return the aggregate key
+     * @throws InvalidArgumentException if the list is empty or holds malformed or repeated keys
+     * @throws ValidationException if a key is not a point of the prime-order subgroup, or the aggregate key is neutral
+     */
+    public AggregateKey aggregateKeys(byte[][] publicKeys) throws EncryptionException {
+        SchnorrQ.SchnorrHelper.checkBatch(publicKeys, "Public keys", Key.KEY_SIZE);
+        ValidationChain.of(publicKeys)
+                .validate(pks -> pks.length > 0, () -> new InvalidArgumentException("Cannot aggregate zero public keys."));
+        final int n = publicKeys.length;
+        final Set<ByteBuffer> distinct = new HashSet<>();
+        final byte[][] keys = new byte[n][];
+        final ExtendedPoint[] points = new ExtendedPoint[n];
+        final HashFunction.Hasher keyList = hashFunction.newHasher().update(KEY_LIST_DOMAIN);
+        for (int i = 0; i < n; i++) {
+            keys[i] = publicKeys[i].clone();
+            if (!distinct.add(ByteBuffer.wrap(keys[i]))) throw new InvalidArgumentException("Public keys must be distinct.");
+            points[i] = subgroupPoint(keys[i], Params.noOffset, "Public key " + i);
+            keyList.update(keys[i]);
+        }
+        final byte[] listHash = keyList.doFinal();
+
+        final BigInteger[] coefficients = new BigInteger[n];
+        for (int i = 0; i < n; i++) {
+            coefficients[i] = FP.moduloOrder(SchnorrQ.SchnorrHelper.scalar(hashFunction.hasher()
+                    .update(COEFFICIENT_DOMAIN)
+                    .update(listHash)
+                    .update(keys[i])));
+        }
+        final ExtendedPoint aggregate = ECC.eccMulMulti(points, coefficients);
+        if (ECC.isNeutral(aggregate)) throw new ValidationException("Aggregate public key is the neutral point.");
+        final byte[] publicKey = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(ECC.eccNorm(aggregate), publicKey, Params.noOffset);
+        return new AggregateKey(publicKey, keys, points, coefficients);
+    }
+
+    /**
+     * Round one: creates a fresh secret nonce pair for the signer. The nonces are hedged,
+     * hashing fresh randomness together with the signer's nonce seed.
+     *
+     * @param key the signer's signing key material
+     * @return the secret nonce, whose {@link SecretNonce#publicNonce()} is sent to the other signers
+     * @throws InvalidArgumentException if the key material is unusable
+     */
+    public SecretNonce generateNonce(SigningKeyMaterial key) throws EncryptionException {
+        ValidationChain.of(key).notNull("Signing key material cannot be null.");
+        final byte[] kHash = key.secretHash(hashFunction);
+        final byte[] fresh = new byte[Key.KEY_SIZE];
+        CryptoUtils.randomBytes(fresh);
+
+        final BigInteger[] nonces = new BigInteger[2];
+        final byte[] publicNonce = new byte[PUBLIC_NONCE_SIZE];
+        for (int j = 0; j < 2; j++) {
+            final byte[] digest = hashFunction.hasher()
+                    .update(NONCE_DOMAIN)
+                    .update(kHash, Key.KEY_SIZE, Key.KEY_SIZE)
+                    .update(fresh)
+                    .update(key.publicKeyBytes())
+                    .update(new byte[] { (byte) j })
+                    .doFinal();
+            nonces[j] = FP.reduceModOrder(LittleEndianCodec.readInteger(digest, Params.noOffset, HashFunction.HASH_OUTPUT_SIZE));
+            Arrays.fill(digest, (byte) 0);
+            CryptoUtils.encode(ECC.eccMulFixed(nonces[j]), publicNonce, j * Key.KEY_SIZE);
+        }
+        Arrays.fill(fresh, (byte) 0);
+        return new SecretNonce(nonces[0], nonces[1], publicNonce);
+    }
+
+    /**
+     * Round two: aggregates the public nonces and binds them to the message.
+     *
+     * @param key the aggregate key of the signers
+     * @param publicNonces the signers' 64-byte public nonces, in the order of the keys
+     * @param message the message to sign, which must not change while the session is in use
+     * @return the signing session
+     * @throws InvalidArgumentException if the number or size of the nonces is wrong
+     * @throws ValidationException if a nonce is not a pair of points of the prime-order subgroup
+     */
+    public Session session(AggregateKey key, byte[][] publicNonces, byte[] message) throws EncryptionException {
+        ValidationChain.of(key).notNull("Aggregate key cannot be null.");
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        SchnorrQ.SchnorrHelper.checkBatch(publicNonces, "Public nonces", PUBLIC_NONCE_SIZE);
+        ValidationChain.of(publicNonces)
+                .validate(pn -> pn.length == key.size(), () -> new InvalidArgumentException(
+                        "There must be one public nonce per public key."));
+        return new Session(key, publicNonces, message);
+    }
+
+    /** Public keys combined into one SchnorrQ public key, created by {@link #aggregateKeys}. */
+    public static final class AggregateKey {
+        private final byte[] publicKey;
+        private final byte[][] publicKeys;
+        private final ExtendedPoint[] points;
+        private final BigInteger[] coefficients;
+
+        private AggregateKey(byte[] publicKey, byte[][] publicKeys, ExtendedPoint[] points, BigInteger[] coefficients) {
+            this.publicKey = publicKey;
+            this.publicKeys = publicKeys;
+            this.points = points;
+            this.coefficients = coefficients;
+        }
+
+        /** @return a copy of the 32-byte aggregate public key, which verifies the aggregate signatures */
+        public byte[] publicKey() {
+            return publicKey.clone();
+        }
+
+        /** @return the number of signers */
+        public int size() {
+            return publicKeys.length;
+        }
+
+        private int indexOf(byte[] signerKey) throws InvalidArgumentException {
+            for (int i = 0; i < publicKeys.length; i++) {
+                if (Arrays.equals(publicKeys[i], signerKey)) return i;
+            }
+            throw new InvalidArgumentException("Signing key is not part of the aggregate key.");
+        }
+    }
+
+    /** A signer's secret nonce pair for one signature, created by {@link #generateNonce}. */
+    public static final class SecretNonce {
+        private final BigInteger r1;
+        private final BigInteger r2;
+        private final byte[] publicNonce;
+        private final AtomicBoolean used = new AtomicBoolean();
+
+        private SecretNonce(BigInteger r1, BigInteger r2, byte[] publicNonce) {
+            this.r1 = r1;
+            this.r2 = r2;
+            this.publicNonce = publicNonce;
+        }
+
+        /** @return a copy of the 64-byte public nonce (R_1 || R_2) to send to the other signers */
+        public byte[] publicNonce() {
+            return publicNonce.clone();
+        }
+    }
+
+    /** The nonces and message of one aggregate signature, created by {@link #session}. */
+    public final class Session {
+        private final AggregateKey key;
+        private final byte[][] publicNonces;
+        private final byte[] commitment = new byte[Key.KEY_SIZE];
+        private final BigInteger binding;
+        private final BigInteger challenge;
+
+        private Session(AggregateKey key, byte[][] publicNonces, byte[] message) throws EncryptionException {
+            this.key = key;
+            this.publicNonces = new byte[publicNonces.length][];
+            ExtendedPoint r1 = ECC.eccIdentity();
+            ExtendedPoint r2 = ECC.eccIdentity();
+            for (int i = 0; i < publicNonces.length; i++) {
+                this.publicNonces[i] = publicNonces[i].clone();
+                r1 = ECC.eccAdd(Conversion.r1ToR2(subgroupPoint(this.publicNonces[i], Params.noOffset, "Public nonce " + i)), r1);
+                r2 = ECC.eccAdd(Conversion.r1ToR2(subgroupPoint(this.publicNonces[i], Key.KEY_SIZE, "Public nonce " + i)), r2);
+            }
+            final FieldPoint[] sums = ECC.eccNormBatch(new ExtendedPoint[] { r1, r2 });
+            final byte[] encodedSums = new byte[PUBLIC_NONCE_SIZE];
+            CryptoUtils.encode(sums[0], encodedSums, Params.noOffset);
+            CryptoUtils.encode(sums[1], encodedSums, Key.KEY_SIZE);
+
+            this.binding = FP.moduloOrder(SchnorrQ.SchnorrHelper.scalar(hashFunction.hasher()
+                    .update(BINDING_DOMAIN)
+                    .update(key.publicKey)
+                    .update(encodedSums)
+                    .update(message)));
+            final ExtendedPoint r = ECC.eccMulMulti(
+                    new ExtendedPoint[] { Curve.pointSetup(sums[0]), Curve.pointSetup(sums[1]) },
+                    new BigInteger[] { BigInteger.ONE, binding });
+            CryptoUtils.encode(ECC.eccNorm(r), commitment, Params.noOffset);
+            this.challenge = FP.moduloOrder(schnorrQ.challenge(
+                    SchnorrQ.NO_DOMAIN, commitment, Params.noOffset, key.publicKey, Params.noOffset, ByteBuffer.wrap(message)));
+        }
+
+        /**
+         * Computes this signer's partial signature, consuming the secret nonce.
+         *
+         * @param signer the signer's signing key material, whose public key is part of the aggregate key
+         * @param nonce the secret nonce whose public nonce was contributed to this session
+         * @return the 32-byte partial signature
+         * @throws InvalidArgumentException if the key is not an aggregated key, the nonce does not belong to
+         *         the signer's slot, or the nonce has already been used
+         */
+        public byte[] partialSign(SigningKeyMaterial signer, SecretNonce nonce) throws EncryptionException {
+            ValidationChain.of(signer).notNull("Signing key material cannot be null.");
+            ValidationChain.of(nonce).notNull("Secret nonce cannot be null.");
+            final byte[] kHash = signer.secretHash(hashFunction);
+            final int index = key.indexOf(signer.publicKeyBytes());
+            if (!Arrays.equals(publicNonces[index], nonce.publicNonce)) {
+                throw new InvalidArgumentException("Secret nonce does not match the signer's public nonce.");
+            }
+            if (!nonce.used.compareAndSet(false, true)) throw new InvalidArgumentException("Secret nonce has already been used.");
+
+            final BigInteger secret = LittleEndianCodec.readScalar(kHash, Params.noOffset);
+            final BigInteger s = FP.reduceModOrder(nonce.r1.add(binding.multiply(nonce.r2))
+                    .subtract(challenge.multiply(key.coefficients[index]).multiply(secret)));
+            final byte[] partial = new byte[PARTIAL_SIGNATURE_SIZE];
+            LittleEndianCodec.writeScalar(s, partial, Params.noOffset);
+            return partial;
+        }
+
+        /**
+         * Checks one signer's partial signature: s_i*G + h*a_i*X_i = R_i1 + b*R_i2.
+         *
+         * @param index the signer's position in the aggregate key
+         * @param partial the 32-byte partial signature
+         * @return true if the partial signature is valid
+         * @throws InvalidArgumentException if the index or the partial signature size is out of range
+         */
+        public boolean verifyPartial(int index, byte[] partial) throws EncryptionException {
+            ValidationChain.of(index)
+                    .validate(i -> i >= 0 && i < key.size(), () -> new InvalidArgumentException("Signer index is out of range."));
+            SchnorrQ.SchnorrHelper.checkLength(partial, PARTIAL_SIGNATURE_SIZE, "Partial signature");
+            final BigInteger s = LittleEndianCodec.readScalar(partial, Params.noOffset);
+            if (s.compareTo(Params.CURVE_ORDER) >= 0) return false;
+
+            final ExtendedPoint[] points = {
+                    Curve.pointSetup(ECC.getGeneratorPoint()),
+                    key.points[index],
+                    subgroupPoint(publicNonces[index], Params.noOffset, "Public nonce"),
+                    subgroupPoint(publicNonces[index], Key.KEY_SIZE, "Public nonce")
+            };
+            final BigInteger[] scalars = {
+                    s,
+                    FP.reduceModOrder(challenge.multiply(key.coefficients[index])),
+                    BigInteger.ONE.negate(),
+                    binding.negate()
+            };
+            return ECC.isNeutral(ECC.eccMulMulti(points, scalars));
+        }
+
+        /**
+         * Combines the partial signatures into a SchnorrQ signature under the aggregate public key.
+         * Partial signatures are not checked individually; use {@link #verifyPartial} to find a faulty signer.
+         *
+         * @param partials the 32-byte partial signatures of all signers
+         * @return the 64-byte signature (R || s)
+         * @throws InvalidArgumentException if the number or size of the partial signatures is wrong
+         */
+        public byte[] aggregate(byte[][] partials) throws InvalidArgumentException {
+            SchnorrQ.SchnorrHelper.checkBatch(partials, "Partial signatures", PARTIAL_SIGNATURE_SIZE);
+            ValidationChain.of(partials)
+                    .validate(p -> p.length == key.size(), () -> new InvalidArgumentException(
+                            "There must be one partial signature per public key."));
+            BigInteger s = BigInteger.ZERO;
+            for (byte[] partial : partials) s = s.add(LittleEndianCodec.readScalar(partial, Params.noOffset));
+
+            final byte[] signature = new byte[Key.SIGNATURE_SIZE];
+            System.arraycopy(commitment, 0, signature, 0, Key.KEY_SIZE);
+            LittleEndianCodec.writeScalar(FP.reduceModOrder(s), signature, Key.KEY_SIZE);
+            return signature;
+        }
+    }
+
+    private static ExtendedPoint subgroupPoint(byte[] encoded, int offset, String name) throws ValidationException {
+        final ExtendedPoint point = SchnorrQ.SchnorrHelper.subgroupPoint(encoded, offset);
+        if (point == null) throw new ValidationException(name + " is not a point of the prime-order subgroup.");
+        return point;
+    }
+}
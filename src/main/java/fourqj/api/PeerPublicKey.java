@@ -0,0 +1,33 @@
+package fourqj.api;
+
+import fourqj.types.point.PreComputedExtendedPoint;
+
+
+/**
+ * A peer's Diffie-Hellman public key decoded and prepared for {@link KeyExchange#compressedSecretAgreement(byte[], PeerPublicKey)}.
+ * <p>
+ * Holds the table of odd multiples of the peer's point with the cofactor already cleared,
+ * so each agreement with a key reused across sessions skips decoding, validation, cofactor
+ * clearing and table generation. Instances are immutable and safe to share between threads.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class PeerPublicKey {
+    private final byte[] encoded;
+    private final PreComputedExtendedPoint[] table;
+
+    PeerPublicKey(byte[] encoded, PreComputedExtendedPoint[] table) {
+        this.encoded = encoded;
+        this.table = table;
+    }
+
+    /** @return a copy of the 32-byte encoded public key */
+    public byte[] encoded() {
+        return encoded.clone();
+    }
+
+    PreComputedExtendedPoint[] table() {
+        return table;
+    }
+}
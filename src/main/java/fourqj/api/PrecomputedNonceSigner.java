@@ -0,0 +1,187 @@
+package fourqj.api;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fourqj.constants.Key;
+import fourqj.constants.Params;
+import fourqj.crypto.core.ECC;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.utils.CryptoUtils;
+import fourqj.utils.LittleEndianCodec;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Offline/online SchnorrQ signer, created by {@link SchnorrQ#precomputedNonceSigner}.
+ * <p>
+ * Computing the commitment R = r*G is the dominant cost of signing, and with a random nonce
+ * it does not depend on the message. A low-priority background thread therefore fills a
+ * bounded pool with nonces r and their encoded commitments while the signer is idle, and each
+ * online signature only hashes the message and computes s = r - h*k. If the pool runs dry the
+ * nonce is computed inline, so signing never waits for the background thread.
+ * <p>
+ * Nonces are hedged: r = H(nonce_seed || 32 fresh random bytes || counter), where nonce_seed is
+ * the upper half of the secret key hash. A failing random source thus still yields secret,
+ * distinct nonces within the life of the signer. Each nonce is handed out once and its bytes
+ * are wiped after use or when the signer is closed.
+ * <p>
+ * Signatures are randomized rather than deterministic, and verify with the usual
+ * {@link SchnorrQ#verify(byte[], byte[], byte[])}. Instances are safe for use by several threads.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class PrecomputedNonceSigner implements AutoCloseable {
+    private final SchnorrQ schnorrQ;
+    private final HashFunction hashFunction;
+    private final SigningKeyMaterial key;
+    private final BlockingQueue<Nonce> pool;
+    private final AtomicLong counter = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Thread filler;
+    private volatile boolean running = true;
+
+    // A nonce r, stored little-endian so it can be wiped, and its encoded commitment R = r*G
+    private record Nonce(byte[] r, byte[] commitment) {
+        void wipe() {
+            Arrays.fill(r, (byte) 0);
+        }
+    }
+
+    PrecomputedNonceSigner(SchnorrQ schnorrQ, HashFunction hashFunction, SigningKeyMaterial key, int poolSize) {
+        ValidationChain.of(key).notNull("Signing key material cannot be null.");
+        ValidationChain.of(poolSize)
+                .validate(n -> n > 0, () -> new InvalidArgumentException("Nonce pool size must be positive."));
+        key.secretHash(hashFunction);       // Fails early if the key is destroyed or belongs to another hash function
+
+        this.schnorrQ = schnorrQ;
+        this.hashFunction = hashFunction;
+        this.key = key;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        this.filler = new Thread(this::fill, "fourqj-nonce-pool");
+        this.filler.setDaemon(true);
+        this.filler.setPriority(Thread.MIN_PRIORITY);
+        this.filler.start();
+    }
+
+    /**
+     * Signs a message with a precomputed nonce.
+     *
+     * @param message the message bytes to be signed
+     * @return the 64-byte signature (R || s)
+     * @throws EncryptionException if signing fails due to cryptographic errors
+     * @throws InvalidArgumentException if the signer is closed or the key material has been destroyed
+     */
+    public byte[] sign(byte[] message) throws EncryptionException {
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        final byte[] signature = new byte[Key.SIGNATURE_SIZE];
+        sign(message, signature, Params.noOffset);
+        return signature;
+    }
+
+    /**
+     * Signs a message with a precomputed nonce, writing the signature into signatureOut.
+     *
+     * @param message the message bytes to be signed
+     * @param signatureOut the array receiving the 64-byte signature (R || s)
+     * @param signatureOffset the position at which the signature is written
+     * @throws EncryptionException if signing fails due to cryptographic errors
+     * @throws InvalidArgumentException if signatureOut is too short, the signer is closed or the key material has been destroyed
+     */
+    public void sign(byte[] message, byte[] signatureOut, int signatureOffset) throws EncryptionException {
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        SchnorrQ.SchnorrHelper.checkRange(signatureOut, signatureOffset, Key.SIGNATURE_SIZE, "Signature output");
+        if (!running) throw new InvalidArgumentException("Nonce pool signer has been closed.");
+        final byte[] kHash = key.secretHash(hashFunction);
+
+        Nonce nonce = pool.poll();
+        if (nonce != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            nonce = createNonce(kHash);
+        }
+        try {
+            schnorrQ.signWithCommitment(SchnorrQ.NO_DOMAIN, kHash, LittleEndianCodec.readScalar(nonce.r, Params.noOffset),
+                    nonce.commitment, key.publicKeyBytes(), Params.noOffset, ByteBuffer.wrap(message), signatureOut, signatureOffset);
+        } finally {
+            nonce.wipe();
+        }
+    }
+
+    /** @return the number of precomputed nonces ready for use */
+    public int available() {
+        return pool.size();
+    }
+
+    /** @return the number of signatures that used a precomputed nonce */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /** @return the number of signatures that found the pool empty and computed their nonce inline */
+    public long missCount() {
+        return misses.get();
+    }
+
+    /** Stops the background thread and wipes the unused nonces. The key material is left intact. */
+    @Override
+    public void close() {
+        running = false;
+        filler.interrupt();
+        try {
+            filler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Nonce nonce;
+        while ((nonce = pool.poll()) != null) nonce.wipe();
+    }
+
+    private void fill() {
+        while (running) {
+            final byte[] kHash;
+            try {
+                kHash = key.secretHash(hashFunction);
+            } catch (InvalidArgumentException e) {
+                return;     // Key material destroyed, nothing left to precompute
+            }
+            final Nonce nonce = createNonce(kHash);
+            try {
+                if (!running) throw new InterruptedException();
+                pool.put(nonce);
+            } catch (InterruptedException e) {
+                nonce.wipe();       // Closed while waiting for room in the pool
+                return;
+            }
+        }
+    }
+
+    // r = H(nonce_seed || random || counter), read as a 32-byte little-endian scalar
+    private Nonce createNonce(byte[] kHash) throws EncryptionException {
+        final byte[] fresh = new byte[Key.KEY_SIZE + Long.BYTES];
+        CryptoUtils.randomBytes(fresh, 0, Key.KEY_SIZE);
+        final long count = counter.getAndIncrement();
+        for (int i = 0; i < Long.BYTES; i++) fresh[Key.KEY_SIZE + i] = (byte) (count >>> (Byte.SIZE * i));
+
+        final byte[] digest = hashFunction.newHasher()
+                .update(kHash, Key.KEY_SIZE, Key.KEY_SIZE)
+                .update(fresh)
+                .doFinal();
+        final byte[] r = Arrays.copyOf(digest, Key.KEY_SIZE);
+        Arrays.fill(digest, (byte) 0);
+        Arrays.fill(fresh, (byte) 0);
+
+        final byte[] commitment = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(ECC.eccMulFixed(LittleEndianCodec.readScalar(r, Params.noOffset)), commitment, Params.noOffset);
+        return new Nonce(r, commitment);
+    }
+}
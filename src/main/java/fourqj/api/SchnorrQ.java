@@ -1,54 +1,88 @@
 package fourqj.api;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
 import java.util.function.Supplier;
 
 import fourqj.constants.Params;
 import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.core.Curve;
 import fourqj.crypto.core.ECC;
 import fourqj.crypto.primitives.SHA512;
 import fourqj.exceptions.ValidationErrors;
+import fourqj.exceptions.ValidationException;
 import fourqj.utils.BigIntegerUtils;
 import fourqj.utils.ByteArrayUtils;
+import fourqj.utils.ConcurrencyUtils;
 import fourqj.constants.Key;
 import fourqj.utils.CryptoUtils;
+import fourqj.utils.LittleEndianCodec;
 import fourqj.exceptions.EncryptionException;
 import fourqj.exceptions.InvalidArgumentException;
 import fourqj.fieldoperations.FP;
 import fourqj.types.data.Pair;
+import fourqj.types.point.ExtendedPoint;
 import fourqj.types.point.FieldPoint;
-import fourqj.utils.SchnorrQUtils;
 
 import static fourqj.exceptions.ValidationErrors.*;
-import static fourqj.utils.ByteArrayReverseMode.*;
-import static fourqj.utils.ByteArrayUtils.reverseByteArray;
 import static fourqj.utils.SchnorrQUtils.*;
 
 
 /**
  * Implementation of fourqj.api.SchnorrQ digital signature scheme over the FourQ elliptic curve.
  * <p>
- * FourQ is a high-security, high-performance elliptic curve that targets the 128-bit 
- * security level. It operates over the finite field GF((2^127-1)^2) and uses a 
- * four-dimensional Gallant-Lambert-Vanstone decomposition for efficient scalar 
+ * FourQ is a high-security, high-performance elliptic curve that targets the 128-bit
+ * security level. It operates over the finite field GF((2^127-1)^2) and uses a
+ * four-dimensional Gallant-Lambert-Vanstone decomposition for efficient scalar
  * multiplications. This implementation provides:
  * <p>
  * - Public key generation from private keys
- * - Complete key pair generation  
+ * - Complete key pair generation
  * - Message signing using fourqj.api.SchnorrQ scheme
  * - Signature verification
  * <p>
+ * Keys and signatures can be passed either as BigIntegers or in their native byte form:
+ * 32-byte secret and public keys and 64-byte signatures, laid out exactly as in the
+ * reference C implementation. The byte-based methods read each buffer once and write
+ * signatures directly into the caller's buffer.
+ * <p>
  * The fourqj.api.SchnorrQ signature scheme provides strong security guarantees including
  * existential unforgeability under chosen message attacks (EUF-CMA) in the
  * random oracle model.
- * 
+ *
  * @author Naman Malhotra, James Hughff
  * @since 1.0.0
  */
 public class SchnorrQ {
+    // Chunk size used when streaming messages from channels and input streams
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+    // Size of the file regions mapped at a time when signing files
+    private static final long MAP_SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final String FILE_CHANGED = "File changed while it was being signed.";
+    // Signing and verifying cost a scalar multiplication each, so bulk work is split down to single items
+    private static final int BULK_MIN_CHUNK = 1;
+    // Key pairs normalized together by one field inversion in bulk key generation
+    private static final int KEY_GENERATION_BATCH = 64;
+    // Short messages of signAll and verifyAll whose hashes are computed together by HashFunction.computeHashes
+    private static final int HASH_BATCH = 32;
+
+    // Domain prefix of plain SchnorrQ signatures
+    static final byte[] NO_DOMAIN = new byte[0];
+
     private final HashFunction hashFunction;
 
     public SchnorrQ() {
@@ -66,7 +100,7 @@ public class SchnorrQ {
      * 1. Computing SHA-512 hash of the private key with byte reversal
      * 2. Performing scalar multiplication with the curve generator point
      * 3. Encoding the resulting point into compressed format
-     * 
+     *
      * @param secretKey the private key as a BigInteger (must be non-null)
      * @return the corresponding public key encoded as a BigInteger
      * @throws EncryptionException if the cryptographic operations fail
@@ -74,7 +108,47 @@ public class SchnorrQ {
      */
     public BigInteger schnorrQKeyGeneration(BigInteger secretKey) throws EncryptionException {
         ValidationChain.of(secretKey).notNull("Secret key cannot be null.");
-        return SchnorrQUtils.CryptoOperationChain.hashToEncodedPoint(hashFunction, secretKey, true).execute();
+        return new BigInteger(Params.signPositive, keyGeneration(BigIntegerUtils.bigIntegerToByte(secretKey, Key.KEY_SIZE, false)));
+    }
+
+    /**
+     * Generates a public key from a 32-byte private key, see {@link #schnorrQKeyGeneration(BigInteger)}.
+     *
+     * @param secretKey array holding the 32-byte private key
+     * @param secretKeyOffset position of the private key in secretKey
+     * @param publicKeyOut array receiving the 32-byte public key
+     * @param publicKeyOffset position at which the public key is written
+     * @throws EncryptionException if the cryptographic operations fail
+     * @throws InvalidArgumentException if an array is too short for the given offset
+     */
+    public void keyGeneration(
+            byte[] secretKey,
+            int secretKeyOffset,
+            byte[] publicKeyOut,
+            int publicKeyOffset
+    ) throws EncryptionException {
+        SchnorrHelper.checkRange(secretKey, secretKeyOffset, Key.KEY_SIZE, "Secret key");
+        SchnorrHelper.checkRange(publicKeyOut, publicKeyOffset, Key.KEY_SIZE, "Public key output");
+        CryptoUtils.encode(
+                ECC.eccMulFixed(hashFunction.computeScalar(secretKey, secretKeyOffset, Key.KEY_SIZE)),
+                publicKeyOut,
+                publicKeyOffset
+        );
+    }
+
+    /**
+     * Generates a public key from a 32-byte private key.
+     *
+     * @param secretKey the 32-byte private key
+     * @return the 32-byte public key
+     * @throws EncryptionException if the cryptographic operations fail
+     * @throws InvalidArgumentException if secretKey is not 32 bytes long
+     */
+    public byte[] keyGeneration(byte[] secretKey) throws EncryptionException {
+        SchnorrHelper.checkLength(secretKey, Key.KEY_SIZE, "Secret key");
+        final byte[] publicKey = new byte[Key.KEY_SIZE];
+        keyGeneration(secretKey, Params.noOffset, publicKey, Params.noOffset);
+        return publicKey;
     }
 
     /**
@@ -83,7 +157,7 @@ public class SchnorrQ {
      * This method creates a fresh private key using a secure random number generator
      * and derives the corresponding public key. The private key is generated with
      * sufficient entropy for 128-bit security.
-     * 
+     *
      * @return a Pair containing (privateKey, publicKey) as BigInteger values
      * @throws EncryptionException if key generation fails due to cryptographic errors
      */
@@ -93,6 +167,72 @@ public class SchnorrQ {
         return new Pair<>(secretKey, publicKey);
     }
 
+    /**
+     * Generates many key pairs, see {@link #generateKeyPairs(int, Executor)}, on the calling thread.
+     */
+    public byte[] generateKeyPairs(int count) throws EncryptionException {
+        checkKeyPairCount(count);
+        final byte[] keyPairs = new byte[count * Key.KEY_PAIR_SIZE];
+        for (int batch = 0; batch * KEY_GENERATION_BATCH < count; batch++) generateKeyPairBatch(keyPairs, count, batch);
+        return keyPairs;
+    }
+
+    /**
+     * Generates many key pairs with fresh random secret keys, spreading the work across the executor's threads.
+     * <p>
+     * Each public key costs a fixed-base scalar multiplication as in {@link #keyGeneration(byte[])},
+     * but the results are normalized in batches of 64 with a single field inversion per batch,
+     * and written straight into one array instead of n {@link Pair} objects. Pair i occupies the
+     * 64 bytes from offset i * 64: the 32-byte secret key followed by its 32-byte public key.
+     *
+     * @param count the number of key pairs
+     * @param executor the executor running the batches, a {@link ForkJoinPool} for work stealing
+     * @return the key pairs back to back, count * 64 bytes
+     * @throws EncryptionException if key generation fails due to cryptographic errors
+     * @throws InvalidArgumentException if count is negative or the key pairs would not fit into one array
+     */
+    public byte[] generateKeyPairs(int count, Executor executor) throws EncryptionException {
+        ValidationChain.of(executor).notNull("Executor cannot be null.");
+        checkKeyPairCount(count);
+        final byte[] keyPairs = new byte[count * Key.KEY_PAIR_SIZE];
+        final int batches = (count + KEY_GENERATION_BATCH - 1) / KEY_GENERATION_BATCH;
+        ConcurrencyUtils.parallelFor(batches, executor, BULK_MIN_CHUNK, batch -> generateKeyPairBatch(keyPairs, count, batch));
+        return keyPairs;
+    }
+
+    private static void checkKeyPairCount(int count) throws InvalidArgumentException {
+        ValidationChain.of(count)
+                .validate(n -> n >= 0 && n <= Integer.MAX_VALUE / Key.KEY_PAIR_SIZE, () -> new InvalidArgumentException(
+                        String.format("Key pair count must be between 0 and %d.", Integer.MAX_VALUE / Key.KEY_PAIR_SIZE)));
+    }
+
+    // Fills key pairs [batch * KEY_GENERATION_BATCH, ...) of keyPairs, sharing one inversion for their normalization
+    private void generateKeyPairBatch(byte[] keyPairs, int count, int batch) throws EncryptionException {
+        final int from = batch * KEY_GENERATION_BATCH;
+        final int size = Math.min(KEY_GENERATION_BATCH, count - from);
+        final byte[] secretKeys = new byte[size * Key.KEY_SIZE];
+        CryptoUtils.randomBytes(secretKeys);
+
+        final byte[][] inputs = new byte[size][];
+        final byte[][] digests = new byte[size][HashFunction.HASH_OUTPUT_SIZE];
+        for (int i = 0; i < size; i++) inputs[i] = Arrays.copyOfRange(secretKeys, i * Key.KEY_SIZE, (i + 1) * Key.KEY_SIZE);
+        hashFunction.computeHashes(inputs, digests);
+
+        final ExtendedPoint[] publicKeys = new ExtendedPoint[size];
+        for (int i = 0; i < size; i++) {
+            publicKeys[i] = ECC.eccMulFixedExtended(LittleEndianCodec.readScalar(digests[i], Params.noOffset));
+            Arrays.fill(inputs[i], (byte) 0);
+            Arrays.fill(digests[i], (byte) 0);
+        }
+        final FieldPoint[] affine = ECC.eccNormBatch(publicKeys);
+        for (int i = 0; i < size; i++) {
+            final int offset = (from + i) * Key.KEY_PAIR_SIZE;
+            System.arraycopy(secretKeys, i * Key.KEY_SIZE, keyPairs, offset, Key.KEY_SIZE);
+            CryptoUtils.encode(affine[i], keyPairs, offset + Key.KEY_SIZE);
+        }
+        Arrays.fill(secretKeys, (byte) 0);
+    }
+
     /**
      * Creates a fourqj.api.SchnorrQ digital signature for the given message.
      * <p>
@@ -102,7 +242,7 @@ public class SchnorrQ {
      * 3. Compute the challenge hash H(R || publicKey || message)
      * 4. Compute the response s = r - H * secretKey (mod order)
      * 5. Return signature as (R || s)
-     * 
+     *
      * @param secretKey the signer's private key (must be non-null)
      * @param publicKey the signer's public key for verification (must be non-null)
      * @param message the message bytes to be signed
@@ -139,43 +279,215 @@ public class SchnorrQ {
         final byte[] kHash = createNonceKSupplier.get();
         ValidationChain.of(kHash).notNull("Nonce k cannot be null.");
         ValidationChain.of(publicKey).notNull("Public key cannot be null.");
+        SchnorrHelper.checkRange(kHash, Params.noOffset, HashFunction.HASH_OUTPUT_SIZE, "Nonce k");
 
-        // Build buffer with nonce seed and message using BufferBuilder
-        final byte[] bytes = BufferBuilder.forMessage(message)
-                .copyByteArray(kHash, Key.KEY_SIZE, Key.KEY_SIZE, Key.KEY_SIZE)
-                .copyByteArray(message, Key.SIGNATURE_SIZE)
-                .build();
+        final byte[] signature = new byte[Key.SIGNATURE_SIZE];
+        signWithNonceHash(
+                NO_DOMAIN,
+                kHash,
+                BigIntegerUtils.bigIntegerToByte(publicKey, Key.KEY_SIZE, false),
+                Params.noOffset,
+                ByteBuffer.wrap(message),
+                signature,
+                Params.noOffset
+        );
+        return new BigInteger(Params.signPositive, signature);
+    }
 
-        // Compute nonce r = H(nonce_seed || message) and encode point
-        final BigInteger rHash = CryptoOperationChain.hashToBigInteger(
-                hashFunction, Arrays.copyOfRange(bytes, Key.KEY_SIZE, bytes.length), true).execute();
-        final BigInteger sigStart = CryptoUtils.encode(ECC.eccMulFixed(rHash));
+    /**
+     * Signs the remaining bytes of a message buffer with a 32-byte private key.
+     * <p>
+     * The message buffer is consumed: its position is advanced to its limit. The 64-byte
+     * signature (R || s) is written at the position of signatureOut, which is advanced by 64.
+     * Heap buffers are written in place without intermediate copies.
+     *
+     * @param secretKey the 32-byte private key
+     * @param publicKey the 32-byte public key matching secretKey
+     * @param message the message, read from its position to its limit
+     * @param signatureOut the buffer receiving the 64-byte signature
+     * @throws EncryptionException if signing fails due to cryptographic errors
+     * @throws InvalidArgumentException if a key has the wrong length or signatureOut has less than 64 bytes remaining
+     */
+    public void sign(
+            byte[] secretKey,
+            byte[] publicKey,
+            ByteBuffer message,
+            ByteBuffer signatureOut
+    ) throws EncryptionException {
+        SchnorrHelper.checkLength(secretKey, Key.KEY_SIZE, "Secret key");
+        SchnorrHelper.checkLength(publicKey, Key.KEY_SIZE, "Public key");
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        ValidationChain.of(signatureOut)
+                .validate(Objects::nonNull, () -> new InvalidArgumentException("Signature output cannot be null."))
+                .validate(b -> b.remaining() >= Key.SIGNATURE_SIZE, () -> new InvalidArgumentException(
+                        String.format("Signature output must have %d bytes remaining.", Key.SIGNATURE_SIZE)));
 
-        // Prepare challenge hash input: R || publicKey || message using BufferBuilder
-        final byte[] challengeBytes = BufferBuilder.forMessage(message)
-                .copyBigInteger(sigStart, Key.KEY_SIZE, Params.noOffset)
-                .copyBigInteger(publicKey, Key.KEY_SIZE, Key.KEY_SIZE)
-                .copyByteArray(message, Key.SIGNATURE_SIZE)
-                .build();
+        final byte[] kHash = hashFunction.computeHash(secretKey, false);
+        if (signatureOut.hasArray()) {
+            signWithNonceHash(NO_DOMAIN, kHash, publicKey, Params.noOffset, message,
+                    signatureOut.array(), signatureOut.arrayOffset() + signatureOut.position());
+            signatureOut.position(signatureOut.position() + Key.SIGNATURE_SIZE);
+        } else {
+            final byte[] signature = new byte[Key.SIGNATURE_SIZE];
+            signWithNonceHash(NO_DOMAIN, kHash, publicKey, Params.noOffset, message, signature, Params.noOffset);
+            signatureOut.put(signature);
+        }
+    }
 
-        final BigInteger hHash2 = CryptoOperationChain.hashToModuloOrder(
-                hashFunction, challengeBytes, true).execute();
+    /**
+     * Expands a 32-byte private key into reusable signing key material, deriving the public key.
+     *
+     * @param secretKey the 32-byte private key
+     * @return the key material, bound to this instance's hash function
+     * @throws EncryptionException if the cryptographic operations fail
+     * @throws InvalidArgumentException if secretKey is not 32 bytes long
+     */
+    public SigningKeyMaterial signingKeyMaterial(byte[] secretKey) throws EncryptionException {
+        SchnorrHelper.checkLength(secretKey, Key.KEY_SIZE, "Secret key");
+        final byte[] kHash = hashFunction.computeHash(secretKey, false);
+        final byte[] publicKey = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(ECC.eccMulFixed(LittleEndianCodec.readScalar(kHash, Params.noOffset)), publicKey, Params.noOffset);
+        return new SigningKeyMaterial(kHash, publicKey, hashFunction.getClass());
+    }
 
-        // Use Montgomery arithmetic for efficient modular operations
-        // Sequentially builds up the sigEnd BigInteger.
-        final BigInteger sigEnd = BigIntegerUtils.buildBigInteger(
-                new BigInteger(Params.signPositive, ByteArrayUtils.reverseByteArray(kHash, Optional.of(REMOVE_LEADING_ZERO))),
-                CryptoUtils::toMontgomery,
-                x -> FP.montgomeryMultiplyModOrder(x, CryptoUtils.toMontgomery(hHash2)),
-                CryptoUtils::fromMontgomery,
-                x -> FP.subtractModOrder(FP.moduloOrder(rHash), x)
-        );
+    /**
+     * Creates an offline/online signer that precomputes randomized nonces and their
+     * commitments in the background, see {@link PrecomputedNonceSigner}.
+     *
+     * @param key the signing key material, which must stay alive while the signer is used
+     * @param poolSize the number of nonces kept ready
+     * @return the signer, which must be closed to stop its background thread
+     * @throws InvalidArgumentException if poolSize is not positive or the key material is unusable
+     */
+    public PrecomputedNonceSigner precomputedNonceSigner(SigningKeyMaterial key, int poolSize) throws EncryptionException {
+        return new PrecomputedNonceSigner(this, hashFunction, key, poolSize);
+    }
+
+    /**
+     * Signs a message with expanded key material, see {@link #signingKeyMaterial(byte[])}.
+     *
+     * @param key the signing key material
+     * @param message the message bytes to be signed
+     * @return the 64-byte signature (R || s)
+     * @throws EncryptionException if signing fails due to cryptographic errors
+     * @throws InvalidArgumentException if the key material does not belong to this hash function or has been destroyed
+     */
+    public byte[] sign(SigningKeyMaterial key, byte[] message) throws EncryptionException {
+        ValidationChain.of(key).notNull("Signing key material cannot be null.");
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        final byte[] signature = new byte[Key.SIGNATURE_SIZE];
+        signWithNonceHash(NO_DOMAIN, key.secretHash(hashFunction), key.publicKeyBytes(), Params.noOffset, ByteBuffer.wrap(message),
+                signature, Params.noOffset);
+        return signature;
+    }
+
+    /**
+     * Signs the contents of a file with expanded key material.
+     * <p>
+     * Deterministic signing reads the message twice, once for the nonce and once for the challenge.
+     * The file is memory-mapped in segments, so heap use stays constant however large the file is.
+     * The first pass feeds the mapped buffers straight to the hash. The second pass re-derives the
+     * nonce alongside the challenge, copying each 64 KiB chunk once and feeding that same copy to
+     * both hashes; if the file changed between passes signing fails rather than producing two
+     * challenges under one nonce, which would reveal the secret key. A file truncated while it is
+     * mapped fails the same way, instead of with the {@link InternalError} the JVM raises for
+     * reads past its new end.
+     *
+     * @param key the signing key material
+     * @param file the file to sign
+     * @return the 64-byte signature (R || s), equal to signing the file's bytes with {@link #sign(SigningKeyMaterial, byte[])}
+     * @throws IOException if the file cannot be read
+     * @throws EncryptionException if the file is modified or truncated while it is being signed
+     * @throws InvalidArgumentException if the key material does not belong to this hash function or has been destroyed
+     */
+    public byte[] sign(SigningKeyMaterial key, Path file) throws IOException {
+        ValidationChain.of(key).notNull("Signing key material cannot be null.");
+        ValidationChain.of(file).notNull("File cannot be null.");
+        final byte[] kHash = key.secretHash(hashFunction);
+        final byte[] publicKey = key.publicKeyBytes();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
 
-        return new BigInteger(Params.signPositive, ByteArrayUtils.concatenate(
-                BigIntegerUtils.bigIntegerToByte(sigStart, Key.KEY_SIZE, false),
-                reverseByteArray(BigIntegerUtils.bigIntegerToByte(sigEnd, Key.KEY_SIZE, false), Optional.empty())
-        ));
+            // First pass: nonce r = H(nonce_seed || message)
+            final HashFunction.Hasher nonce = hashFunction.hasher().update(kHash, Key.KEY_SIZE, Key.KEY_SIZE);
+            absorbMapped(channel, size, nonce);
+            final BigInteger r = SchnorrHelper.scalar(nonce);
 
+            final byte[] commitment = new byte[Key.KEY_SIZE];
+            CryptoUtils.encode(ECC.eccMulFixed(r), commitment, Params.noOffset);
+
+            // Second pass: challenge H(R || publicKey || message), re-deriving the nonce from the same bytes
+            final HashFunction.Hasher challenge = hashFunction.hasher().update(commitment).update(publicKey);
+            final HashFunction.Hasher recheck = hashFunction.newHasher().update(kHash, Key.KEY_SIZE, Key.KEY_SIZE);
+            absorbMapped(channel, size, challenge, recheck);
+            final BigInteger h = FP.moduloOrder(SchnorrHelper.scalar(challenge));
+            if (channel.size() != size || !SchnorrHelper.scalar(recheck).equals(r)) {
+                throw new EncryptionException(FILE_CHANGED);
+            }
+
+            final byte[] signature = new byte[Key.SIGNATURE_SIZE];
+            writeSignature(kHash, r, commitment, h, signature, Params.noOffset);
+            return signature;
+        }
+    }
+
+    /**
+     * Signs message[messageOffset, messageOffset + messageLength) with a 32-byte private key,
+     * writing the 64-byte signature (R || s) into signatureOut at signatureOffset.
+     *
+     * @param secretKey array holding the 32-byte private key
+     * @param secretKeyOffset position of the private key in secretKey
+     * @param publicKey array holding the 32-byte public key matching the private key
+     * @param publicKeyOffset position of the public key in publicKey
+     * @param message array holding the message
+     * @param messageOffset position of the first message byte
+     * @param messageLength number of message bytes
+     * @param signatureOut array receiving the signature
+     * @param signatureOffset position at which the signature is written
+     * @throws EncryptionException if signing fails due to cryptographic errors
+     * @throws InvalidArgumentException if an array is too short for the given offset and length
+     */
+    public void sign(
+            byte[] secretKey,
+            int secretKeyOffset,
+            byte[] publicKey,
+            int publicKeyOffset,
+            byte[] message,
+            int messageOffset,
+            int messageLength,
+            byte[] signatureOut,
+            int signatureOffset
+    ) throws EncryptionException {
+        SchnorrHelper.checkRange(secretKey, secretKeyOffset, Key.KEY_SIZE, "Secret key");
+        SchnorrHelper.checkRange(publicKey, publicKeyOffset, Key.KEY_SIZE, "Public key");
+        SchnorrHelper.checkRange(message, messageOffset, messageLength, "Message");
+        SchnorrHelper.checkRange(signatureOut, signatureOffset, Key.SIGNATURE_SIZE, "Signature output");
+
+        final byte[] kHash = new byte[HashFunction.HASH_OUTPUT_SIZE];
+        hashFunction.computeHash(secretKey, secretKeyOffset, Key.KEY_SIZE, kHash, Params.noOffset, false);
+        signWithNonceHash(NO_DOMAIN, kHash, publicKey, publicKeyOffset, ByteBuffer.wrap(message, messageOffset, messageLength),
+                signatureOut, signatureOffset);
+    }
+
+    /**
+     * Signs a message with a 32-byte private key.
+     *
+     * @param secretKey the 32-byte private key
+     * @param publicKey the 32-byte public key matching secretKey
+     * @param message the message bytes to be signed
+     * @return the 64-byte signature (R || s)
+     * @throws EncryptionException if signing fails due to cryptographic errors
+     * @throws InvalidArgumentException if a key has the wrong length
+     */
+    public byte[] sign(byte[] secretKey, byte[] publicKey, byte[] message) throws EncryptionException {
+        SchnorrHelper.checkLength(secretKey, Key.KEY_SIZE, "Secret key");
+        SchnorrHelper.checkLength(publicKey, Key.KEY_SIZE, "Public key");
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        final byte[] signature = new byte[Key.SIGNATURE_SIZE];
+        sign(secretKey, Params.noOffset, publicKey, Params.noOffset, message, Params.noOffset, message.length,
+                signature, Params.noOffset);
+        return signature;
     }
 
     /**
@@ -190,7 +502,7 @@ public class SchnorrQ {
      * - Validates that specific bits are properly set to zero
      * - Ensures signature is within valid range
      * - Verifies the public key lies on the curve
-     * 
+     *
      * @param publicKey the signer's public key for verification (must be non-null)
      * @param signature the signature to verify as a 64-byte BigInteger (must be non-null)
      * @param message the original message bytes that was signed
@@ -206,35 +518,584 @@ public class SchnorrQ {
     ) throws EncryptionException {
         SchnorrHelper.validateVerifyInputs(publicKey, signature);
 
-        // Build verification buffer using BufferBuilder
-        final byte[] bytes = BufferBuilder.forMessage(message)
-            .copyBigInteger(signature, Key.SIGNATURE_SIZE, Params.noOffset)
-            .copyBigInteger(publicKey, Key.KEY_SIZE, Key.KEY_SIZE)
-            .copyByteArray(message, Key.SIGNATURE_SIZE)
-            .build();
+        // Values that do not fit the fixed-size encodings can never be valid
+        if (!SchnorrHelper.fitsInBytes(publicKey, Key.KEY_SIZE) || !SchnorrHelper.fitsInBytes(signature, Key.SIGNATURE_SIZE)) {
+            return false;
+        }
+        return verify(
+                BigIntegerUtils.bigIntegerToByte(publicKey, Key.KEY_SIZE, false),
+                BigIntegerUtils.bigIntegerToByte(signature, Key.SIGNATURE_SIZE, false),
+                message
+        );
+    }
+
+    /**
+     * Verifies a 64-byte signature over the remaining bytes of a message buffer,
+     * see {@link #schnorrQVerify(BigInteger, BigInteger, byte[])}.
+     * The message buffer is consumed: its position is advanced to its limit.
+     *
+     * @param publicKey the signer's 32-byte public key
+     * @param signature the 64-byte signature (R || s)
+     * @param message the message, read from its position to its limit
+     * @return true if the signature is valid, false otherwise
+     * @throws fourqj.exceptions.ValidationException if the public key does not decode to a curve point
+     * @throws InvalidArgumentException if inputs fail validation checks
+     */
+    public boolean verify(byte[] publicKey, byte[] signature, ByteBuffer message) throws EncryptionException {
+        SchnorrHelper.checkLength(publicKey, Key.KEY_SIZE, "Public key");
+        SchnorrHelper.checkLength(signature, Key.SIGNATURE_SIZE, "Signature");
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        return verifyInternal(NO_DOMAIN, publicKey, Params.noOffset, signature, Params.noOffset, message);
+    }
+
+    /**
+     * Verifies a 64-byte signature over message[messageOffset, messageOffset + messageLength).
+     *
+     * @param publicKey array holding the signer's 32-byte public key
+     * @param publicKeyOffset position of the public key in publicKey
+     * @param signature array holding the 64-byte signature (R || s)
+     * @param signatureOffset position of the signature in signature
+     * @param message array holding the message
+     * @param messageOffset position of the first message byte
+     * @param messageLength number of message bytes
+     * @return true if the signature is valid, false otherwise
+     * @throws fourqj.exceptions.ValidationException if the public key does not decode to a curve point
+     * @throws InvalidArgumentException if inputs fail validation checks
+     */
+    public boolean verify(
+            byte[] publicKey,
+            int publicKeyOffset,
+            byte[] signature,
+            int signatureOffset,
+            byte[] message,
+            int messageOffset,
+            int messageLength
+    ) throws EncryptionException {
+        SchnorrHelper.checkRange(publicKey, publicKeyOffset, Key.KEY_SIZE, "Public key");
+        SchnorrHelper.checkRange(signature, signatureOffset, Key.SIGNATURE_SIZE, "Signature");
+        SchnorrHelper.checkRange(message, messageOffset, messageLength, "Message");
+        return verifyInternal(NO_DOMAIN, publicKey, publicKeyOffset, signature, signatureOffset,
+                ByteBuffer.wrap(message, messageOffset, messageLength));
+    }
+
+    /**
+     * Verifies a 64-byte signature over a message.
+     *
+     * @param publicKey the signer's 32-byte public key
+     * @param signature the 64-byte signature (R || s)
+     * @param message the original message bytes that was signed
+     * @return true if the signature is valid, false otherwise
+     * @throws fourqj.exceptions.ValidationException if the public key does not decode to a curve point
+     * @throws InvalidArgumentException if inputs fail validation checks
+     */
+    public boolean verify(byte[] publicKey, byte[] signature, byte[] message) throws EncryptionException {
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        return verify(publicKey, signature, ByteBuffer.wrap(message));
+    }
+
+    /**
+     * Verifies a 64-byte signature over a message read from a channel.
+     * <p>
+     * The message is streamed through the challenge hash H(R || publicKey || message) in
+     * fixed-size chunks, so memory use does not depend on its length; the curve check runs
+     * once the channel reaches end-of-stream. The channel is not closed.
+     *
+     * @param publicKey the signer's 32-byte public key
+     * @param signature the 64-byte signature (R || s)
+     * @param message the channel supplying the message
+     * @return true if the signature is valid, false otherwise
+     * @throws IOException if reading from the channel fails
+     * @throws fourqj.exceptions.ValidationException if the public key does not decode to a curve point
+     * @throws InvalidArgumentException if inputs fail validation checks
+     */
+    public boolean verify(byte[] publicKey, byte[] signature, ReadableByteChannel message) throws IOException {
+        SchnorrHelper.checkLength(publicKey, Key.KEY_SIZE, "Public key");
+        SchnorrHelper.checkLength(signature, Key.SIGNATURE_SIZE, "Signature");
+        ValidationChain.of(message).notNull("Message cannot be null.");
+
+        final HashFunction.Hasher challenge = startChallenge(NO_DOMAIN, publicKey, Params.noOffset, signature, Params.noOffset);
+        final ByteBuffer chunk = ByteBuffer.allocate(STREAM_CHUNK_SIZE);
+        while (message.read(chunk) >= 0) {
+            challenge.update(chunk.flip());
+            chunk.clear();
+        }
+        return finishVerify(publicKey, Params.noOffset, signature, Params.noOffset, challenge);
+    }
+
+    /**
+     * Verifies a 64-byte signature over a message read from an input stream,
+     * see {@link #verify(byte[], byte[], ReadableByteChannel)}. The stream is not closed.
+     *
+     * @param publicKey the signer's 32-byte public key
+     * @param signature the 64-byte signature (R || s)
+     * @param message the stream supplying the message
+     * @return true if the signature is valid, false otherwise
+     * @throws IOException if reading from the stream fails
+     * @throws fourqj.exceptions.ValidationException if the public key does not decode to a curve point
+     * @throws InvalidArgumentException if inputs fail validation checks
+     */
+    public boolean verify(byte[] publicKey, byte[] signature, InputStream message) throws IOException {
+        SchnorrHelper.checkLength(publicKey, Key.KEY_SIZE, "Public key");
+        SchnorrHelper.checkLength(signature, Key.SIGNATURE_SIZE, "Signature");
+        ValidationChain.of(message).notNull("Message cannot be null.");
+
+        final HashFunction.Hasher challenge = startChallenge(NO_DOMAIN, publicKey, Params.noOffset, signature, Params.noOffset);
+        final byte[] chunk = new byte[STREAM_CHUNK_SIZE];
+        int read;
+        while ((read = message.read(chunk)) >= 0) {
+            challenge.update(chunk, Params.noOffset, read);
+        }
+        return finishVerify(publicKey, Params.noOffset, signature, Params.noOffset, challenge);
+    }
+
+    /**
+     * Signs many messages with one key in parallel on the common fork-join pool,
+     * see {@link #signAll(SigningKeyMaterial, byte[][], byte[], Executor)}.
+     */
+    public void signAll(SigningKeyMaterial key, byte[][] messages, byte[] signaturesOut) throws EncryptionException {
+        signAll(key, messages, signaturesOut, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Signs many messages with one key in parallel on the common fork-join pool,
+     * see {@link #signAll(SigningKeyMaterial, byte[][], byte[], Executor)}.
+     */
+    public void signAll(SigningKeyMaterial key, List<byte[]> messages, byte[] signaturesOut) throws EncryptionException {
+        ValidationChain.of(messages).notNull("Messages cannot be null.");
+        signAll(key, messages.toArray(byte[][]::new), signaturesOut, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Signs many messages with one key, spreading the signatures across the executor's threads.
+     * <p>
+     * The signature of messages[i] is written to signaturesOut at offset i * 64, and equals
+     * {@link #sign(SigningKeyMaterial, byte[])} of that message. A {@link ForkJoinPool} splits the
+     * work recursively and balances it by work stealing; other executors receive a fixed set of
+     * chunks. Each signature costs a fixed-base scalar multiplication, far more than handing out
+     * a task, so chunks are sized only to keep every worker busy. When the hash function batches
+     * short inputs faster, see {@link HashFunction#batchInputLimit()}, the nonce and challenge
+     * hashes of messages that short are computed 32 at a time by
+     * {@link HashFunction#computeHashes}, before and after the scalar multiplications. Longer
+     * messages are streamed into the hash without being copied.
+     *
+     * @param key the signing key material
+     * @param messages the messages to sign
+     * @param signaturesOut receives the 64-byte signatures back to back
+     * @param executor the executor running the signing work
+     * @throws EncryptionException if signing fails due to cryptographic errors
+     * @throws InvalidArgumentException if any message is null, signaturesOut is too short, or the key material is unusable
+     */
+    public void signAll(SigningKeyMaterial key, byte[][] messages, byte[] signaturesOut, Executor executor) throws EncryptionException {
+        ValidationChain.of(key).notNull("Signing key material cannot be null.");
+        ValidationChain.of(executor).notNull("Executor cannot be null.");
+        SchnorrHelper.checkBatch(messages, "Messages", -1);
+        SchnorrHelper.checkRange(signaturesOut, Params.noOffset, messages.length * Key.SIGNATURE_SIZE, "Signature output");
+
+        final byte[] kHash = key.secretHash(hashFunction);
+        final byte[] publicKey = key.publicKeyBytes();
+        final int[] batched = batchedItems(messages);
+        final BigInteger[] nonces = new BigInteger[messages.length];
+        hashBatches(batched, executor, i -> nonceInput(kHash, messages[i]),
+                (digest, i) -> nonces[i] = LittleEndianCodec.readScalar(digest, Params.noOffset));
+
+        ConcurrencyUtils.parallelFor(messages.length, executor, BULK_MIN_CHUNK, i -> {
+            final int offset = i * Key.SIGNATURE_SIZE;
+            if (nonces[i] == null) {
+                signWithNonceHash(NO_DOMAIN, kHash, publicKey, Params.noOffset, ByteBuffer.wrap(messages[i]), signaturesOut, offset);
+            } else {
+                CryptoUtils.encode(ECC.eccMulFixed(nonces[i]), signaturesOut, offset);
+            }
+        });
+
+        hashBatches(batched, executor,
+                i -> SchnorrHelper.challengeInput(signaturesOut, i * Key.SIGNATURE_SIZE, publicKey, messages[i]),
+                (digest, i) -> {
+                    final int offset = i * Key.SIGNATURE_SIZE;
+                    final byte[] commitment = Arrays.copyOfRange(signaturesOut, offset, offset + Key.KEY_SIZE);
+                    final BigInteger h = FP.moduloOrder(LittleEndianCodec.readScalar(digest, Params.noOffset));
+                    writeSignature(kHash, nonces[i], commitment, h, signaturesOut, offset);
+                });
+    }
+
+    // nonce_seed || message, the input of the nonce hash without a domain prefix
+    private static byte[] nonceInput(byte[] kHash, byte[] message) {
+        final byte[] input = new byte[Key.KEY_SIZE + message.length];
+        System.arraycopy(kHash, Key.KEY_SIZE, input, Params.noOffset, Key.KEY_SIZE);
+        System.arraycopy(message, Params.noOffset, input, Key.KEY_SIZE, message.length);
+        return input;
+    }
+
+    // Indices of the messages short enough that copying them into R || publicKey || message for computeHashes pays off
+    private int[] batchedItems(byte[][] messages) {
+        final int limit = hashFunction.batchInputLimit() - 2 * Key.KEY_SIZE;
+        if (limit < 0) return new int[0];
+        final int[] items = new int[messages.length];
+        int count = 0;
+        for (int i = 0; i < messages.length; i++) {
+            if (messages[i].length <= limit) items[count++] = i;
+        }
+        return Arrays.copyOf(items, count);
+    }
+
+    // Hashes the inputs of the given items HASH_BATCH at a time through HashFunction.computeHashes and hands each digest
+    // to the consumer with its item. The copied inputs and the digests are wiped, as nonce inputs hold the nonce seed.
+    private void hashBatches(int[] items, Executor executor, IntFunction<byte[]> input, ObjIntConsumer<byte[]> consumer)
+            throws EncryptionException {
+        final int batches = (items.length + HASH_BATCH - 1) / HASH_BATCH;
+        ConcurrencyUtils.parallelFor(batches, executor, BULK_MIN_CHUNK, batch -> {
+            final int from = batch * HASH_BATCH;
+            final int size = Math.min(HASH_BATCH, items.length - from);
+            final byte[][] inputs = new byte[size][];
+            final byte[][] digests = new byte[size][HashFunction.HASH_OUTPUT_SIZE];
+            for (int j = 0; j < size; j++) inputs[j] = input.apply(items[from + j]);
+            hashFunction.computeHashes(inputs, digests);
+            for (int j = 0; j < size; j++) {
+                consumer.accept(digests[j], items[from + j]);
+                Arrays.fill(inputs[j], (byte) 0);
+                Arrays.fill(digests[j], (byte) 0);
+            }
+        });
+    }
+
+    /**
+     * Verifies many signatures in parallel on the common fork-join pool,
+     * see {@link #verifyAll(byte[][], byte[][], byte[][], boolean[], Executor)}.
+     */
+    public void verifyAll(byte[][] publicKeys, byte[][] signatures, byte[][] messages, boolean[] results) throws EncryptionException {
+        verifyAll(publicKeys, signatures, messages, results, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Verifies many signatures in parallel on the common fork-join pool,
+     * see {@link #verifyAll(byte[][], byte[][], byte[][], boolean[], Executor)}.
+     */
+    public void verifyAll(List<byte[]> publicKeys, List<byte[]> signatures, List<byte[]> messages, boolean[] results)
+            throws EncryptionException {
+        ValidationChain.of(publicKeys).notNull("Public keys cannot be null.");
+        ValidationChain.of(signatures).notNull("Signatures cannot be null.");
+        ValidationChain.of(messages).notNull("Messages cannot be null.");
+        verifyAll(publicKeys.toArray(byte[][]::new), signatures.toArray(byte[][]::new), messages.toArray(byte[][]::new),
+                results, ForkJoinPool.commonPool());
+    }
 
+    /**
+     * Verifies many signatures, spreading the checks across the executor's threads.
+     * <p>
+     * results[i] is set to whether signatures[i] is a valid signature of messages[i] under
+     * publicKeys[i]. The shapes of the inputs are checked before any work starts; after that a
+     * signature or public key that {@link #verify(byte[], byte[], byte[])} would reject with a
+     * {@link fourqj.exceptions.ValidationException} yields false, so one bad item does not
+     * discard the rest of the batch. As in {@link #signAll(SigningKeyMaterial, byte[][], byte[], Executor)},
+     * the challenge hashes of short messages may be computed 32 at a time by
+     * {@link HashFunction#computeHashes}, ahead of the per-item checks.
+     *
+     * @param publicKeys the signers' 32-byte public keys
+     * @param signatures the 64-byte signatures (R || s)
+     * @param messages the signed messages
+     * @param results receives the outcome of each verification
+     * @param executor the executor running the verification work
+     * @throws EncryptionException if verification fails due to cryptographic errors
+     * @throws InvalidArgumentException if the arrays differ in length, results is too short, or any entry is null or of the wrong size
+     */
+    public void verifyAll(byte[][] publicKeys, byte[][] signatures, byte[][] messages, boolean[] results, Executor executor)
+            throws EncryptionException {
+        ValidationChain.of(executor).notNull("Executor cannot be null.");
+        SchnorrHelper.checkBatch(publicKeys, "Public keys", Key.KEY_SIZE);
+        SchnorrHelper.checkBatch(signatures, "Signatures", Key.SIGNATURE_SIZE);
+        SchnorrHelper.checkBatch(messages, "Messages", -1);
+        final int count = messages.length;
+        ValidationChain.of(results)
+                .validate(Objects::nonNull, () -> new InvalidArgumentException("Results cannot be null."))
+                .validate(r -> publicKeys.length == count && signatures.length == count && r.length >= count,
+                        () -> new InvalidArgumentException("Public keys, signatures, messages and results must have matching lengths."));
+
+        final BigInteger[] challenges = new BigInteger[count];
+        hashBatches(batchedItems(messages), executor,
+                i -> SchnorrHelper.challengeInput(signatures[i], Params.noOffset, publicKeys[i], messages[i]),
+                (digest, i) -> challenges[i] = LittleEndianCodec.readScalar(digest, Params.noOffset));
+
+        ConcurrencyUtils.parallelFor(count, executor, BULK_MIN_CHUNK, i -> {
+            try {
+                if (challenges[i] == null) {
+                    results[i] = verifyInternal(NO_DOMAIN, publicKeys[i], Params.noOffset, signatures[i], Params.noOffset,
+                            ByteBuffer.wrap(messages[i]));
+                } else {
+                    SchnorrHelper.validateVerifyInputs(publicKeys[i], Params.noOffset, signatures[i], Params.noOffset);
+                    results[i] = finishVerify(publicKeys[i], Params.noOffset, signatures[i], Params.noOffset, challenges[i]);
+                }
+            } catch (ValidationException e) {
+                results[i] = false;
+            }
+        });
+    }
+
+    // Signs with the 64-byte hash of the secret key: its lower half is the secret scalar and its upper half seeds the nonce.
+    // The domain prefix is absorbed ahead of both the nonce and the challenge hash inputs; plain SchnorrQ uses none.
+    void signWithNonceHash(
+            byte[] domain,
+            byte[] kHash,
+            byte[] publicKey,
+            int publicKeyOffset,
+            ByteBuffer message,
+            byte[] signatureOut,
+            int signatureOffset
+    ) throws EncryptionException {
+        // Compute nonce r = H(nonce_seed || message), reading the message without consuming it
+        final BigInteger r = SchnorrHelper.scalar(hashFunction.hasher()
+                .update(domain)
+                .update(kHash, Key.KEY_SIZE, Key.KEY_SIZE)
+                .update(message.duplicate()));
+
+        // Compute R = r*G
+        final byte[] commitment = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(ECC.eccMulFixed(r), commitment, Params.noOffset);
+        signWithCommitment(domain, kHash, r, commitment, publicKey, publicKeyOffset, message, signatureOut, signatureOffset);
+    }
+
+    // Completes a signature for a nonce r whose commitment R = r*G is already known: hashes H(R || publicKey || message)
+    // and writes R || s. Consumes the message buffer.
+    void signWithCommitment(
+            byte[] domain,
+            byte[] kHash,
+            BigInteger r,
+            byte[] commitment,
+            byte[] publicKey,
+            int publicKeyOffset,
+            ByteBuffer message,
+            byte[] signatureOut,
+            int signatureOffset
+    ) throws EncryptionException {
+        final BigInteger h = FP.moduloOrder(challenge(domain, commitment, Params.noOffset, publicKey, publicKeyOffset, message));
+        writeSignature(kHash, r, commitment, h, signatureOut, signatureOffset);
+    }
+
+    // The challenge H(R || publicKey || message) as an unreduced 32-byte scalar. Consumes the message buffer.
+    BigInteger challenge(
+            byte[] domain,
+            byte[] commitment,
+            int commitmentOffset,
+            byte[] publicKey,
+            int publicKeyOffset,
+            ByteBuffer message
+    ) throws EncryptionException {
+        return SchnorrHelper.scalar(hashFunction.hasher()
+                .update(domain)
+                .update(commitment, commitmentOffset, Key.KEY_SIZE)
+                .update(publicKey, publicKeyOffset, Key.KEY_SIZE)
+                .update(message));
+    }
+
+    // Writes R || s with s = r - h*k mod order, where k is the secret scalar in the lower half of kHash.
+    private static void writeSignature(
+            byte[] kHash,
+            BigInteger r,
+            byte[] commitment,
+            BigInteger h,
+            byte[] signatureOut,
+            int signatureOffset
+    ) {
+        // Use Montgomery arithmetic for efficient modular operations
+        // Sequentially builds up s = r - h*k mod order.
+        final BigInteger s = BigIntegerUtils.buildBigInteger(
+                LittleEndianCodec.readScalar(kHash, Params.noOffset),
+                CryptoUtils::toMontgomery,
+                x -> FP.montgomeryMultiplyModOrder(x, CryptoUtils.toMontgomery(h)),
+                CryptoUtils::fromMontgomery,
+                x -> FP.subtractModOrder(FP.moduloOrder(r), x)
+        );
+
+        ByteArrayUtils.copyByteArrayToByteArray(commitment, Params.noOffset, signatureOut, signatureOffset, Key.KEY_SIZE);
+        LittleEndianCodec.writeScalar(s, signatureOut, signatureOffset + Key.KEY_SIZE);
+    }
+
+    // Feeds the file to the hasher one mapped segment at a time; nothing is copied to the heap.
+    private static void absorbMapped(FileChannel channel, long size, HashFunction.Hasher hasher) throws IOException {
+        try {
+            for (long position = 0; position < size; position += MAP_SEGMENT_SIZE) {
+                hasher.update(mapSegment(channel, position, size));
+            }
+        } catch (InternalError e) {
+            // Pages past the end of a file truncated after mapping fault on access, which the JVM reports as an InternalError
+            throw new EncryptionException(FILE_CHANGED, e);
+        }
+    }
+
+    // Feeds the file to both hashers, reading each chunk of the mapped segments once into a buffer that both hash,
+    // so a concurrent writer cannot show them different bytes.
+    private static void absorbMapped(FileChannel channel, long size, HashFunction.Hasher first, HashFunction.Hasher second)
+            throws IOException {
+        final byte[] chunk = new byte[STREAM_CHUNK_SIZE];
+        try {
+            for (long position = 0; position < size; position += MAP_SEGMENT_SIZE) {
+                final MappedByteBuffer segment = mapSegment(channel, position, size);
+                while (segment.hasRemaining()) {
+                    final int length = Math.min(chunk.length, segment.remaining());
+                    segment.get(chunk, Params.noOffset, length);
+                    first.update(chunk, Params.noOffset, length);
+                    second.update(chunk, Params.noOffset, length);
+                }
+            }
+        } catch (InternalError e) {
+            throw new EncryptionException(FILE_CHANGED, e);
+        }
+    }
+
+    private static MappedByteBuffer mapSegment(FileChannel channel, long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SEGMENT_SIZE, size - position));
+    }
+
+    boolean verifyInternal(
+            byte[] domain,
+            byte[] publicKey,
+            int publicKeyOffset,
+            byte[] signature,
+            int signatureOffset,
+            ByteBuffer message
+    ) throws EncryptionException {
+        return finishVerify(publicKey, publicKeyOffset, signature, signatureOffset,
+                startChallenge(domain, publicKey, publicKeyOffset, signature, signatureOffset).update(message));
+    }
+
+    // Validates the encodings and starts the challenge hash H(R || publicKey || message); the caller absorbs the message.
+    private HashFunction.Hasher startChallenge(
+            byte[] domain,
+            byte[] publicKey,
+            int publicKeyOffset,
+            byte[] signature,
+            int signatureOffset
+    ) throws EncryptionException {
+        return startChallenge(domain, publicKey, publicKeyOffset, signature, signatureOffset, hashFunction.hasher());
+    }
+
+    // As above, absorbing into the given hasher, for callers that finish the challenge on another thread.
+    HashFunction.Hasher startChallenge(
+            byte[] domain,
+            byte[] publicKey,
+            int publicKeyOffset,
+            byte[] signature,
+            int signatureOffset,
+            HashFunction.Hasher challenge
+    ) throws EncryptionException {
+        SchnorrHelper.validateVerifyInputs(publicKey, publicKeyOffset, signature, signatureOffset);
+        return challenge
+                .update(domain)
+                .update(signature, signatureOffset, Key.KEY_SIZE)
+                .update(publicKey, publicKeyOffset, Key.KEY_SIZE);
+    }
+
+    private boolean finishVerify(
+            byte[] publicKey,
+            int publicKeyOffset,
+            byte[] signature,
+            int signatureOffset,
+            HashFunction.Hasher challenge
+    ) throws EncryptionException {
+        return finishVerify(publicKey, publicKeyOffset, signature, signatureOffset, SchnorrHelper.scalar(challenge));
+    }
+
+    // Checks that s*G + h*publicKey equals the commitment R, given the challenge scalar h.
+    boolean finishVerify(
+            byte[] publicKey,
+            int publicKeyOffset,
+            byte[] signature,
+            int signatureOffset,
+            BigInteger h
+    ) throws EncryptionException {
         // Compute s*G + H*publicKey using double scalar multiplication
         final FieldPoint affPoint = ECC.eccMulDouble(
-                CryptoUtils.extractSignatureTopBytesReverse(signature),
-                CryptoUtils.decode(publicKey),       // Implicitly checks that public key lies on the curve
-                CryptoOperationChain.hashToBigInteger(hashFunction, bytes, true).execute()
+                LittleEndianCodec.readScalar(signature, signatureOffset + Key.KEY_SIZE),
+                CryptoUtils.decode(publicKey, publicKeyOffset),       // Implicitly checks that public key lies on the curve
+                h
         );
 
         // Verify that computed point equals the commitment R from signature
-        return CryptoUtils.encode(affPoint).equals(signature.divide(Key.POW_256));
+        final byte[] encoded = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(affPoint, encoded, Params.noOffset);
+        return Arrays.equals(encoded, Params.noOffset, Key.KEY_SIZE, signature, signatureOffset, signatureOffset + Key.KEY_SIZE);
     }
 
-    private interface SchnorrHelper {
+    // Validation and encoding helpers, shared with the other signers in this package
+    interface SchnorrHelper {
         static void validateVerifyInputs(BigInteger publicKey, BigInteger signature) throws InvalidArgumentException {
             // Security check: ensure specific bit is zero for both inputs
             ValidationChain.of(signature)
                 .validate(Objects::nonNull, () -> new InvalidArgumentException("Signature cannot be null."))
                 .validate(s -> !s.testBit(Key.SIG_TEST_BIT), ValidationErrors::signatureError)
                 .validate(s -> !isSignatureSizeTooLarge(s), ValidationErrors::signatureSizeError);
-            
+
             ValidationChain.of(publicKey)
                 .validate(Objects::nonNull, () -> new InvalidArgumentException("Public key cannot be null."))
                 .validate(pk -> !pk.testBit(Key.PUB_TEST_BIT), ValidationErrors::publicKeyError);
         }
+
+        static void validateVerifyInputs(byte[] publicKey, int publicKeyOffset, byte[] signature, int signatureOffset)
+                throws InvalidArgumentException {
+            // Same checks as above on the byte encodings
+            ValidationChain.of(signature)
+                .validate(s -> !ByteArrayUtils.testBit(s, signatureOffset, Key.SIGNATURE_SIZE, Key.SIG_TEST_BIT), ValidationErrors::signatureError)
+                .validate(s -> !isSignatureSizeTooLarge(s, signatureOffset), ValidationErrors::signatureSizeError);
+
+            ValidationChain.of(publicKey)
+                .validate(pk -> !ByteArrayUtils.testBit(pk, publicKeyOffset, Key.KEY_SIZE, Key.PUB_TEST_BIT), ValidationErrors::publicKeyError);
+        }
+
+        // R || publicKey || message, the input of the challenge hash without a domain prefix
+        static byte[] challengeInput(byte[] commitment, int commitmentOffset, byte[] publicKey, byte[] message) {
+            final byte[] input = new byte[2 * Key.KEY_SIZE + message.length];
+            System.arraycopy(commitment, commitmentOffset, input, Params.noOffset, Key.KEY_SIZE);
+            System.arraycopy(publicKey, Params.noOffset, input, Key.KEY_SIZE, Key.KEY_SIZE);
+            System.arraycopy(message, Params.noOffset, input, 2 * Key.KEY_SIZE, message.length);
+            return input;
+        }
+
+        // Reads the first 32 bytes of the digest as a little-endian scalar
+        static BigInteger scalar(HashFunction.Hasher hasher) throws EncryptionException {
+            return LittleEndianCodec.readScalar(hasher.doFinal(), Params.noOffset);
+        }
+
+        // Decodes a point, or returns null unless it round-trips its encoding and lies in the prime-order subgroup
+        static ExtendedPoint subgroupPoint(byte[] encoded, int offset) {
+            final FieldPoint point;
+            try {
+                point = CryptoUtils.decode(encoded, offset);
+            } catch (ValidationException e) {
+                return null;
+            }
+            final byte[] reencoded = new byte[Key.KEY_SIZE];
+            CryptoUtils.encode(point, reencoded, Params.noOffset);
+            if (!Arrays.equals(reencoded, 0, Key.KEY_SIZE, encoded, offset, offset + Key.KEY_SIZE) || !ECC.isInPrimeSubgroup(point)) {
+                return null;
+            }
+            return Curve.pointSetup(point);
+        }
+
+        static boolean fitsInBytes(BigInteger value, int size) {
+            return value.signum() >= 0 && value.bitLength() <= size * Byte.SIZE;
+        }
+
+        static void checkLength(byte[] array, int length, String name) throws InvalidArgumentException {
+            ValidationChain.of(array)
+                .validate(Objects::nonNull, () -> new InvalidArgumentException(name + " cannot be null."))
+                .validate(a -> a.length == length, () -> new InvalidArgumentException(
+                        String.format("%s must be %d bytes long.", name, length)));
+        }
+
+        static void checkRange(byte[] array, int offset, int length, String name) throws InvalidArgumentException {
+            ValidationChain.of(array)
+                .validate(Objects::nonNull, () -> new InvalidArgumentException(name + " cannot be null."))
+                .validate(a -> offset >= 0 && length >= 0 && offset <= a.length - length, () -> new InvalidArgumentException(
+                        String.format("%s must have %d bytes from offset %d.", name, length, offset)));
+        }
+
+        // Checks that a batch and all of its entries are non-null and, unless length is negative, of the given size
+        static void checkBatch(byte[][] batch, String name, int length) throws InvalidArgumentException {
+            ValidationChain.of(batch).notNull(name + " cannot be null.");
+            for (byte[] entry : batch) {
+                if (entry == null) throw new InvalidArgumentException(name + " cannot contain null entries.");
+                if (length >= 0 && entry.length != length) {
+                    throw new InvalidArgumentException(String.format("%s must each be %d bytes long.", name, length));
+                }
+            }
+        }
     }
 }
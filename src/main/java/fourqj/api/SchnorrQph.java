@@ -0,0 +1,187 @@
+package fourqj.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import fourqj.constants.Key;
+import fourqj.constants.Params;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * Prehashed SchnorrQ (SchnorrQph), in the style of Ed25519ph.
+ * <p>
+ * The message is first reduced to a 64-byte digest PH(M) with the configured hash function,
+ * and the digest is then signed as a SchnorrQ message. Both the nonce and the challenge hash
+ * inputs are prefixed with a domain string, a prehash flag and an optional context of up to
+ * 255 bytes, so SchnorrQph signatures can never be confused with plain {@link SchnorrQ}
+ * signatures or with SchnorrQph signatures under another context.
+ * <p>
+ * Because the message is read exactly once, signing and verification work in a single pass
+ * over streams and pipes that cannot be rewound. A message can also be hashed by the caller
+ * through {@link #prehash()} and the digest passed to {@link #signDigest} or {@link #verifyDigest}.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public class SchnorrQph {
+    private static final byte[] DOMAIN_STRING = "SigSchnorrQ no SchnorrQ collisions".getBytes(StandardCharsets.US_ASCII);
+    private static final byte PREHASH_FLAG = 1;
+    private static final int MAX_CONTEXT_SIZE = 255;
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+
+    private final HashFunction hashFunction;
+    private final SchnorrQ schnorrQ;
+    private final byte[] domain;
+
+    public SchnorrQph() {
+        this(new SHA512());
+    }
+
+    public SchnorrQph(HashFunction hash) {
+        this(hash, new byte[0]);
+    }
+
+    /**
+     * @param hash the hash function used for both the prehash and the signature
+     * @param context application-specific context of at most 255 bytes, copied
+     * @throws InvalidArgumentException if the context is longer than 255 bytes
+     */
+    public SchnorrQph(HashFunction hash, byte[] context) {
+        ValidationChain.of(hash).notNull("Hash function cannot be null.");
+        ValidationChain.of(context)
+                .validate(Objects::nonNull, () -> new InvalidArgumentException("Context cannot be null."))
+                .validate(c -> c.length <= MAX_CONTEXT_SIZE, () -> new InvalidArgumentException(
+                        String.format("Context must be at most %d bytes long.", MAX_CONTEXT_SIZE)));
+        this.hashFunction = hash;
+        this.schnorrQ = new SchnorrQ(hash);
+        this.domain = domain(context);
+    }
+
+    // DOMAIN_STRING || flag || context length || context
+    private static byte[] domain(byte[] context) {
+        final byte[] domain = new byte[DOMAIN_STRING.length + 2 + context.length];
+        System.arraycopy(DOMAIN_STRING, 0, domain, 0, DOMAIN_STRING.length);
+        domain[DOMAIN_STRING.length] = PREHASH_FLAG;
+        domain[DOMAIN_STRING.length + 1] = (byte) context.length;
+        System.arraycopy(context, 0, domain, DOMAIN_STRING.length + 2, context.length);
+        return domain;
+    }
+
+    /**
+     * Expands a 32-byte private key into signing key material for this scheme,
+     * see {@link SchnorrQ#signingKeyMaterial(byte[])}.
+     */
+    public SigningKeyMaterial signingKeyMaterial(byte[] secretKey) throws EncryptionException {
+        return schnorrQ.signingKeyMaterial(secretKey);
+    }
+
+    /**
+     * Returns a fresh hasher for computing PH(M) incrementally. Pass the result of
+     * {@link HashFunction.Hasher#doFinal()} to {@link #signDigest} or {@link #verifyDigest}.
+     *
+     * @return a hasher independent of any other computation
+     */
+    public HashFunction.Hasher prehash() throws EncryptionException {
+        return hashFunction.newHasher();
+    }
+
+    /**
+     * Signs a 64-byte message digest PH(M).
+     *
+     * @param key the signing key material
+     * @param digest the prehashed message
+     * @return the 64-byte signature (R || s)
+     * @throws InvalidArgumentException if the digest is not 64 bytes or the key material does not belong to this hash function
+     */
+    public byte[] signDigest(SigningKeyMaterial key, byte[] digest) throws EncryptionException {
+        ValidationChain.of(key).notNull("Signing key material cannot be null.");
+        checkDigest(digest);
+        final byte[] signature = new byte[Key.SIGNATURE_SIZE];
+        schnorrQ.signWithNonceHash(domain, key.secretHash(hashFunction), key.publicKeyBytes(), Params.noOffset,
+                ByteBuffer.wrap(digest), signature, Params.noOffset);
+        return signature;
+    }
+
+    /** Signs a message held in memory. */
+    public byte[] sign(SigningKeyMaterial key, byte[] message) throws EncryptionException {
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        return signDigest(key, prehash().update(message).doFinal());
+    }
+
+    /** Signs a message read once from a stream, which is not closed. */
+    public byte[] sign(SigningKeyMaterial key, InputStream message) throws IOException {
+        return signDigest(key, digest(message));
+    }
+
+    /** Signs a message read once from a channel, which is not closed. */
+    public byte[] sign(SigningKeyMaterial key, ReadableByteChannel message) throws IOException {
+        return signDigest(key, digest(message));
+    }
+
+    /**
+     * Verifies a signature over a 64-byte message digest PH(M).
+     *
+     * @param publicKey the signer's 32-byte public key
+     * @param signature the 64-byte signature (R || s)
+     * @param digest the prehashed message
+     * @return true if the signature is valid, false otherwise
+     * @throws fourqj.exceptions.ValidationException if the public key does not decode to a curve point
+     * @throws InvalidArgumentException if inputs fail validation checks
+     */
+    public boolean verifyDigest(byte[] publicKey, byte[] signature, byte[] digest) throws EncryptionException {
+        SchnorrQ.SchnorrHelper.checkLength(publicKey, Key.KEY_SIZE, "Public key");
+        SchnorrQ.SchnorrHelper.checkLength(signature, Key.SIGNATURE_SIZE, "Signature");
+        checkDigest(digest);
+        return schnorrQ.verifyInternal(domain, publicKey, Params.noOffset, signature, Params.noOffset, ByteBuffer.wrap(digest));
+    }
+
+    /** Verifies a signature over a message held in memory. */
+    public boolean verify(byte[] publicKey, byte[] signature, byte[] message) throws EncryptionException {
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        return verifyDigest(publicKey, signature, prehash().update(message).doFinal());
+    }
+
+    /** Verifies a signature over a message read once from a stream, which is not closed. */
+    public boolean verify(byte[] publicKey, byte[] signature, InputStream message) throws IOException {
+        return verifyDigest(publicKey, signature, digest(message));
+    }
+
+    /** Verifies a signature over a message read once from a channel, which is not closed. */
+    public boolean verify(byte[] publicKey, byte[] signature, ReadableByteChannel message) throws IOException {
+        return verifyDigest(publicKey, signature, digest(message));
+    }
+
+    private byte[] digest(InputStream message) throws IOException {
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        final HashFunction.Hasher hasher = prehash();
+        final byte[] chunk = new byte[STREAM_CHUNK_SIZE];
+        int read;
+        while ((read = message.read(chunk)) >= 0) hasher.update(chunk, Params.noOffset, read);
+        return hasher.doFinal();
+    }
+
+    private byte[] digest(ReadableByteChannel message) throws IOException {
+        ValidationChain.of(message).notNull("Message cannot be null.");
+        final HashFunction.Hasher hasher = prehash();
+        final ByteBuffer chunk = ByteBuffer.allocate(STREAM_CHUNK_SIZE);
+        while (message.read(chunk) >= 0) {
+            hasher.update(chunk.flip());
+            chunk.clear();
+        }
+        return hasher.doFinal();
+    }
+
+    private static void checkDigest(byte[] digest) throws InvalidArgumentException {
+        SchnorrQ.SchnorrHelper.checkLength(digest, HashFunction.HASH_OUTPUT_SIZE, "Digest");
+    }
+}
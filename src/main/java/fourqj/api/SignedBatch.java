@@ -0,0 +1,91 @@
+package fourqj.api;
+
+import java.util.Arrays;
+
+import fourqj.constants.Key;
+import fourqj.exceptions.InvalidArgumentException;
+
+import static fourqj.utils.SchnorrQUtils.*;
+
+
+/**
+ * A batch of messages signed by {@link BatchSigner}: the Merkle tree and the signature over its root.
+ * <p>
+ * Every message is sent with the batch {@link #header()}, shared by the whole batch, and its own
+ * {@link #proof(int)}. Both are plain byte strings:
+ * <pre>
+ *     header = leaf count (4 bytes, little-endian) || root (32 bytes) || signature (64 bytes)
+ *     proof  = leaf index (4 bytes, little-endian) || sibling hashes (32 bytes each, leaf to root)
+ * </pre>
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class SignedBatch {
+    public static final int HEADER_SIZE = Integer.BYTES + BatchSigner.NODE_SIZE + Key.SIGNATURE_SIZE;
+
+    // levels[0] holds the leaves and the last level the root, NODE_SIZE bytes per node
+    private final byte[][] levels;
+    private final byte[] header;
+
+    SignedBatch(byte[][] levels, byte[] signature) {
+        this.levels = levels;
+        this.header = new byte[HEADER_SIZE];
+        BatchSigner.writeInt(size(), header, 0);
+        System.arraycopy(levels[levels.length - 1], 0, header, Integer.BYTES, BatchSigner.NODE_SIZE);
+        System.arraycopy(signature, 0, header, Integer.BYTES + BatchSigner.NODE_SIZE, Key.SIGNATURE_SIZE);
+    }
+
+    /** @return the number of messages in the batch */
+    public int size() {
+        return levels[0].length / BatchSigner.NODE_SIZE;
+    }
+
+    /** @return the 32-byte Merkle root */
+    public byte[] root() {
+        return levels[levels.length - 1].clone();
+    }
+
+    /** @return the 64-byte signature over the root */
+    public byte[] signature() {
+        return Arrays.copyOfRange(header, Integer.BYTES + BatchSigner.NODE_SIZE, HEADER_SIZE);
+    }
+
+    /** @return the header shared by all messages of the batch */
+    public byte[] header() {
+        return header.clone();
+    }
+
+    /**
+     * @param index the position of the message in the signed batch
+     * @return the inclusion proof of that message
+     * @throws InvalidArgumentException if the index is outside the batch
+     */
+    public byte[] proof(int index) {
+        final int size = size();
+        ValidationChain.of(index)
+                .validate(i -> i >= 0 && i < size, () -> new InvalidArgumentException(
+                        String.format("Index must be between 0 and %d.", size - 1)));
+
+        final byte[] proof = new byte[Integer.BYTES + siblingCount(index, size) * BatchSigner.NODE_SIZE];
+        BatchSigner.writeInt(index, proof, 0);
+        int offset = Integer.BYTES;
+        for (int level = 0, i = index, width = size; width > 1; level++, i >>>= 1, width = (width + 1) / 2) {
+            final int sibling = i ^ 1;
+            if (sibling < width) {
+                System.arraycopy(levels[level], sibling * BatchSigner.NODE_SIZE, proof, offset, BatchSigner.NODE_SIZE);
+                offset += BatchSigner.NODE_SIZE;
+            }
+        }
+        return proof;
+    }
+
+    // The number of sibling hashes on the path from leaf index to the root; carried nodes have none
+    static int siblingCount(int index, int size) {
+        int count = 0;
+        for (int i = index, width = size; width > 1; i >>>= 1, width = (width + 1) / 2) {
+            if ((i ^ 1) < width) count++;
+        }
+        return count;
+    }
+}
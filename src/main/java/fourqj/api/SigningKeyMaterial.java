@@ -0,0 +1,68 @@
+package fourqj.api;
+
+import java.util.Arrays;
+
+import javax.security.auth.Destroyable;
+
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.exceptions.InvalidArgumentException;
+
+
+/**
+ * Expanded SchnorrQ signing key, created by {@link SchnorrQ#signingKeyMaterial}.
+ * <p>
+ * Holds the 64-byte hash of the secret key, whose lower half is the secret scalar and whose
+ * upper half seeds the deterministic nonce, together with the matching 32-byte public key.
+ * Signing with key material skips hashing the secret key on every signature. The material is
+ * tied to the hash function that produced it and can only be used by a {@link SchnorrQ}
+ * instance configured with the same type of hash function.
+ * <p>
+ * Call {@link #destroy()} to wipe the secret part once the key is no longer needed.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class SigningKeyMaterial implements Destroyable {
+    private final byte[] secretHash;
+    private final byte[] publicKey;
+    private final Class<? extends HashFunction> hashType;
+    private volatile boolean destroyed;
+
+    SigningKeyMaterial(byte[] secretHash, byte[] publicKey, Class<? extends HashFunction> hashType) {
+        this.secretHash = secretHash;
+        this.publicKey = publicKey;
+        this.hashType = hashType;
+    }
+
+    /** @return a copy of the 32-byte public key */
+    public byte[] publicKey() {
+        return publicKey.clone();
+    }
+
+    // Returns the secret key hash for signing with the given hash function, without copying.
+    byte[] secretHash(HashFunction hashFunction) throws InvalidArgumentException {
+        if (destroyed) throw new InvalidArgumentException("Signing key material has been destroyed.");
+        if (hashFunction.getClass() != hashType) {
+            throw new InvalidArgumentException(String.format(
+                    "Signing key material was created for %s, not %s.", hashType.getSimpleName(), hashFunction.getClass().getSimpleName()));
+        }
+        return secretHash;
+    }
+
+    // The public key backing array, for use inside the package only.
+    byte[] publicKeyBytes() {
+        return publicKey;
+    }
+
+    /** Wipes the secret key hash. Signing with destroyed material fails. */
+    @Override
+    public void destroy() {
+        destroyed = true;
+        Arrays.fill(secretHash, (byte) 0);
+    }
+
+    @Override
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+}
@@ -5,6 +5,7 @@ import java.math.BigInteger;
 public class Key {
     public static final int KEY_SIZE = 32;
     public static final int SIGNATURE_SIZE = KEY_SIZE * 2;
+    public static final int KEY_PAIR_SIZE = KEY_SIZE * 2;
     public static final int PUB_TEST_BIT = 135;
     public static final int SIG_TEST_BIT = 391;
     public static final int MAX_SIG_LENGTH = 502;
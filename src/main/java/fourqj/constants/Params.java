@@ -80,6 +80,115 @@ public final class Params {
         new BigInteger("6E1C4AF8630E024249A7C344844C8B5C", HEX_RADIX)
     );
 
+    // ========== ENDOMORPHISM CONSTANTS ==========
+
+    /** Scaling constant of the isogeny tau: E -> E1 */
+    public static final F2Element CTAU_1 = new F2Element(
+        new BigInteger("1964DE2C3AFAD20C74DCD57CEBCE74C3", HEX_RADIX),
+        new BigInteger("000000000000000C0000000000000012", HEX_RADIX)
+    );
+
+    /** Scaling constant of the dual isogeny tau_dual: E1 -> E */
+    public static final F2Element CTAU_DUAL_1 = new F2Element(
+        new BigInteger("4AA740EB230586529ECAA6D9DECDF034", HEX_RADIX),
+        new BigInteger("7FFFFFFFFFFFFFF40000000000000011", HEX_RADIX)
+    );
+
+    /** Constant 0 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_0 = new F2Element(
+        new BigInteger("0000000000000005FFFFFFFFFFFFFFF7", HEX_RADIX),
+        new BigInteger("2553A0759182C3294F65536CEF66F81A", HEX_RADIX)
+    );
+
+    /** Constant 1 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_1 = new F2Element(
+        new BigInteger("00000000000000050000000000000007", HEX_RADIX),
+        new BigInteger("62C8CAA0C50C62CF334D90E9E28296F9", HEX_RADIX)
+    );
+
+    /** Constant 2 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_2 = new F2Element(
+        new BigInteger("000000000000000F0000000000000015", HEX_RADIX),
+        new BigInteger("78DF262B6C9B5C982C2CB7154F1DF391", HEX_RADIX)
+    );
+
+    /** Constant 3 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_3 = new F2Element(
+        new BigInteger("00000000000000020000000000000003", HEX_RADIX),
+        new BigInteger("5084C6491D76342A92440457A7962EA4", HEX_RADIX)
+    );
+
+    /** Constant 4 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_4 = new F2Element(
+        new BigInteger("00000000000000030000000000000003", HEX_RADIX),
+        new BigInteger("12440457A7962EA4A1098C923AEC6855", HEX_RADIX)
+    );
+
+    /** Constant 5 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_5 = new F2Element(
+        new BigInteger("000000000000000A000000000000000F", HEX_RADIX),
+        new BigInteger("459195418A18C59E669B21D3C5052DF3", HEX_RADIX)
+    );
+
+    /** Constant 6 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_6 = new F2Element(
+        new BigInteger("00000000000000120000000000000018", HEX_RADIX),
+        new BigInteger("0B232A8314318B3CCD3643A78A0A5BE7", HEX_RADIX)
+    );
+
+    /** Constant 7 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_7 = new F2Element(
+        new BigInteger("00000000000000180000000000000023", HEX_RADIX),
+        new BigInteger("3963BC1C99E2EA1A66C183035F48781A", HEX_RADIX)
+    );
+
+    /** Constant 8 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_8 = new F2Element(
+        new BigInteger("00000000000000AA00000000000000F0", HEX_RADIX),
+        new BigInteger("1F529F860316CBE544E251582B5D0EF0", HEX_RADIX)
+    );
+
+    /** Constant 9 of the delta-phi-delta map used by the endomorphism phi */
+    public static final F2Element CPHI_9 = new F2Element(
+        new BigInteger("00000000000008700000000000000BEF", HEX_RADIX),
+        new BigInteger("0FD52E9CFE00375B014D3E48976E2505", HEX_RADIX)
+    );
+
+    /** Constant 1 of the delta-psi-delta map used by the endomorphism psi */
+    public static final F2Element CPSI_1 = new F2Element(
+        new BigInteger("2AF99E9A83D54A02EDF07F4767E346EF", HEX_RADIX),
+        new BigInteger("00000000000000DE000000000000013A", HEX_RADIX)
+    );
+
+    /** Constant 2 of the delta-psi-delta map used by the endomorphism psi */
+    public static final F2Element CPSI_2 = new F2Element(
+        new BigInteger("00000000000000E40000000000000143", HEX_RADIX),
+        new BigInteger("21B8D07B99A81F034C7DEB770E03F372", HEX_RADIX)
+    );
+
+    /** Constant 3 of the delta-psi-delta map used by the endomorphism psi */
+    public static final F2Element CPSI_3 = new F2Element(
+        new BigInteger("00000000000000060000000000000009", HEX_RADIX),
+        new BigInteger("4CB26F161D7D69063A6E6ABE75E73A61", HEX_RADIX)
+    );
+
+    /** Constant 4 of the delta-psi-delta map used by the endomorphism psi */
+    public static final F2Element CPSI_4 = new F2Element(
+        new BigInteger("7FFFFFFFFFFFFFF9FFFFFFFFFFFFFFF6", HEX_RADIX),
+        new BigInteger("334D90E9E28296F9C59195418A18C59E", HEX_RADIX)
+    );
+
+    /**
+     * Coefficients (a0, a1, a2, a3) of the endomorphism a0 + a1*phi + a2*psi + a3*phi*psi used for subgroup checks.
+     * The combination annihilates the prime-order subgroup and is injective on the 392-torsion of E(GF(p^2)).
+     */
+    public static final BigInteger[] SUBGROUP_CHECK_SCALARS = {
+        new BigInteger("136E340A9108C83F", HEX_RADIX),
+        new BigInteger("3122DF2DC3E0FF32", HEX_RADIX),
+        new BigInteger("-068A49F02AA8A9B5", HEX_RADIX),
+        new BigInteger("-18D5087896DE0AEA", HEX_RADIX)
+    };
+
     public static final int noOffset = 0;
     public static final int signPositive = 1;
 
@@ -11,11 +11,11 @@ import fourqj.types.point.ExtendedPoint;
 import fourqj.types.point.FieldPoint;
 import fourqj.types.point.PreComputedExtendedPoint;
 import fourqj.utils.BigIntegerUtils;
-import fourqj.utils.ByteArrayUtils;
 import fourqj.utils.CryptoUtils;
+import fourqj.utils.LittleEndianCodec;
 
 import java.math.BigInteger;
-import java.util.Optional;
+import java.util.Arrays;
 
 import static fourqj.constants.Params.T_VARBASE;
 import static fourqj.fieldoperations.FP2.*;
@@ -37,6 +37,14 @@ import static fourqj.fieldoperations.FP2.*;
  * @since 1.0.0
  */
 public class ECC {
+    // Largest multi-scalar input handled by the Straus-Shamir table of all subset sums
+    private static final int MULTI_STRAUS_MAX_POINTS = 4;
+
+    // Odd multiples of the generator for eccMulFixed, built on first use
+    private static final class GeneratorTable {
+        static final PreComputedExtendedPoint[] TABLE = eccPrecomp(Curve.pointSetup(getGeneratorPoint()));
+    }
+
     /**
      * Returns the generator point of the FourQ elliptic curve.
      * <p>
@@ -61,7 +69,18 @@ public class ECC {
      * @throws EncryptionException if the scalar multiplication fails
      */
     public static FieldPoint eccMulFixed(BigInteger val) throws EncryptionException {
-        return ECC.eccMul(ECC.getGeneratorPoint(), val,false);
+        return eccNorm(eccMulFixedExtended(val));
+    }
+
+    /**
+     * Performs fixed-base scalar multiplication k*G without normalizing the result,
+     * for callers that normalize many points at once with {@link #eccNormBatch}.
+     *
+     * @param val the scalar multiplier k
+     * @return the point k*G in extended coordinates
+     */
+    public static ExtendedPoint eccMulFixedExtended(BigInteger val) {
+        return eccMulExtended(GeneratorTable.TABLE, val);
     }
 
     /**
@@ -74,12 +93,9 @@ public class ECC {
      * @throws EncryptionException if the scalar multiplication fails
      */
     public static byte[] eccMulFixed(byte[] in) throws EncryptionException {
-        BigInteger input = new BigInteger(1, ByteArrayUtils.reverseByteArray(in, Optional.empty()));
-        return BigIntegerUtils.bigIntegerToByte(
-            CryptoUtils.encode(eccMulFixed(input)), 
-            Key.KEY_SIZE, 
-            false
-        );
+        final byte[] encoded = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(eccMulFixed(LittleEndianCodec.readInteger(in, 0, in.length)), encoded, 0);
+        return encoded;
     }
 
     /**
@@ -100,25 +116,60 @@ public class ECC {
             BigInteger k,
             boolean clearCofactor
     ) throws EncryptionException {
-        int[] signMasks = new int[T_VARBASE + 1];
-        ExtendedPoint r = Curve.pointSetup(p);
+        return eccMul(eccMulPrecompute(p, clearCofactor), k);
+    }
 
+    /**
+     * Validates a base point and builds its table for {@link #eccMul(PreComputedExtendedPoint[], BigInteger)}.
+     * <p>
+     * The table depends only on the point, so callers multiplying one point by many scalars,
+     * such as a Diffie-Hellman peer key used across sessions, can build it once and reuse it.
+     *
+     * @param p the base point P
+     * @param clearCofactor whether to multiply P by the cofactor before building the table
+     * @return the table of odd multiples of P, or of 392*P if clearCofactor is set
+     * @throws EncryptionException if P is not on the curve
+     */
+    public static PreComputedExtendedPoint[] eccMulPrecompute(FieldPoint p, boolean clearCofactor) throws EncryptionException {
+        ExtendedPoint r = Curve.pointSetup(p);
         if (!eccPointValidate(r)) throw new EncryptionException("Point validation failed within eccMul");
         if (clearCofactor) r = Curve.cofactorClearing(r);
+        return eccPrecomp(r);
+    }
 
+    /**
+     * Performs variable-base scalar multiplication k*P from a table built by {@link #eccMulPrecompute}.
+     *
+     * @param table the precomputed odd multiples of P
+     * @param k the scalar multiplier k
+     * @return the point k*P in affine coordinates
+     */
+    public static FieldPoint eccMul(PreComputedExtendedPoint[] table, BigInteger k) {
+        return eccNorm(eccMulExtended(table, k));
+    }
+
+    /**
+     * Performs variable-base scalar multiplication k*P from a precomputed table without normalizing the result.
+     *
+     * @param table the precomputed odd multiples of P
+     * @param k the scalar multiplier k
+     * @return the point k*P in extended coordinates
+     */
+    public static ExtendedPoint eccMulExtended(PreComputedExtendedPoint[] table, BigInteger k) {
+        int[] signMasks = new int[T_VARBASE + 1];
         BigInteger kOdd = BigIntegerUtils.buildBigInteger(k, FP::moduloOrder, FP::conversionToOdd);
-        PreComputedExtendedPoint[] table = eccPrecomp(r);
         int[] digits = Curve.fixedWindowRecode(kOdd, signMasks);
 
+        // Ta and Tb of the starting point are never read, as the first step doubles it
         PreComputedExtendedPoint s = Table.tableLookup(table, digits[T_VARBASE], signMasks[T_VARBASE]);
-        r = Conversion.r2ToR4(s, r);
+        ExtendedPoint r = Conversion.r2ToR4(s, eccIdentity());
 
         for (int i = T_VARBASE - 1; i >= 0; i--) {
             r = eccDouble(eccDouble(eccDouble(eccDouble(r))));
             r = eccAdd(Table.tableLookup(table, digits[i], signMasks[i]), r);
         }
 
-        return eccNorm(r);
+        return r;
     }
 
     private static ExtendedPoint eccMixedAdd(
@@ -182,7 +233,40 @@ public class ECC {
      * @return the same point in affine coordinates (x,y)
      */
     public static FieldPoint eccNorm(ExtendedPoint p) {
-        final F2Element zInv = fp2Inv1271(p.getZ());
+        return affine(p, fp2Inv1271(p.getZ()));
+    }
+
+    /**
+     * Normalizes many points to affine coordinates with a single field inversion.
+     * <p>
+     * Uses Montgomery's trick: the inverse of the product of all Z coordinates is
+     * computed once, and each 1/Z is recovered from it with multiplications only,
+     * about three per point. No Z coordinate may be zero.
+     *
+     * @param points the points in extended projective coordinates
+     * @return the same points in affine coordinates, in the same order
+     */
+    public static FieldPoint[] eccNormBatch(ExtendedPoint[] points) {
+        final int n = points.length;
+        final FieldPoint[] result = new FieldPoint[n];
+        if (n == 0) return result;
+
+        // prefix[i] = Z_0 * ... * Z_i
+        final F2Element[] prefix = new F2Element[n];
+        prefix[0] = points[0].getZ();
+        for (int i = 1; i < n; i++) prefix[i] = fp2Mul1271(prefix[i - 1], points[i].getZ());
+
+        F2Element inverse = fp2Inv1271(prefix[n - 1]);          // 1/(Z_0 * ... * Z_i), walking i down
+        for (int i = n - 1; i > 0; i--) {
+            result[i] = affine(points[i], fp2Mul1271(inverse, prefix[i - 1]));
+            inverse = fp2Mul1271(inverse, points[i].getZ());
+        }
+        result[0] = affine(points[0], inverse);
+        return result;
+    }
+
+    // (X/Z, Y/Z) fully reduced, given 1/Z
+    private static FieldPoint affine(ExtendedPoint p, F2Element zInv) {
         final F2Element x = fp2Mul1271(p.getX(), zInv);
         final F2Element y = fp2Mul1271(p.getY(), zInv);
 
@@ -251,7 +335,17 @@ public class ECC {
         );
     }
 
-    static ExtendedPoint eccAdd(
+    /**
+     * Point addition: computes P + Q.
+     * <p>
+     * Uses the complete twisted Edwards addition law, so it is valid for all inputs
+     * including P = Q and the neutral element.
+     *
+     * @param q the point Q in (X+Y,Y-X,2Z,2dT) format, see {@link Conversion#r1ToR2}
+     * @param p the point P in extended coordinates
+     * @return the point P + Q in extended coordinates
+     */
+    public static ExtendedPoint eccAdd(
             PreComputedExtendedPoint q,
             ExtendedPoint p
     ) {
@@ -292,6 +386,170 @@ public class ECC {
         return t1.real.equals(BigInteger.ZERO) && t1.im.equals(BigInteger.ZERO);
     }
 
+    /**
+     * Prime-order subgroup check: tests whether N*P = O for the curve order N.
+     * <p>
+     * Instead of a full multiplication by N, the check evaluates the endomorphism
+     * a0 + a1*phi + a2*psi + a3*phi*psi at P, with the ~62-bit coefficients in
+     * {@link Params#SUBGROUP_CHECK_SCALARS}. This combination is zero on the prime-order
+     * subgroup and injective on the 392-torsion, so it vanishes exactly when P is in
+     * the subgroup. The cost is three endomorphism evaluations and a 62-bit joint
+     * multi-scalar multiplication, instead of a 246-bit scalar multiplication.
+     *
+     * @param p = (x,y) in affine coordinates, where x, y in [0, 2^127-1]
+     * @return true if P lies on the curve and in the subgroup of order N, false otherwise
+     *
+     * @implNote this function does not run in constant time (input point P is assumed to be public)
+     */
+    public static boolean isInPrimeSubgroup(FieldPoint p) {
+        final ExtendedPoint r = Curve.pointSetup(p);
+        if (!eccPointValidate(r)) return false;
+
+        final ExtendedPoint phiP = Endomorphism.phi(r);
+        final ExtendedPoint psiP = Endomorphism.psi(r);
+        final ExtendedPoint psiPhiP = Endomorphism.psi(phiP);
+
+        // Exceptional cases of the endomorphism formulas only occur for points with a small-order component
+        if (isZeroModP(phiP.getZ()) || isZeroModP(psiP.getZ()) || isZeroModP(psiPhiP.getZ())) return false;
+
+        final ExtendedPoint s = eccMulMultiExtended(
+                new ExtendedPoint[] { r, phiP, psiP, psiPhiP },
+                Params.SUBGROUP_CHECK_SCALARS
+        );
+        return isNeutral(s);
+    }
+
+    /**
+     * Joint multi-scalar multiplication k[0]*P[0] + ... + k[n-1]*P[n-1] using a single
+     * shared doubling chain over a table of all 2^n subset sums (Straus-Shamir trick).
+     * Negative scalars are handled by negating the corresponding point.
+     *
+     * @param points the base points in extended coordinates (not modified), at most 8
+     * @param scalars the scalar multipliers, one per point
+     * @return the linear combination in extended coordinates (not normalized)
+     */
+    static ExtendedPoint eccMulMultiExtended(ExtendedPoint[] points, BigInteger[] scalars) {
+        final int n = points.length;
+        final ExtendedPoint[] bases = new ExtendedPoint[n];
+        final BigInteger[] magnitudes = new BigInteger[n];
+        int bits = 0;
+        for (int i = 0; i < n; i++) {
+            bases[i] = scalars[i].signum() < 0 ? eccNeg(points[i]) : points[i];
+            magnitudes[i] = scalars[i].abs();
+            bits = Math.max(bits, magnitudes[i].bitLength());
+        }
+
+        // table[mask] = sum of bases[i] for each bit i set in mask, in (X+Y,Y-X,2Z,2dT) format
+        final PreComputedExtendedPoint[] single = new PreComputedExtendedPoint[n];
+        for (int i = 0; i < n; i++) single[i] = Conversion.r1ToR2(bases[i]);
+        final ExtendedPoint[] sums = new ExtendedPoint[1 << n];
+        final PreComputedExtendedPoint[] table = new PreComputedExtendedPoint[1 << n];
+        for (int mask = 1; mask < (1 << n); mask++) {
+            final int low = Integer.numberOfTrailingZeros(mask);
+            final int rest = mask & (mask - 1);
+            sums[mask] = rest == 0 ? bases[low] : eccAdd(single[low], sums[rest]);
+            table[mask] = rest == 0 ? single[low] : Conversion.r1ToR2(sums[mask]);
+        }
+
+        ExtendedPoint r = eccIdentity();
+        for (int bit = bits - 1; bit >= 0; bit--) {
+            r = eccDouble(r);
+            int mask = 0;
+            for (int i = 0; i < n; i++) if (magnitudes[i].testBit(bit)) mask |= 1 << i;
+            if (mask != 0) r = eccAdd(table[mask], r);
+        }
+        return r;
+    }
+
+    /**
+     * Multi-scalar multiplication k[0]*P[0] + ... + k[n-1]*P[n-1] for any number of points.
+     * <p>
+     * Up to four points use the joint Straus-Shamir method of {@link #eccMulMultiExtended}.
+     * Larger inputs use Pippenger's bucket method: each c-bit window of the scalars sorts the
+     * points into 2^c - 1 buckets by digit, and the buckets are combined with two running sums.
+     * A window costs about n + 2^(c+1) additions and all windows share one doubling chain, so
+     * the cost per point falls as n grows instead of staying at one full scalar multiplication.
+     * Negative scalars are handled by negating the corresponding point.
+     *
+     * @param points the base points in extended coordinates (not modified)
+     * @param scalars the scalar multipliers, one per point
+     * @return the linear combination in extended coordinates (not normalized)
+     *
+     * @implNote this function does not run in constant time (inputs are assumed to be public)
+     */
+    public static ExtendedPoint eccMulMulti(ExtendedPoint[] points, BigInteger[] scalars) {
+        final int n = points.length;
+        if (n <= MULTI_STRAUS_MAX_POINTS) return eccMulMultiExtended(points, scalars);
+
+        final ExtendedPoint[] bases = new ExtendedPoint[n];
+        final PreComputedExtendedPoint[] precomputed = new PreComputedExtendedPoint[n];
+        final BigInteger[] magnitudes = new BigInteger[n];
+        int bits = 0;
+        for (int i = 0; i < n; i++) {
+            bases[i] = scalars[i].signum() < 0 ? eccNeg(points[i]) : points[i];
+            precomputed[i] = Conversion.r1ToR2(bases[i]);
+            magnitudes[i] = scalars[i].abs();
+            bits = Math.max(bits, magnitudes[i].bitLength());
+        }
+
+        // Window width grows with log2(n): 3 bits for 16 points, 4 for 64, 5 for 256, ...
+        final int c = (31 - Integer.numberOfLeadingZeros(n) + 1) / 2 + 1;
+        final int windows = (bits + c - 1) / c;
+        final ExtendedPoint[] buckets = new ExtendedPoint[1 << c];
+
+        ExtendedPoint r = eccIdentity();
+        for (int w = windows - 1; w >= 0; w--) {
+            for (int j = 0; j < c && w != windows - 1; j++) r = eccDouble(r);
+
+            Arrays.fill(buckets, null);
+            for (int i = 0; i < n; i++) {
+                int digit = 0;
+                for (int j = c - 1; j >= 0; j--) digit = (digit << 1) | (magnitudes[i].testBit(w * c + j) ? 1 : 0);
+                if (digit != 0) buckets[digit] = buckets[digit] == null ? bases[i] : eccAdd(precomputed[i], buckets[digit]);
+            }
+
+            // sum of digit*bucket[digit] = sum over d of (bucket[top] + ... + bucket[d])
+            ExtendedPoint running = null;
+            ExtendedPoint windowSum = null;
+            for (int digit = buckets.length - 1; digit > 0; digit--) {
+                if (buckets[digit] != null) running = running == null ? buckets[digit] : eccAdd(Conversion.r1ToR2(buckets[digit]), running);
+                if (running != null) windowSum = windowSum == null ? running : eccAdd(Conversion.r1ToR2(running), windowSum);
+            }
+            if (windowSum != null) r = eccAdd(Conversion.r1ToR2(windowSum), r);
+        }
+        return r;
+    }
+
+    // Neutral element (0:1:1) with Ta*Tb = 0
+    public static ExtendedPoint eccIdentity() {
+        return new ExtendedPoint(F2Element.ZERO.dup(), F2Element.ONE.dup(), F2Element.ONE.dup(), F2Element.ZERO.dup(), F2Element.ONE.dup());
+    }
+
+    // Point negation, -(X:Y:Z:Ta:Tb) = (-X:Y:Z:-Ta:Tb)
+    public static ExtendedPoint eccNeg(ExtendedPoint p) {
+        return new ExtendedPoint(fp2Neg1271(p.getX()), p.getY(), p.getZ(), fp2Neg1271(p.getTa()), p.getTb());
+    }
+
+    // Projective test for the neutral element: X = 0 and Y = Z != 0
+    public static boolean isNeutral(ExtendedPoint p) {
+        return isZeroModP(p.getX()) && !isZeroModP(p.getZ()) && isZeroModP(fp2Sub1271(p.getY(), p.getZ()));
+    }
+
+    // The same test in (X+Y,Y-X,2Z,2dT) form: X+Y = Y-X and 2(Y-X) = 2Z
+    public static boolean isNeutral(PreComputedExtendedPoint p) {
+        return isZeroModP(fp2Sub1271(p.getX(), p.getY())) && isZeroModP(fp2Sub1271(fp2Add1271(p.getY(), p.getY()), p.getZ()));
+    }
+
+    // Projective equality without inversion: X1*Z2 = X2*Z1 and Y1*Z2 = Y2*Z1
+    public static boolean eccEquals(ExtendedPoint p, ExtendedPoint q) {
+        return isZeroModP(fp2Sub1271(fp2Mul1271(p.getX(), q.getZ()), fp2Mul1271(q.getX(), p.getZ())))
+                && isZeroModP(fp2Sub1271(fp2Mul1271(p.getY(), q.getZ()), fp2Mul1271(q.getY(), p.getZ())));
+    }
+
+    private static boolean isZeroModP(F2Element a) {
+        return FP.PUtil.fpMod1271(a.real).signum() == 0 && FP.PUtil.fpMod1271(a.im).signum() == 0;
+    }
+
     /**
      * Generation of the precomputation table used by the variable-base scalar multiplication eccMul().
      * @param p = (X1,Y1,Z1,Ta,Tb), where T1 = Ta*Tb, corresponding to (X1:Y1:Z1:T1) in extended twisted Edwards coordinates.
@@ -0,0 +1,161 @@
+package fourqj.crypto.core;
+
+import fourqj.fieldoperations.FP;
+import fourqj.types.data.F2Element;
+import fourqj.types.point.ExtendedPoint;
+
+import static fourqj.constants.Params.*;
+import static fourqj.fieldoperations.FP2.*;
+
+/**
+ * The efficiently computable endomorphisms phi and psi of FourQ.
+ * <p>
+ * Both maps are evaluated as tau_dual(delta(x_W(delta_inv(tau(P))))), where tau is a 4-isogeny from E
+ * to an auxiliary curve E1, x_W is the endomorphism on the Weierstrass model and tau_dual maps back to E.
+ * On the prime-order subgroup they act as multiplication by fixed eigenvalues, with phi^2 = [-80] and
+ * psi^2 = [32], which is what {@link ECC#isInPrimeSubgroup} relies on.
+ * <p>
+ * All maps work on projective (X:Y:Z) coordinates and never invert. Points of small order can land on an
+ * exceptional case of the formulas, in which case the output has Z = 0.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+class Endomorphism {
+    /**
+     * Applies the endomorphism phi to a point.
+     *
+     * @param p the point (X1:Y1:Z1) on E
+     * @return phi(P) = (X:Y:Z:Ta:Tb) on E in extended twisted Edwards coordinates
+     */
+    static ExtendedPoint phi(ExtendedPoint p) {
+        return tauDual(delPhiDel(tau(p)));
+    }
+
+    /**
+     * Applies the endomorphism psi to a point.
+     *
+     * @param p the point (X1:Y1:Z1) on E
+     * @return psi(P) = (X:Y:Z:Ta:Tb) on E in extended twisted Edwards coordinates
+     */
+    static ExtendedPoint psi(ExtendedPoint p) {
+        return tauDual(delPsiDel(tau(p)));
+    }
+
+    // Maps (X1:Y1:Z1) on E to (X:Y:Z) on E1, Ta and Tb are not set
+    private static ExtendedPoint tau(ExtendedPoint p) {
+        F2Element t0 = fp2Sqr1271(p.getX());                 // t0 = X1^2
+        final F2Element t1 = fp2Sqr1271(p.getY());           // t1 = Y1^2
+        F2Element x = fp2Mul1271(p.getX(), p.getY());        // X = X1*Y1
+        F2Element y = fp2Sqr1271(p.getZ());                  // Y = Z1^2
+        final F2Element z = fp2Add1271(t0, t1);              // Z = X1^2+Y1^2
+        t0 = fp2Sub1271(t1, t0);                             // t0 = Y1^2-X1^2
+        y = fp2Add1271(y, y);                                // Y = 2*Z1^2
+        x = fp2Mul1271(x, t0);                               // X = X1*Y1*(Y1^2-X1^2)
+        y = fp2Sub1271(y, t0);                               // Y = 2*Z1^2-(Y1^2-X1^2)
+        return new ExtendedPoint(
+                fp2Mul1271(x, CTAU_1),                       // Xfinal = X*ctau1
+                fp2Mul1271(y, z),                            // Yfinal = Y*Z
+                fp2Mul1271(z, t0),                           // Zfinal = t0*Z
+                F2Element.ZERO.dup(),
+                F2Element.ZERO.dup()
+        );
+    }
+
+    // Maps (X1:Y1:Z1) on E1 to (X:Y:Z:Ta:Tb) on E
+    private static ExtendedPoint tauDual(ExtendedPoint p) {
+        F2Element t0 = fp2Sqr1271(p.getX());                 // t0 = X1^2
+        F2Element z = fp2Sqr1271(p.getZ());                  // Z = Z1^2
+        final F2Element t1 = fp2Sqr1271(p.getY());           // t1 = Y1^2
+        z = fp2Add1271(z, z);                                // Z = 2*Z1^2
+        final F2Element ta = fp2Sub1271(t1, t0);             // Tafinal = Y1^2-X1^2
+        t0 = fp2Add1271(t0, t1);                             // t0 = X1^2+Y1^2
+        final F2Element x = fp2Mul1271(p.getX(), p.getY());  // X = X1*Y1
+        z = fp2Sub1271(z, ta);                               // Z = 2*Z1^2-(Y1^2-X1^2)
+        final F2Element tb = fp2Mul1271(x, CTAU_DUAL_1);     // Tbfinal = ctaudual1*X1*Y1
+        return new ExtendedPoint(
+                fp2Mul1271(tb, t0),                          // Xfinal = Tbfinal*t0
+                fp2Mul1271(z, ta),                           // Yfinal = Z*Tafinal
+                fp2Mul1271(z, t0),                           // Zfinal = Z*t0
+                ta,
+                tb
+        );
+    }
+
+    // delta(phi_W(delta_inv(P))) on E1
+    private static ExtendedPoint delPhiDel(ExtendedPoint p) {
+        F2Element t4 = fp2Sqr1271(p.getZ());                 // t4 = Z1^2
+        F2Element t3 = fp2Mul1271(p.getY(), p.getZ());       // t3 = Y1*Z1
+        F2Element t0 = fp2Mul1271(t4, CPHI_4);               // t0 = cphi4*t4
+        F2Element t2 = fp2Sqr1271(p.getY());                 // t2 = Y1^2
+        t0 = fp2Add1271(t0, t2);                             // t0 = t0+t2
+        F2Element t1 = fp2Mul1271(t3, CPHI_3);               // t1 = cphi3*t3
+        F2Element t5 = fp2Sub1271(t0, t1);                   // t5 = t0-t1
+        t0 = fp2Add1271(t0, t1);                             // t0 = t0+t1
+        t0 = fp2Mul1271(t0, p.getZ());                       // t0 = t0*Z1
+        t1 = fp2Mul1271(t3, CPHI_1);                         // t1 = cphi1*t3
+        t0 = fp2Mul1271(t0, t5);                             // t0 = t0*t5
+        t5 = fp2Mul1271(t4, CPHI_2);                         // t5 = cphi2*t4
+        t5 = fp2Add1271(t2, t5);                             // t5 = t2+t5
+        F2Element t6 = fp2Sub1271(t1, t5);                   // t6 = t1-t5
+        t1 = fp2Add1271(t1, t5);                             // t1 = t1+t5
+        t6 = fp2Mul1271(t6, t1);                             // t6 = t1*t6
+        t6 = fp2Mul1271(t6, CPHI_0);                         // t6 = cphi0*t6
+        F2Element x = fp2Mul1271(p.getX(), t6);              // X = X1*t6
+        t6 = fp2Sqr1271(t2);                                 // t6 = t2^2
+        t2 = fp2Sqr1271(t3);                                 // t2 = t3^2
+        t3 = fp2Sqr1271(t4);                                 // t3 = t4^2
+        t1 = fp2Mul1271(t2, CPHI_8);                         // t1 = cphi8*t2
+        t5 = fp2Mul1271(t3, CPHI_9);                         // t5 = cphi9*t3
+        t1 = fp2Add1271(t1, t6);                             // t1 = t1+t6
+        t2 = fp2Mul1271(t2, CPHI_6);                         // t2 = cphi6*t2
+        t3 = fp2Mul1271(t3, CPHI_7);                         // t3 = cphi7*t3
+        t1 = fp2Add1271(t1, t5);                             // t1 = t1+t5
+        t2 = fp2Add1271(t2, t3);                             // t2 = t2+t3
+        t1 = fp2Mul1271(t1, p.getY());                       // t1 = Y1*t1
+        F2Element y = fp2Add1271(t6, t2);                    // Y = t6+t2
+        x = fp2Mul1271(x, t1);                               // X = X*t1
+        y = fp2Mul1271(y, CPHI_5);                           // Y = cphi5*Y
+        y = fp2Mul1271(y, p.getZ());                         // Y = Y*Z1
+        final F2Element z = fp2Mul1271(t0, t1);              // Z = t0*t1
+        y = fp2Mul1271(y, t0);                               // Y = Y*t0
+        return new ExtendedPoint(
+                conjugate(x),                                // Xfinal = X^p
+                conjugate(y),                                // Yfinal = Y^p
+                conjugate(z),                                // Zfinal = Z^p
+                F2Element.ZERO.dup(),
+                F2Element.ZERO.dup()
+        );
+    }
+
+    // delta(psi_W(delta_inv(P))) on E1
+    private static ExtendedPoint delPsiDel(ExtendedPoint p) {
+        F2Element x = conjugate(p.getX());                   // X = X1^p
+        final F2Element y = conjugate(p.getY());             // Y = Y1^p
+        F2Element z = conjugate(p.getZ());                   // Z = Z1^p
+        F2Element t2 = fp2Sqr1271(z);                        // t2 = Z1^p^2
+        final F2Element t0 = fp2Sqr1271(x);                  // t0 = X1^p^2
+        x = fp2Mul1271(x, t2);                               // X = X1^p*Z1^p^2
+        z = fp2Mul1271(t2, CPSI_2);                          // Z = cpsi2*Z1^p^2
+        F2Element t1 = fp2Mul1271(t2, CPSI_3);               // t1 = cpsi3*Z1^p^2
+        t2 = fp2Mul1271(t2, CPSI_4);                         // t2 = cpsi4*Z1^p^2
+        z = fp2Add1271(t0, z);                               // Z = X1^p^2 + cpsi2*Z1^p^2
+        t2 = fp2Add1271(t0, t2);                             // t2 = X1^p^2 + cpsi4*Z1^p^2
+        t1 = fp2Add1271(t0, t1);                             // t1 = X1^p^2 + cpsi3*Z1^p^2
+        t2 = fp2Neg1271(t2);                                 // t2 = -(X1^p^2 + cpsi4*Z1^p^2)
+        z = fp2Mul1271(z, y);                                // Z = Y1^p*(X1^p^2 + cpsi2*Z1^p^2)
+        x = fp2Mul1271(x, t2);                               // X = -X1^p*Z1^p^2*(X1^p^2 + cpsi4*Z1^p^2)
+        return new ExtendedPoint(
+                fp2Mul1271(x, CPSI_1),                       // Xfinal = cpsi1*X
+                fp2Mul1271(t1, z),                           // Yfinal = t1*Z
+                fp2Mul1271(z, t2),                           // Zfinal = Z*t2
+                F2Element.ZERO.dup(),
+                F2Element.ZERO.dup()
+        );
+    }
+
+    // Frobenius map a^p, which in GF(p^2) negates the imaginary part
+    private static F2Element conjugate(F2Element a) {
+        return new F2Element(a.real, FP.PUtil.fpNeg1271(a.im));
+    }
+}
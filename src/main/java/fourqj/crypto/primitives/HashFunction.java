@@ -1,12 +1,15 @@
 package fourqj.crypto.primitives;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import fourqj.constants.Key;
 import fourqj.exceptions.EncryptionException;
 import fourqj.utils.BigIntegerUtils;
 import fourqj.utils.ByteArrayUtils;
+import fourqj.utils.LittleEndianCodec;
 
 import static fourqj.utils.ByteArrayReverseMode.REMOVE_LEADING_ZERO;
 
@@ -73,4 +76,172 @@ public interface HashFunction {
      * @throws IllegalArgumentException if bytes is null
      */
     byte[] computeHash(byte[] bytes, boolean reverse) throws EncryptionException;
+
+    /**
+     * Computes the hash of a range of an array straight into a caller buffer, without
+     * allocating the input copy or the digest array.
+     * <p>
+     * Unlike {@link #computeHash(byte[], boolean)}, a reversed digest is always written in
+     * full, {@link #HASH_OUTPUT_SIZE} bytes with any leading zero kept. The default
+     * implementation runs the calling thread's {@link #hasher()} and reverses its output in place.
+     *
+     * @param input the array holding the bytes to hash
+     * @param offset position of the first byte to hash
+     * @param length the number of bytes to hash
+     * @param out array receiving the {@link #HASH_OUTPUT_SIZE}-byte digest
+     * @param outOffset position at which the digest is written
+     * @param reverse if true, the digest is written in reverse byte order
+     * @throws EncryptionException if the hash computation fails
+     * @throws IndexOutOfBoundsException if a range lies outside its array
+     */
+    default void computeHash(byte[] input, int offset, int length, byte[] out, int outOffset, boolean reverse)
+            throws EncryptionException {
+        hasher().update(input, offset, length).doFinal(out, outOffset);
+        if (reverse) {
+            for (int i = outOffset, j = outOffset + HASH_OUTPUT_SIZE - 1; i < j; i++, j--) {
+                final byte b = out[i];
+                out[i] = out[j];
+                out[j] = b;
+            }
+        }
+    }
+
+    /**
+     * Computes the hashes of many inputs, writing the digest of inputs[i] to the start of outputs[i].
+     * <p>
+     * The hash of a short input is dominated by per-call overhead, which implementations can
+     * amortize over the batch. The default implementation calls
+     * {@link #computeHash(byte[], int, int, byte[], int, boolean)} for each input.
+     *
+     * @param inputs the byte arrays to hash
+     * @param outputs arrays of at least {@link #HASH_OUTPUT_SIZE} bytes receiving the digests
+     * @throws EncryptionException if the hash computation fails
+     * @throws IllegalArgumentException if inputs and outputs differ in length
+     */
+    default void computeHashes(byte[][] inputs, byte[][] outputs) throws EncryptionException {
+        if (inputs.length != outputs.length) throw new IllegalArgumentException("Inputs and outputs must have the same length.");
+        for (int i = 0; i < inputs.length; i++) computeHash(inputs[i], 0, inputs[i].length, outputs[i], 0, false);
+    }
+
+    /**
+     * Returns the length of the longest input that {@link #computeHashes} hashes faster than one
+     * at a time. Callers that would have to copy their data into contiguous arrays to batch it
+     * only pay for the copy up to this length, and stream longer inputs through {@link #hasher()}.
+     * The default is 0, for implementations that gain nothing from batching.
+     *
+     * @return the input length limit in bytes, or 0 if batching never helps
+     */
+    default int batchInputLimit() {
+        return 0;
+    }
+
+    /**
+     * Hashes the input and reads the first 32 bytes of the digest as a little-endian integer,
+     * which is how fourqj.api.SchnorrQ derives scalars from hash outputs.
+     *
+     * @param bytes the byte array to hash; must not be null
+     * @return the scalar, not yet reduced modulo the curve order
+     * @throws EncryptionException if the hash computation fails
+     */
+    default BigInteger computeScalar(byte[] bytes) throws EncryptionException {
+        return computeScalar(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Hashes a range of an array into a scalar, see {@link #computeScalar(byte[])}.
+     *
+     * @param bytes the array holding the bytes to hash
+     * @param offset position of the first byte to hash
+     * @param length the number of bytes to hash
+     * @return the scalar, not yet reduced modulo the curve order
+     * @throws EncryptionException if the hash computation fails
+     */
+    default BigInteger computeScalar(byte[] bytes, int offset, int length) throws EncryptionException {
+        final byte[] digest = new byte[HASH_OUTPUT_SIZE];
+        computeHash(bytes, offset, length, digest, 0, false);
+        return LittleEndianCodec.readScalar(digest, 0);
+    }
+
+    /**
+     * Returns a hasher for computing a digest incrementally, reset and ready for input.
+     * <p>
+     * Implementations may hand out the same instance to every call made on a given thread,
+     * so a computation must be finished with {@link Hasher#doFinal} before the next one is
+     * started on that thread, including through {@link #computeHash}. The default
+     * implementation buffers its input and hashes it with {@link #computeHash(byte[], boolean)}.
+     *
+     * @return a hasher with no input absorbed
+     * @throws EncryptionException if the underlying digest is not available
+     */
+    default Hasher hasher() throws EncryptionException {
+        return new BufferingHasher(this);
+    }
+
+    /**
+     * Returns a new hasher that is not shared with any other call, for computations that have
+     * to run alongside the one returned by {@link #hasher()} on the same thread.
+     *
+     * @return a hasher with no input absorbed
+     * @throws EncryptionException if the underlying digest is not available
+     */
+    default Hasher newHasher() throws EncryptionException {
+        return new BufferingHasher(this);
+    }
+
+    /**
+     * An incremental hash computation, see {@link #hasher()}.
+     * <p>
+     * Input is absorbed by chained calls to {@code update}; {@code doFinal} writes the
+     * {@link #HASH_OUTPUT_SIZE}-byte digest and resets the hasher so it can be reused.
+     */
+    interface Hasher {
+        Hasher update(byte[] input, int offset, int length);
+
+        /** Absorbs the remaining bytes of input, advancing its position to its limit. */
+        Hasher update(ByteBuffer input);
+
+        default Hasher update(byte[] input) {
+            return update(input, 0, input.length);
+        }
+
+        /** Writes the digest into out at offset and resets this hasher. */
+        void doFinal(byte[] out, int offset) throws EncryptionException;
+
+        default byte[] doFinal() throws EncryptionException {
+            final byte[] out = new byte[HASH_OUTPUT_SIZE];
+            doFinal(out, 0);
+            return out;
+        }
+    }
+
+    // Fallback for implementations that only provide computeHash
+    final class BufferingHasher implements Hasher {
+        private final HashFunction hashFunction;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private BufferingHasher(HashFunction hashFunction) {
+            this.hashFunction = hashFunction;
+        }
+
+        @Override
+        public Hasher update(byte[] input, int offset, int length) {
+            buffer.write(input, offset, length);
+            return this;
+        }
+
+        @Override
+        public Hasher update(ByteBuffer input) {
+            final byte[] bytes = new byte[input.remaining()];
+            input.get(bytes);
+            buffer.writeBytes(bytes);
+            return this;
+        }
+
+        @Override
+        public void doFinal(byte[] out, int offset) throws EncryptionException {
+            final byte[] digest = hashFunction.computeHash(buffer.toByteArray(), false);
+            buffer.reset();
+            System.arraycopy(digest, 0, out, offset, HASH_OUTPUT_SIZE);
+        }
+    }
 }
@@ -1,6 +1,11 @@
 package fourqj.crypto.primitives;
 
-import org.bouncycastle.crypto.digests.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import fourqj.utils.ConcurrencyUtils;
 
 /**
  * Kangaroo-12 hash function implementation for FourQ operations.
@@ -12,19 +17,258 @@ import org.bouncycastle.crypto.digests.*;
  * <p>
  * The hash functions are used in key generation, nonce derivation, and 
  * challenge computation in signatures as an alternative to SHA-512.
+ * <p>
+ * KangarooTwelve is a tree hash: beyond the first 8 KiB, the input is cut into 8 KiB leaves
+ * whose 32-byte chaining values are independent of each other. Runs of whole leaves handed
+ * to the hasher at once are hashed in parallel on the common {@link ForkJoinPool}, and their
+ * chaining values absorbed into the final node in order, so the digest is identical to a
+ * serial computation (RFC 9861, with an empty customization string).
  * 
  * @author Naman Malhotra, James Hughff
  * @since 1.0.0
  */
 public class Kangaroo12 implements HashFunction {
     final private static int offset = 0;
+    final private static int LEAF_SIZE = 8192;
+    final private static int CHAINING_VALUE_SIZE = 32;
+    // Leaves per parallel task, about 64 KiB of input, so forking costs little next to hashing
+    final private static int LEAVES_PER_TASK = 8;
+    // Direct buffers are absorbed through a scratch array of this size, enough leaves to parallelize
+    final private static int CHUNK_SIZE = 64 * LEAF_SIZE;
+    final private static byte SINGLE_NODE_DOMAIN = 0x07;
+    final private static byte FINAL_NODE_DOMAIN = 0x06;
+    final private static byte LEAF_DOMAIN = 0x0B;
+    // Appended to the first leaf in the final node once the input spans several leaves
+    final private static byte[] FINAL_NODE_MARKER = { 0x03, 0, 0, 0, 0, 0, 0, 0 };
+    final private static byte[] NO_CUSTOMIZATION = {};
+    final private static byte[] EMPTY_LENGTH = { 0 };
+
+    private static final ThreadLocal<KangarooHasher> HASHERS = ThreadLocal.withInitial(KangarooHasher::new);
 
     @Override
     public byte[] computeHash(byte[] bytes, boolean reverse) {
-        byte[] result = new byte[HASH_OUTPUT_SIZE];
-        Kangaroo.KangarooTwelve digest = new Kangaroo.KangarooTwelve();
-        digest.update(bytes, offset, bytes.length);
-        digest.doFinal(result, offset, HASH_OUTPUT_SIZE);
-        return digestOrReverseDigest(reverse, result);
+        return digestOrReverseDigest(reverse, hasher().update(bytes).doFinal());
+    }
+
+    /**
+     * Hashes the range with the calling thread's reusable state and squeezes the digest
+     * straight into out, already reversed if requested.
+     */
+    @Override
+    public void computeHash(byte[] input, int inputOffset, int length, byte[] out, int outOffset, boolean reverse) {
+        final KangarooHasher hasher = HASHERS.get();
+        hasher.reset();
+        hasher.update(input, inputOffset, length);
+        hasher.finish(NO_CUSTOMIZATION, out, outOffset, HASH_OUTPUT_SIZE, reverse);
+    }
+
+    /**
+     * Computes Kangaroo-12 as an extendable-output function: writes the first length bytes of
+     * K12(input, customization) into out. Outputs of different lengths for the same input and
+     * customization string are prefixes of each other.
+     *
+     * @param input the bytes to hash
+     * @param customization the customization string, separating unrelated uses of the function
+     * @param out array receiving the output
+     * @param outOffset position at which the output is written
+     * @param length the number of output bytes
+     * @throws IndexOutOfBoundsException if the output range lies outside out
+     */
+    public void computeXof(byte[] input, byte[] customization, byte[] out, int outOffset, int length) {
+        final KangarooHasher hasher = HASHERS.get();
+        hasher.reset();
+        hasher.update(input, offset, input.length);
+        hasher.finish(customization, out, outOffset, length, false);
+    }
+
+    /**
+     * Computes the hashes of many inputs. When the jdk.incubator.vector module is present, inputs
+     * shorter than one leaf are sorted by length and hashed several at a time in vector lanes,
+     * see {@link Kangaroo12Lanes}; the others go through the calling thread's reusable state.
+     */
+    @Override
+    public void computeHashes(byte[][] inputs, byte[][] outputs) {
+        if (inputs.length != outputs.length) throw new IllegalArgumentException("Inputs and outputs must have the same length.");
+        if (!Kangaroo12Lanes.available() || inputs.length < 2) {
+            for (int i = 0; i < inputs.length; i++) computeHash(inputs[i], offset, inputs[i].length, outputs[i], offset, false);
+            return;
+        }
+        // Short inputs are sorted by length, packed above their index, so a group's lanes need similar numbers of blocks
+        final long[] keys = new long[inputs.length];
+        int shortCount = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i].length <= Kangaroo12Lanes.MAX_MESSAGE_SIZE) {
+                keys[shortCount++] = (long) inputs[i].length << Integer.SIZE | i;
+            } else {
+                computeHash(inputs[i], offset, inputs[i].length, outputs[i], offset, false);
+            }
+        }
+        Arrays.sort(keys, 0, shortCount);
+        final int[] order = new int[shortCount];
+        for (int i = 0; i < shortCount; i++) order[i] = (int) keys[i];
+
+        final Kangaroo12Lanes lanes = new Kangaroo12Lanes();
+        for (int from = 0; from < shortCount; from += lanes.width()) {
+            lanes.hash(inputs, order, from, Math.min(lanes.width(), shortCount - from), outputs);
+        }
+    }
+
+    /**
+     * Inputs shorter than one leaf are batched when the vector lanes are available, see
+     * {@link #computeHashes}; without them batching gains nothing and the limit is 0.
+     */
+    @Override
+    public int batchInputLimit() {
+        return Kangaroo12Lanes.available() ? Kangaroo12Lanes.MAX_MESSAGE_SIZE : 0;
+    }
+
+    /**
+     * Returns the calling thread's Kangaroo-12 hasher, reset and ready for input.
+     *
+     * @return the hasher
+     */
+    @Override
+    public Hasher hasher() {
+        final KangarooHasher hasher = HASHERS.get();
+        hasher.reset();
+        return hasher;
+    }
+
+    @Override
+    public Hasher newHasher() {
+        return new KangarooHasher();
+    }
+
+    private static final class KangarooHasher implements Hasher {
+        // Absorbs the first leaf, then the chaining values of the others
+        private final TurboShake128 finalNode = new TurboShake128();
+        private final TurboShake128 leafNode = new TurboShake128();
+        private final byte[] chainingValue = new byte[CHAINING_VALUE_SIZE];
+        private byte[] chainingValues;
+        private byte[] chunk;
+        // Input absorbed so far, and the part of it in the current leaf after the first
+        private long length;
+        private int leafLength;
+        private long leafCount;
+        // Set once anything touches the states, including a call that fails partway, and cleared by reset
+        private boolean dirty;
+
+        @Override
+        public Hasher update(byte[] input, int inputOffset, int inputLength) {
+            Objects.checkFromIndexSize(inputOffset, inputLength, input.length);
+            if (inputLength > 0) dirty = true;
+            while (inputLength > 0) {
+                final int take;
+                if (length < LEAF_SIZE) {
+                    take = (int) Math.min(inputLength, LEAF_SIZE - length);
+                    finalNode.absorb(input, inputOffset, take);
+                } else {
+                    if (length == LEAF_SIZE) finalNode.absorb(FINAL_NODE_MARKER, offset, FINAL_NODE_MARKER.length);
+                    if (leafLength == 0 && inputLength >= LEAF_SIZE) {
+                        take = hashLeaves(input, inputOffset, inputLength / LEAF_SIZE);
+                    } else {
+                        take = Math.min(inputLength, LEAF_SIZE - leafLength);
+                        leafNode.absorb(input, inputOffset, take);
+                        leafLength += take;
+                        if (leafLength == LEAF_SIZE) finishLeaf();
+                    }
+                }
+                length += take;
+                inputOffset += take;
+                inputLength -= take;
+            }
+            return this;
+        }
+
+        @Override
+        public Hasher update(ByteBuffer input) {
+            if (input.hasArray()) {
+                update(input.array(), input.arrayOffset() + input.position(), input.remaining());
+                input.position(input.limit());
+                return this;
+            }
+            if (chunk == null) chunk = new byte[CHUNK_SIZE];
+            while (input.hasRemaining()) {
+                final int chunkLength = Math.min(CHUNK_SIZE, input.remaining());
+                input.get(chunk, offset, chunkLength);
+                update(chunk, offset, chunkLength);
+            }
+            return this;
+        }
+
+        @Override
+        public void doFinal(byte[] out, int outOffset) {
+            finish(NO_CUSTOMIZATION, out, outOffset, HASH_OUTPUT_SIZE, false);
+        }
+
+        private void finish(byte[] customization, byte[] out, int outOffset, int outLength, boolean reverse) {
+            Objects.checkFromIndexSize(outOffset, outLength, out.length);
+            update(customization, offset, customization.length);
+            updateLengthEncoded(customization.length);
+            if (length <= LEAF_SIZE) {
+                finalNode.finish(SINGLE_NODE_DOMAIN);
+            } else {
+                if (leafLength > 0) finishLeaf();
+                final byte[] encodedCount = lengthEncoded(leafCount);
+                finalNode.absorb(encodedCount, offset, encodedCount.length);
+                finalNode.absorb((byte) 0xFF);
+                finalNode.absorb((byte) 0xFF);
+                finalNode.finish(FINAL_NODE_DOMAIN);
+            }
+            finalNode.squeeze(out, outOffset, outLength, reverse);
+            reset();
+        }
+
+        // Only a hasher that absorbed something since the last reset has state to clear
+        private void reset() {
+            if (!dirty) return;
+            finalNode.reset();
+            leafNode.reset();
+            length = 0;
+            leafLength = 0;
+            leafCount = 0;
+            dirty = false;
+        }
+
+        private void finishLeaf() {
+            leafNode.finish(LEAF_DOMAIN);
+            leafNode.squeeze(chainingValue, offset, CHAINING_VALUE_SIZE);
+            leafNode.reset();
+            finalNode.absorb(chainingValue, offset, CHAINING_VALUE_SIZE);
+            leafLength = 0;
+            leafCount++;
+        }
+
+        // Hashes whole leaves straight from the input, in parallel, and returns the bytes consumed
+        private int hashLeaves(byte[] input, int inputOffset, int count) {
+            if (chainingValues == null || chainingValues.length < count * CHAINING_VALUE_SIZE) {
+                chainingValues = new byte[count * CHAINING_VALUE_SIZE];
+            }
+            final byte[] values = chainingValues;
+            ConcurrencyUtils.parallelFor(count, ForkJoinPool.commonPool(), LEAVES_PER_TASK, i -> {
+                final TurboShake128 leaf = new TurboShake128();
+                leaf.absorb(input, inputOffset + i * LEAF_SIZE, LEAF_SIZE);
+                leaf.finish(LEAF_DOMAIN);
+                leaf.squeeze(values, i * CHAINING_VALUE_SIZE, CHAINING_VALUE_SIZE);
+            });
+            finalNode.absorb(values, offset, count * CHAINING_VALUE_SIZE);
+            leafCount += count;
+            return count * LEAF_SIZE;
+        }
+
+        // The empty customization string, the common case, is encoded without allocating
+        private void updateLengthEncoded(int value) {
+            final byte[] encoded = value == 0 ? EMPTY_LENGTH : lengthEncoded(value);
+            update(encoded, offset, encoded.length);
+        }
+    }
+
+    // length_encode of RFC 9861: big-endian bytes without leading zeros, then their count
+    private static byte[] lengthEncoded(long value) {
+        final int bytes = (Long.SIZE - Long.numberOfLeadingZeros(value) + Byte.SIZE - 1) / Byte.SIZE;
+        final byte[] encoded = new byte[bytes + 1];
+        for (int i = 0; i < bytes; i++) encoded[i] = (byte) (value >>> (Byte.SIZE * (bytes - 1 - i)));
+        encoded[bytes] = (byte) bytes;
+        return encoded;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package fourqj.crypto.primitives;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+
+/**
+ * Kangaroo-12 of several short messages at once, for {@link Kangaroo12#computeHashes}.
+ * <p>
+ * A message shorter than one 8 KiB leaf is a single TurboSHAKE128 node. Up to
+ * {@link #width()} such messages are absorbed block by block into interleaved states, which
+ * are permuted together by a {@link LanePermutation}; a message's digest is squeezed right
+ * after the permutation of its last block. Messages of similar length should be grouped, as
+ * the group costs as many permutations as its longest message.
+ * <p>
+ * The only permutation is {@link VectorLanePermutation}, loaded when the application runs with
+ * the jdk.incubator.vector module. Interleaving scalar states gains nothing on the JVM, so
+ * without the module {@link #available()} is false and callers hash one message at a time.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+final class Kangaroo12Lanes {
+    static final int MAX_MESSAGE_SIZE = 8191;
+    private static final int RATE = TurboShake128.RATE;
+    private static final int RATE_LANES = RATE / Long.BYTES;
+    private static final int LANES = 25;
+    private static final byte SINGLE_NODE_DOMAIN = 0x07;
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final LanePermutation PERMUTATION = loadPermutation();
+
+    private final int width = PERMUTATION.width();
+    private final long[] states = new long[LANES * width];
+    private final byte[] block = new byte[RATE];
+
+    /** @return true if messages can be hashed in lanes on this runtime */
+    static boolean available() {
+        return PERMUTATION != null;
+    }
+
+    /** @return the number of messages hashed at once */
+    int width() {
+        return width;
+    }
+
+    /**
+     * Hashes inputs[order[from]] to inputs[order[from + count - 1]], each at most
+     * {@link #MAX_MESSAGE_SIZE} bytes, into the start of the matching outputs.
+     */
+    void hash(byte[][] inputs, int[] order, int from, int count, byte[][] outputs) {
+        Arrays.fill(states, 0L);
+        int blocks = 0;
+        for (int j = 0; j < count; j++) blocks = Math.max(blocks, blockCount(inputs[order[from + j]].length));
+
+        for (int k = 0; k < blocks; k++) {
+            for (int j = 0; j < count; j++) {
+                final byte[] input = inputs[order[from + j]];
+                if (k < blockCount(input.length)) absorbBlock(j, input, k);
+            }
+            PERMUTATION.permute(states);
+            for (int j = 0; j < count; j++) {
+                final int index = order[from + j];
+                if (k == blockCount(inputs[index].length) - 1) squeeze(j, outputs[index]);
+            }
+        }
+    }
+
+    // The node is the message followed by the zero byte encoding the empty customization string, then padded
+    private static int blockCount(int length) {
+        return (length + 1) / RATE + 1;
+    }
+
+    private void absorbBlock(int lane, byte[] input, int k) {
+        final int start = k * RATE;
+        final int available = Math.min(RATE, input.length - start);
+        final byte[] source;
+        final int offset;
+        if (available == RATE) {
+            source = input;
+            offset = start;
+        } else {
+            Arrays.fill(block, (byte) 0);
+            if (available > 0) System.arraycopy(input, start, block, 0, available);
+            if (k == blockCount(input.length) - 1) {
+                block[input.length + 1 - start] ^= SINGLE_NODE_DOMAIN;
+                block[RATE - 1] ^= (byte) 0x80;
+            }
+            source = block;
+            offset = 0;
+        }
+        for (int i = 0; i < RATE_LANES; i++) states[i * width + lane] ^= (long) LONG_LE.get(source, offset + i * Long.BYTES);
+    }
+
+    private void squeeze(int lane, byte[] out) {
+        for (int i = 0; i < HashFunction.HASH_OUTPUT_SIZE / Long.BYTES; i++) {
+            LONG_LE.set(out, i * Long.BYTES, states[i * width + lane]);
+        }
+    }
+
+    // Loads the vector permutation only if its module is present, as it cannot be linked otherwise
+    private static LanePermutation loadPermutation() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            final LanePermutation permutation = (LanePermutation) Class
+                    .forName(Kangaroo12Lanes.class.getPackageName() + ".VectorLanePermutation")
+                    .getDeclaredConstructor()
+                    .newInstance();
+            return permutation.width() > 1 ? permutation : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package fourqj.crypto.primitives;
+
+
+/**
+ * Keccak-p[1600,12] applied to several independent states in lockstep.
+ * <p>
+ * The states are stored lane-major: lane i of state j is at index i * width() + j, so each
+ * lane of all the states is contiguous and can be loaded as one vector.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+interface LanePermutation {
+    /** @return the number of states permuted at once */
+    int width();
+
+    /** Permutes all width() states held in the 25 * width() longs. */
+    void permute(long[] states);
+}
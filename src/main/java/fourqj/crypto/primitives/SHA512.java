@@ -1,11 +1,12 @@
 package fourqj.crypto.primitives;
 
+import java.nio.ByteBuffer;
+import java.security.DigestException;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import fourqj.exceptions.EncryptionException;
 
-import static fourqj.utils.ExceptionUtils.tryOrThrow;
-
 
 /**
  * Cryptographic hash function utilities for FourQ operations.
@@ -22,6 +23,9 @@ public class SHA512 implements HashFunction {
 
     final private static String ENCRYPTION_STANDARD = "SHA-512";
 
+    // MessageDigest instances are not thread-safe, so each thread reuses its own
+    private static final ThreadLocal<DigestHasher> HASHERS = ThreadLocal.withInitial(() -> new DigestHasher(newDigest()));
+
     /**
      * Computes SHA-512 hash of byte array input with optional byte reversal.
      * <p>
@@ -36,10 +40,66 @@ public class SHA512 implements HashFunction {
      */
     @Override
     public byte[] computeHash(byte[] bytes, boolean reverse) throws EncryptionException {
-        return tryOrThrow(() -> {
-                MessageDigest digest = MessageDigest.getInstance(ENCRYPTION_STANDARD);
-                return digestOrReverseDigest(reverse, digest.digest(bytes));
-            }, new EncryptionException(String.format("No such encryption algorithm: %s", ENCRYPTION_STANDARD))
-        );
+        return digestOrReverseDigest(reverse, hasher().update(bytes).doFinal());
+    }
+
+    /**
+     * Computes the hashes of many inputs with one reused digest, written straight into the outputs.
+     */
+    @Override
+    public void computeHashes(byte[][] inputs, byte[][] outputs) throws EncryptionException {
+        if (inputs.length != outputs.length) throw new IllegalArgumentException("Inputs and outputs must have the same length.");
+        final Hasher hasher = hasher();
+        for (int i = 0; i < inputs.length; i++) hasher.update(inputs[i]).doFinal(outputs[i], 0);
+    }
+
+    /**
+     * Returns the calling thread's SHA-512 hasher, reset and ready for input.
+     *
+     * @return the hasher
+     * @throws EncryptionException if the hash algorithm is not available
+     */
+    @Override
+    public Hasher hasher() throws EncryptionException {
+        final DigestHasher hasher = HASHERS.get();
+        hasher.digest.reset();
+        return hasher;
+    }
+
+    @Override
+    public Hasher newHasher() throws EncryptionException {
+        return new DigestHasher(newDigest());
+    }
+
+    // The exception is only built if the algorithm is actually missing
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ENCRYPTION_STANDARD);
+        } catch (NoSuchAlgorithmException e) {
+            throw new EncryptionException(String.format("No such encryption algorithm: %s", ENCRYPTION_STANDARD));
+        }
+    }
+
+    private record DigestHasher(MessageDigest digest) implements Hasher {
+        @Override
+        public Hasher update(byte[] input, int offset, int length) {
+            digest.update(input, offset, length);
+            return this;
+        }
+
+        @Override
+        public Hasher update(ByteBuffer input) {
+            digest.update(input);
+            return this;
+        }
+
+        @Override
+        public void doFinal(byte[] out, int offset) throws EncryptionException {
+            try {
+                digest.digest(out, offset, HASH_OUTPUT_SIZE);
+            } catch (DigestException e) {
+                throw new EncryptionException("Output buffer is too small for the SHA-512 digest.");
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,231 @@
+package fourqj.crypto.primitives;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+
+/**
+ * The TurboSHAKE128 sponge, the building block of KangarooTwelve.
+ * <p>
+ * TurboSHAKE128 is SHAKE128 with the Keccak-p[1600] permutation reduced to its last 12
+ * rounds. The 1600-bit state is held as 25 little-endian lanes; input is XORed into the
+ * first {@link #RATE} bytes and the permutation runs whenever that part is full. The
+ * permutation keeps the whole state in local variables for the duration of the 12 rounds.
+ * <p>
+ * An instance is reused across computations through {@link #reset()}, and squeezes its output
+ * lane by lane straight into the caller's array, in either byte order.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+final class TurboShake128 {
+    static final int RATE = 168;
+    private static final int LANES = 25;
+    private static final int RATE_LANES = RATE / Long.BYTES;
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    // Round constants of the rounds 12 to 23 of Keccak-f[1600]
+    private static final long[] ROUND_CONSTANTS = {
+            0x000000008000808BL, 0x800000000000008BL, 0x8000000000008089L, 0x8000000000008003L,
+            0x8000000000008002L, 0x8000000000000080L, 0x000000000000800AL, 0x800000008000000AL,
+            0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+
+    private final long[] state = new long[LANES];
+    private int position;
+
+    void absorb(byte[] input, int offset, int length) {
+        while (length > 0) {
+            if (position == 0 && length >= RATE) {
+                for (int i = 0; i < RATE_LANES; i++) {
+                    state[i] ^= (long) LONG_LE.get(input, offset + i * Long.BYTES);
+                }
+                permute(state);
+                offset += RATE;
+                length -= RATE;
+                continue;
+            }
+            final int take = Math.min(length, RATE - position);
+            for (int i = 0; i < take; i++) xorByte(position + i, input[offset + i]);
+            position += take;
+            offset += take;
+            length -= take;
+            if (position == RATE) {
+                permute(state);
+                position = 0;
+            }
+        }
+    }
+
+    void absorb(byte input) {
+        xorByte(position++, input);
+        if (position == RATE) {
+            permute(state);
+            position = 0;
+        }
+    }
+
+    /** Pads the input with the domain separation byte, ready for {@link #squeeze}. */
+    void finish(byte domain) {
+        xorByte(position, domain);
+        xorByte(RATE - 1, (byte) 0x80);
+        permute(state);
+        position = 0;
+    }
+
+    void squeeze(byte[] out, int offset, int length) {
+        squeeze(out, offset, length, false);
+    }
+
+    /** Squeezes length bytes into out, writing them in reverse order if reverse is set. */
+    void squeeze(byte[] out, int offset, int length, boolean reverse) {
+        for (int i = 0; i < length; ) {
+            if (position == RATE) {
+                permute(state);
+                position = 0;
+            }
+            if ((position & 7) == 0 && length - i >= Long.BYTES) {
+                final long lane = state[position >>> 3];
+                if (reverse) LONG_BE.set(out, offset + length - Long.BYTES - i, lane);
+                else LONG_LE.set(out, offset + i, lane);
+                position += Long.BYTES;
+                i += Long.BYTES;
+            } else {
+                final byte value = (byte) (state[position >>> 3] >>> ((position & 7) << 3));
+                out[reverse ? offset + length - 1 - i : offset + i] = value;
+                position++;
+                i++;
+            }
+        }
+    }
+
+    void reset() {
+        Arrays.fill(state, 0L);
+        position = 0;
+    }
+
+    private void xorByte(int index, byte value) {
+        state[index >>> 3] ^= (value & 0xFFL) << ((index & 7) << 3);
+    }
+
+    static void permute(long[] state) {
+        long a00 = state[0];
+        long a01 = state[1];
+        long a02 = state[2];
+        long a03 = state[3];
+        long a04 = state[4];
+        long a10 = state[5];
+        long a11 = state[6];
+        long a12 = state[7];
+        long a13 = state[8];
+        long a14 = state[9];
+        long a20 = state[10];
+        long a21 = state[11];
+        long a22 = state[12];
+        long a23 = state[13];
+        long a24 = state[14];
+        long a30 = state[15];
+        long a31 = state[16];
+        long a32 = state[17];
+        long a33 = state[18];
+        long a34 = state[19];
+        long a40 = state[20];
+        long a41 = state[21];
+        long a42 = state[22];
+        long a43 = state[23];
+        long a44 = state[24];
+
+        for (int round = 0; round < ROUND_CONSTANTS.length; round++) {
+            final long c0 = a00 ^ a10 ^ a20 ^ a30 ^ a40;
+            final long c1 = a01 ^ a11 ^ a21 ^ a31 ^ a41;
+            final long c2 = a02 ^ a12 ^ a22 ^ a32 ^ a42;
+            final long c3 = a03 ^ a13 ^ a23 ^ a33 ^ a43;
+            final long c4 = a04 ^ a14 ^ a24 ^ a34 ^ a44;
+            final long d0 = c4 ^ Long.rotateLeft(c1, 1);
+            final long d1 = c0 ^ Long.rotateLeft(c2, 1);
+            final long d2 = c1 ^ Long.rotateLeft(c3, 1);
+            final long d3 = c2 ^ Long.rotateLeft(c4, 1);
+            final long d4 = c3 ^ Long.rotateLeft(c0, 1);
+            final long b00 = (a00 ^ d0);
+            final long b01 = Long.rotateLeft(a11 ^ d1, 44);
+            final long b02 = Long.rotateLeft(a22 ^ d2, 43);
+            final long b03 = Long.rotateLeft(a33 ^ d3, 21);
+            final long b04 = Long.rotateLeft(a44 ^ d4, 14);
+            final long b10 = Long.rotateLeft(a03 ^ d3, 28);
+            final long b11 = Long.rotateLeft(a14 ^ d4, 20);
+            final long b12 = Long.rotateLeft(a20 ^ d0, 3);
+            final long b13 = Long.rotateLeft(a31 ^ d1, 45);
+            final long b14 = Long.rotateLeft(a42 ^ d2, 61);
+            final long b20 = Long.rotateLeft(a01 ^ d1, 1);
+            final long b21 = Long.rotateLeft(a12 ^ d2, 6);
+            final long b22 = Long.rotateLeft(a23 ^ d3, 25);
+            final long b23 = Long.rotateLeft(a34 ^ d4, 8);
+            final long b24 = Long.rotateLeft(a40 ^ d0, 18);
+            final long b30 = Long.rotateLeft(a04 ^ d4, 27);
+            final long b31 = Long.rotateLeft(a10 ^ d0, 36);
+            final long b32 = Long.rotateLeft(a21 ^ d1, 10);
+            final long b33 = Long.rotateLeft(a32 ^ d2, 15);
+            final long b34 = Long.rotateLeft(a43 ^ d3, 56);
+            final long b40 = Long.rotateLeft(a02 ^ d2, 62);
+            final long b41 = Long.rotateLeft(a13 ^ d3, 55);
+            final long b42 = Long.rotateLeft(a24 ^ d4, 39);
+            final long b43 = Long.rotateLeft(a30 ^ d0, 41);
+            final long b44 = Long.rotateLeft(a41 ^ d1, 2);
+            a00 = b00 ^ (~b01 & b02);
+            a01 = b01 ^ (~b02 & b03);
+            a02 = b02 ^ (~b03 & b04);
+            a03 = b03 ^ (~b04 & b00);
+            a04 = b04 ^ (~b00 & b01);
+            a10 = b10 ^ (~b11 & b12);
+            a11 = b11 ^ (~b12 & b13);
+            a12 = b12 ^ (~b13 & b14);
+            a13 = b13 ^ (~b14 & b10);
+            a14 = b14 ^ (~b10 & b11);
+            a20 = b20 ^ (~b21 & b22);
+            a21 = b21 ^ (~b22 & b23);
+            a22 = b22 ^ (~b23 & b24);
+            a23 = b23 ^ (~b24 & b20);
+            a24 = b24 ^ (~b20 & b21);
+            a30 = b30 ^ (~b31 & b32);
+            a31 = b31 ^ (~b32 & b33);
+            a32 = b32 ^ (~b33 & b34);
+            a33 = b33 ^ (~b34 & b30);
+            a34 = b34 ^ (~b30 & b31);
+            a40 = b40 ^ (~b41 & b42);
+            a41 = b41 ^ (~b42 & b43);
+            a42 = b42 ^ (~b43 & b44);
+            a43 = b43 ^ (~b44 & b40);
+            a44 = b44 ^ (~b40 & b41);
+            a00 ^= ROUND_CONSTANTS[round];
+
+        }
+
+        state[0] = a00;
+        state[1] = a01;
+        state[2] = a02;
+        state[3] = a03;
+        state[4] = a04;
+        state[5] = a10;
+        state[6] = a11;
+        state[7] = a12;
+        state[8] = a13;
+        state[9] = a14;
+        state[10] = a20;
+        state[11] = a21;
+        state[12] = a22;
+        state[13] = a23;
+        state[14] = a24;
+        state[15] = a30;
+        state[16] = a31;
+        state[17] = a32;
+        state[18] = a33;
+        state[19] = a34;
+        state[20] = a40;
+        state[21] = a41;
+        state[22] = a42;
+        state[23] = a43;
+        state[24] = a44;
+    }
+}
@@ -0,0 +1,150 @@
+package fourqj.crypto.primitives;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.*;
+
+
+/**
+ * Keccak-p[1600,12] on as many states at once as the preferred vector species has long lanes.
+ * <p>
+ * Each of the 25 state lanes is held in one vector, so every operation of a round applies to
+ * all states in a single instruction. This class uses the incubating Vector API and is only
+ * loaded by {@link Kangaroo12Lanes} when the jdk.incubator.vector module is present.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+final class VectorLanePermutation implements LanePermutation {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final int WIDTH = SPECIES.length();
+    // Round constants of the rounds 12 to 23 of Keccak-f[1600]
+    private static final long[] ROUND_CONSTANTS = {
+            0x000000008000808BL, 0x800000000000008BL, 0x8000000000008089L, 0x8000000000008003L,
+            0x8000000000008002L, 0x8000000000000080L, 0x000000000000800AL, 0x800000008000000AL,
+            0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+
+    @Override
+    public int width() {
+        return WIDTH;
+    }
+
+    @Override
+    public void permute(long[] states) {
+        LongVector a00 = LongVector.fromArray(SPECIES, states, 0 * WIDTH);
+        LongVector a01 = LongVector.fromArray(SPECIES, states, 1 * WIDTH);
+        LongVector a02 = LongVector.fromArray(SPECIES, states, 2 * WIDTH);
+        LongVector a03 = LongVector.fromArray(SPECIES, states, 3 * WIDTH);
+        LongVector a04 = LongVector.fromArray(SPECIES, states, 4 * WIDTH);
+        LongVector a10 = LongVector.fromArray(SPECIES, states, 5 * WIDTH);
+        LongVector a11 = LongVector.fromArray(SPECIES, states, 6 * WIDTH);
+        LongVector a12 = LongVector.fromArray(SPECIES, states, 7 * WIDTH);
+        LongVector a13 = LongVector.fromArray(SPECIES, states, 8 * WIDTH);
+        LongVector a14 = LongVector.fromArray(SPECIES, states, 9 * WIDTH);
+        LongVector a20 = LongVector.fromArray(SPECIES, states, 10 * WIDTH);
+        LongVector a21 = LongVector.fromArray(SPECIES, states, 11 * WIDTH);
+        LongVector a22 = LongVector.fromArray(SPECIES, states, 12 * WIDTH);
+        LongVector a23 = LongVector.fromArray(SPECIES, states, 13 * WIDTH);
+        LongVector a24 = LongVector.fromArray(SPECIES, states, 14 * WIDTH);
+        LongVector a30 = LongVector.fromArray(SPECIES, states, 15 * WIDTH);
+        LongVector a31 = LongVector.fromArray(SPECIES, states, 16 * WIDTH);
+        LongVector a32 = LongVector.fromArray(SPECIES, states, 17 * WIDTH);
+        LongVector a33 = LongVector.fromArray(SPECIES, states, 18 * WIDTH);
+        LongVector a34 = LongVector.fromArray(SPECIES, states, 19 * WIDTH);
+        LongVector a40 = LongVector.fromArray(SPECIES, states, 20 * WIDTH);
+        LongVector a41 = LongVector.fromArray(SPECIES, states, 21 * WIDTH);
+        LongVector a42 = LongVector.fromArray(SPECIES, states, 22 * WIDTH);
+        LongVector a43 = LongVector.fromArray(SPECIES, states, 23 * WIDTH);
+        LongVector a44 = LongVector.fromArray(SPECIES, states, 24 * WIDTH);
+        for (int round = 0; round < ROUND_CONSTANTS.length; round++) {
+            final LongVector c0 = a00.lanewise(XOR, a10).lanewise(XOR, a20).lanewise(XOR, a30).lanewise(XOR, a40);
+            final LongVector c1 = a01.lanewise(XOR, a11).lanewise(XOR, a21).lanewise(XOR, a31).lanewise(XOR, a41);
+            final LongVector c2 = a02.lanewise(XOR, a12).lanewise(XOR, a22).lanewise(XOR, a32).lanewise(XOR, a42);
+            final LongVector c3 = a03.lanewise(XOR, a13).lanewise(XOR, a23).lanewise(XOR, a33).lanewise(XOR, a43);
+            final LongVector c4 = a04.lanewise(XOR, a14).lanewise(XOR, a24).lanewise(XOR, a34).lanewise(XOR, a44);
+            final LongVector d0 = c4.lanewise(XOR, c1.lanewise(ROL, 1));
+            final LongVector d1 = c0.lanewise(XOR, c2.lanewise(ROL, 1));
+            final LongVector d2 = c1.lanewise(XOR, c3.lanewise(ROL, 1));
+            final LongVector d3 = c2.lanewise(XOR, c4.lanewise(ROL, 1));
+            final LongVector d4 = c3.lanewise(XOR, c0.lanewise(ROL, 1));
+            final LongVector b00 = a00.lanewise(XOR, d0);
+            final LongVector b01 = a11.lanewise(XOR, d1).lanewise(ROL, 44);
+            final LongVector b02 = a22.lanewise(XOR, d2).lanewise(ROL, 43);
+            final LongVector b03 = a33.lanewise(XOR, d3).lanewise(ROL, 21);
+            final LongVector b04 = a44.lanewise(XOR, d4).lanewise(ROL, 14);
+            final LongVector b10 = a03.lanewise(XOR, d3).lanewise(ROL, 28);
+            final LongVector b11 = a14.lanewise(XOR, d4).lanewise(ROL, 20);
+            final LongVector b12 = a20.lanewise(XOR, d0).lanewise(ROL, 3);
+            final LongVector b13 = a31.lanewise(XOR, d1).lanewise(ROL, 45);
+            final LongVector b14 = a42.lanewise(XOR, d2).lanewise(ROL, 61);
+            final LongVector b20 = a01.lanewise(XOR, d1).lanewise(ROL, 1);
+            final LongVector b21 = a12.lanewise(XOR, d2).lanewise(ROL, 6);
+            final LongVector b22 = a23.lanewise(XOR, d3).lanewise(ROL, 25);
+            final LongVector b23 = a34.lanewise(XOR, d4).lanewise(ROL, 8);
+            final LongVector b24 = a40.lanewise(XOR, d0).lanewise(ROL, 18);
+            final LongVector b30 = a04.lanewise(XOR, d4).lanewise(ROL, 27);
+            final LongVector b31 = a10.lanewise(XOR, d0).lanewise(ROL, 36);
+            final LongVector b32 = a21.lanewise(XOR, d1).lanewise(ROL, 10);
+            final LongVector b33 = a32.lanewise(XOR, d2).lanewise(ROL, 15);
+            final LongVector b34 = a43.lanewise(XOR, d3).lanewise(ROL, 56);
+            final LongVector b40 = a02.lanewise(XOR, d2).lanewise(ROL, 62);
+            final LongVector b41 = a13.lanewise(XOR, d3).lanewise(ROL, 55);
+            final LongVector b42 = a24.lanewise(XOR, d4).lanewise(ROL, 39);
+            final LongVector b43 = a30.lanewise(XOR, d0).lanewise(ROL, 41);
+            final LongVector b44 = a41.lanewise(XOR, d1).lanewise(ROL, 2);
+            a00 = b00.lanewise(XOR, b01.lanewise(NOT).lanewise(AND, b02));
+            a01 = b01.lanewise(XOR, b02.lanewise(NOT).lanewise(AND, b03));
+            a02 = b02.lanewise(XOR, b03.lanewise(NOT).lanewise(AND, b04));
+            a03 = b03.lanewise(XOR, b04.lanewise(NOT).lanewise(AND, b00));
+            a04 = b04.lanewise(XOR, b00.lanewise(NOT).lanewise(AND, b01));
+            a10 = b10.lanewise(XOR, b11.lanewise(NOT).lanewise(AND, b12));
+            a11 = b11.lanewise(XOR, b12.lanewise(NOT).lanewise(AND, b13));
+            a12 = b12.lanewise(XOR, b13.lanewise(NOT).lanewise(AND, b14));
+            a13 = b13.lanewise(XOR, b14.lanewise(NOT).lanewise(AND, b10));
+            a14 = b14.lanewise(XOR, b10.lanewise(NOT).lanewise(AND, b11));
+            a20 = b20.lanewise(XOR, b21.lanewise(NOT).lanewise(AND, b22));
+            a21 = b21.lanewise(XOR, b22.lanewise(NOT).lanewise(AND, b23));
+            a22 = b22.lanewise(XOR, b23.lanewise(NOT).lanewise(AND, b24));
+            a23 = b23.lanewise(XOR, b24.lanewise(NOT).lanewise(AND, b20));
+            a24 = b24.lanewise(XOR, b20.lanewise(NOT).lanewise(AND, b21));
+            a30 = b30.lanewise(XOR, b31.lanewise(NOT).lanewise(AND, b32));
+            a31 = b31.lanewise(XOR, b32.lanewise(NOT).lanewise(AND, b33));
+            a32 = b32.lanewise(XOR, b33.lanewise(NOT).lanewise(AND, b34));
+            a33 = b33.lanewise(XOR, b34.lanewise(NOT).lanewise(AND, b30));
+            a34 = b34.lanewise(XOR, b30.lanewise(NOT).lanewise(AND, b31));
+            a40 = b40.lanewise(XOR, b41.lanewise(NOT).lanewise(AND, b42));
+            a41 = b41.lanewise(XOR, b42.lanewise(NOT).lanewise(AND, b43));
+            a42 = b42.lanewise(XOR, b43.lanewise(NOT).lanewise(AND, b44));
+            a43 = b43.lanewise(XOR, b44.lanewise(NOT).lanewise(AND, b40));
+            a44 = b44.lanewise(XOR, b40.lanewise(NOT).lanewise(AND, b41));
+            a00 = a00.lanewise(XOR, ROUND_CONSTANTS[round]);
+        }
+        a00.intoArray(states, 0 * WIDTH);
+        a01.intoArray(states, 1 * WIDTH);
+        a02.intoArray(states, 2 * WIDTH);
+        a03.intoArray(states, 3 * WIDTH);
+        a04.intoArray(states, 4 * WIDTH);
+        a10.intoArray(states, 5 * WIDTH);
+        a11.intoArray(states, 6 * WIDTH);
+        a12.intoArray(states, 7 * WIDTH);
+        a13.intoArray(states, 8 * WIDTH);
+        a14.intoArray(states, 9 * WIDTH);
+        a20.intoArray(states, 10 * WIDTH);
+        a21.intoArray(states, 11 * WIDTH);
+        a22.intoArray(states, 12 * WIDTH);
+        a23.intoArray(states, 13 * WIDTH);
+        a24.intoArray(states, 14 * WIDTH);
+        a30.intoArray(states, 15 * WIDTH);
+        a31.intoArray(states, 16 * WIDTH);
+        a32.intoArray(states, 17 * WIDTH);
+        a33.intoArray(states, 18 * WIDTH);
+        a34.intoArray(states, 19 * WIDTH);
+        a40.intoArray(states, 20 * WIDTH);
+        a41.intoArray(states, 21 * WIDTH);
+        a42.intoArray(states, 22 * WIDTH);
+        a43.intoArray(states, 23 * WIDTH);
+        a44.intoArray(states, 24 * WIDTH);
+    }
+}
@@ -4,4 +4,8 @@ public class EncryptionException extends RuntimeException {
     public EncryptionException(String message) {
         super(message);
     }
+
+    public EncryptionException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -15,6 +15,10 @@ public class ValidationErrors {
         return signature.testBit(14) || signature.testBit(15);
    }
 
+    public static boolean isSignatureSizeTooLarge(byte[] signature, int offset) {
+        return signature[offset + Key.SIGNATURE_SIZE - 1] != 0 || (signature[offset + Key.SIGNATURE_SIZE - 2] & 0xC0) != 0;
+    }
+
     public static void publicKeyError() throws InvalidArgumentException {
         throw new InvalidArgumentException(String.format(
                 "Invalid argument: Bit %d is not set to zero in both the public key.",
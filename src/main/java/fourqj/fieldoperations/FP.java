@@ -65,6 +65,20 @@ public class FP {
         return montgomeryMultiplyModOrder(res, BigInteger.ONE);
     }
 
+    /**
+     * Reduces a value of any size or sign modulo the curve order.
+     * <p>
+     * {@link #moduloOrder(BigInteger)} uses a Montgomery reduction that is only valid below 2^256.
+     * Batch and aggregate signatures sum products of 256-bit scalars, which exceed that bound,
+     * and reduce them here instead.
+     *
+     * @param value the value to reduce
+     * @return value mod order, in [0, order)
+     */
+    public static BigInteger reduceModOrder(BigInteger value) {
+        return value.mod(Params.CURVE_ORDER);
+    }
+
     // Subtraction modulo the curve order, c = a+b mod order
     public static BigInteger subtractModOrder(BigInteger a, BigInteger b) {
         return a.subtract(b).mod(Params.CURVE_ORDER);
@@ -176,6 +190,12 @@ public class FP {
             return fpModPow1271(a, exponent);
         }
 
+        // Square root of a quadratic residue, output = a^((p+1)/4) = a^(2^125) mod p
+        static BigInteger fpSqrt1271(BigInteger a) {
+            BigInteger exponent = BigInteger.ONE.shiftLeft(125);
+            return fpModPow1271(a, exponent);
+        }
+
         // Optimized modular exponentiation for 2^127-1
         static BigInteger fpModPow1271(BigInteger base, BigInteger exponent) {
             // Use Java's built-in with Mersenne optimization
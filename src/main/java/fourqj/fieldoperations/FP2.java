@@ -112,21 +112,19 @@ public class FP2 {
      * a^(-1) = (a0 - a1*i) / (a0^2 + a1^2)
      * where the division is performed in the base field GF(p).
      *
-     * @param a the element to invert (must be non-zero)
-     * @return the multiplicative inverse a^(-1)
+     * @param a the element to invert (must be non-zero), left unmodified
+     * @return the multiplicative inverse a^(-1) as a new element
      */
     public static F2Element fp2Inv1271(F2Element a) {
-        F2Element t1 = new F2Element(
-                FP.PUtil.fpSqr1271(a.real),                 // t1.first = a0^2
-                FP.PUtil.fpSqr1271(a.im)                    // t1.second = a1^2
+        BigInteger t1 = FP.PUtil.fpAdd1271(
+                FP.PUtil.fpSqr1271(a.real),                 // a0^2
+                FP.PUtil.fpSqr1271(a.im)                    // a1^2
+        );                                                  // t1 = a0^2+a1^2
+        t1 = FP.PUtil.fpInv1271(t1);                        // t1 = (a0^2+a1^2)^-1
+        return new F2Element(
+                FP.PUtil.fpMul1271(a.real, t1),
+                FP.PUtil.fpMul1271(FP.PUtil.fpNeg1271(a.im), t1)  // (a0-i*a1)*(a0^2+a1^2)^-1
         );
-
-        t1.real = FP.PUtil.fpAdd1271(t1.real, t1.im);       // t1.first = a0^2+a1^2
-        t1.real = FP.PUtil.fpInv1271(t1.real);              // t10 = (a0^2+a1^2)^-1
-        a.im = FP.PUtil.fpNeg1271(a.im);                    // a = a0-i*a1
-        a.real = FP.PUtil.fpMul1271(a.real, t1.real);
-        a.im = FP.PUtil.fpMul1271(a.im, t1.real);           // a = (a0-i*a1)*(a0^2+a1^2)^-1
-        return a;
     }
 
     // GF(p^2) division by two c = a/2 mod p
@@ -5,26 +5,14 @@ import fourqj.types.data.F2Element;
 
 import java.math.BigInteger;
 import java.util.Arrays;
-import java.util.Optional;
 import java.util.function.Function;
 
-import static fourqj.utils.ByteArrayReverseMode.REMOVE_TRAILING_ZERO;
 import static fourqj.utils.ByteArrayUtils.copyByteArrayToByteArray;
 
 public class BigIntegerUtils {
+    // Splits the 32-byte encoding of val into the little-endian real and imaginary halves.
     public static F2Element convertBigIntegerToF2Element(BigInteger val) {
-       final BigInteger[] divModRes = val.divideAndRemainder(Key.POW_128);
-       final int targetLength = Key.KEY_SIZE / 2 + 1;
-
-        final BigInteger real = new BigInteger(1, ByteArrayUtils.reverseByteArray(
-            addLeadingZeros(divModRes[0].toByteArray(), targetLength),
-            Optional.of(REMOVE_TRAILING_ZERO)));
-
-        final BigInteger imag = new BigInteger(1, ByteArrayUtils.reverseByteArray(
-            addLeadingZeros(divModRes[1].toByteArray(), targetLength),
-            Optional.of(REMOVE_TRAILING_ZERO)));
-
-        return new F2Element(real, imag);
+        return LittleEndianCodec.readF2Element(bigIntegerToByte(val, Key.KEY_SIZE, false), 0);
     }
 
     public static byte[] bigIntegerToByte(BigInteger publicKey, int keySize, boolean removePadZeros) {
@@ -46,6 +46,11 @@ public class ByteArrayUtils {
         return out;
     }
 
+    // Tests bit of the big-endian number stored in size bytes from offset, matching BigInteger.testBit().
+    public static boolean testBit(byte[] a, int offset, int size, int bit) {
+        return (a[offset + size - 1 - bit / Byte.SIZE] & (1 << (bit % Byte.SIZE))) != 0;
+    }
+
     // Wraps System.arraycopy() calls.
     public static void copyByteArrayToByteArray(byte[] src, int srcPos, byte[] dest, int destPos, int length) {
         System.arraycopy(src, srcPos, dest, destPos, length);
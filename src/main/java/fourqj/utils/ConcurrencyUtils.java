@@ -0,0 +1,98 @@
+package fourqj.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+
+/**
+ * Utility class for spreading independent per-index work across threads.
+ * <p>
+ * The index range is cut into contiguous chunks. On a {@link ForkJoinPool} the chunks are
+ * forked recursively so idle workers can steal them; on any other executor each chunk is
+ * submitted as a task and the caller waits for all of them. The first exception thrown by
+ * the work is rethrown to the caller once every chunk has finished or failed.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class ConcurrencyUtils {
+    // Chunks per worker: more than one so a worker that finishes early can take over a slower worker's share
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private ConcurrencyUtils() {}
+
+    /**
+     * Runs work for every index in [0, count), in parallel on the given executor.
+     * Ranges of at most minChunk indices are never split further, so cheap operations
+     * can be batched to amortize task overhead.
+     *
+     * @param count the number of indices
+     * @param executor the executor, a {@link ForkJoinPool} for work stealing
+     * @param minChunk the smallest number of indices handed to one task
+     * @param work the work for a single index, safe to call from several threads at once
+     */
+    public static void parallelFor(int count, Executor executor, int minChunk, IntConsumer work) {
+        if (count == 0) return;
+        final int chunk = Math.max(Math.max(1, minChunk), count / (parallelism(executor) * CHUNKS_PER_WORKER));
+        if (count <= chunk) {
+            runRange(0, count, work);
+        } else if (executor instanceof ForkJoinPool pool) {
+            pool.invoke(new RangeAction(0, count, chunk, work));
+        } else {
+            final int tasks = (count + chunk - 1) / chunk;
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks];
+            for (int t = 0; t < tasks; t++) {
+                final int from = t * chunk;
+                final int to = Math.min(count, from + chunk);
+                futures[t] = CompletableFuture.runAsync(() -> runRange(from, to, work), executor);
+            }
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                if (e.getCause() instanceof Error cause) throw cause;
+                throw e;
+            }
+        }
+    }
+
+    private static int parallelism(Executor executor) {
+        return executor instanceof ForkJoinPool pool
+                ? pool.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static void runRange(int from, int to, IntConsumer work) {
+        for (int i = from; i < to; i++) work.accept(i);
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final transient IntConsumer work;
+
+        RangeAction(int from, int to, int chunk, IntConsumer work) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                runRange(from, to, work);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, middle, chunk, work), new RangeAction(middle, to, chunk, work));
+        }
+    }
+}
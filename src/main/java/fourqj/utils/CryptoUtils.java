@@ -8,16 +8,12 @@ import fourqj.exceptions.EncryptionException;
 import fourqj.exceptions.ValidationException;
 import fourqj.fieldoperations.FP;
 import fourqj.fieldoperations.FP2;
-import fourqj.types.point.ExtendedPoint;
 import fourqj.types.data.F2Element;
 import fourqj.types.point.FieldPoint;
 
 import java.math.BigInteger;
-import java.security.SecureRandom;
-import java.util.Optional;
+import java.nio.ByteBuffer;
 
-import static fourqj.utils.BigIntegerUtils.addLeadingZeros;
-import static fourqj.utils.ByteArrayReverseMode.REMOVE_TRAILING_ZERO;
 
 /**
  * Cryptographic utility functions for FourQ operations.
@@ -35,21 +31,53 @@ import static fourqj.utils.ByteArrayReverseMode.REMOVE_TRAILING_ZERO;
  * @since 1.0.0
  */
 public class CryptoUtils {
-    private static final SecureRandom secureRandom = new SecureRandom();
-
     /**
      * Generates cryptographically secure random bytes.
      * <p>
-     * Uses the system's SecureRandom implementation to generate high-quality
-     * random bytes suitable for cryptographic operations like key generation.
+     * The bytes come from a per-stripe DRBG, see {@link #randomBytes(byte[])}, and are read
+     * as an unsigned big-endian integer, so the result is never negative. Leading zero bytes
+     * make it shorter than size bytes, which callers restore when encoding it.
      * 
      * @param size the number of random bytes to generate
-     * @return a BigInteger containing the random bytes
+     * @return a non-negative BigInteger containing the random bytes
      */
     public static BigInteger randomBytes(int size) {
         byte[] bytes = new byte[size];
-        secureRandom.nextBytes(bytes);
-        return new BigInteger(bytes);
+        StripedRandom.nextBytes(bytes);
+        return new BigInteger(Params.signPositive, bytes);
+    }
+
+    /**
+     * Fills an array with cryptographically secure random bytes.
+     * <p>
+     * Each thread draws from one of several independently seeded DRBGs chosen by its thread id,
+     * so concurrent key generation does not contend on a single synchronized generator.
+     *
+     * @param out the array to fill
+     */
+    public static void randomBytes(byte[] out) {
+        StripedRandom.nextBytes(out);
+    }
+
+    /**
+     * Writes cryptographically secure random bytes into part of an array, see {@link #randomBytes(byte[])}.
+     *
+     * @param out the destination array
+     * @param offset the position of the first byte written
+     * @param length the number of bytes written
+     */
+    public static void randomBytes(byte[] out, int offset, int length) {
+        StripedRandom.nextBytes(out, offset, length);
+    }
+
+    /**
+     * Fills the remaining bytes of a buffer with cryptographically secure random bytes and
+     * advances its position to its limit, see {@link #randomBytes(byte[])}.
+     *
+     * @param out the destination buffer
+     */
+    public static void randomBytes(ByteBuffer out) {
+        StripedRandom.nextBytes(out);
     }
 
     /**
@@ -90,25 +118,26 @@ public class CryptoUtils {
      * @return the compressed point as a 32-byte BigInteger
      */
     public static BigInteger encode(FieldPoint P) {
-        byte temp1 = (byte) (P.getX().im.testBit(126) ? 0x80 : 0x00);
-        byte temp2 = (byte) (P.getX().real.testBit(126) ? 0x80 : 0x00);
-
-        byte[] realPart = P.getY().real.toByteArray();
-        byte[] imPart = P.getY().im.toByteArray();
-        byte[] result = new byte[32];
-
-        // Copy real bytes in reverse order to positions 0-15
-        int realLen = Math.min(realPart.length, 16);
-        for (int i = 0; i < realLen; i++) result[i] = realPart[realLen - 1 - i];
-
-        // Copy im bytes in reverse order to positions 16-31
-        int imLen = Math.min(imPart.length, 16);
-        for (int i = 0; i < imLen; i++) result[16 + i] = imPart[imLen - 1 - i];
+        final byte[] result = new byte[Key.KEY_SIZE];
+        encode(P, result, Params.noOffset);
+        return new BigInteger(Params.signPositive, result);
+    }
 
-        if (P.getX().isZero()) result[31] |= temp1;
-        else result[31] |= temp2;
+    /**
+     * Encodes an elliptic curve point into its compressed 32-byte little-endian form,
+     * written directly into the destination array.
+     *
+     * @param P the curve point to encode
+     * @param out the destination array
+     * @param offset the position of the first encoded byte in out
+     */
+    public static void encode(FieldPoint P, byte[] out, int offset) {
+        final F2Element x = P.getX();
+        LittleEndianCodec.writeF2Element(P.getY(), out, offset);
 
-        return new BigInteger(1, result);
+        // The top byte carries the sign of x in its most significant bit
+        final boolean sign = x.isZero() ? x.im.testBit(126) : x.real.testBit(126);
+        if (sign) out[offset + Key.KEY_SIZE - 1] |= (byte) 0x80;
     }
 
     /**
@@ -125,8 +154,20 @@ public class CryptoUtils {
      * @throws EncryptionException if decoding fails or point is invalid
      */
     public static FieldPoint decode(BigInteger encoded) throws EncryptionException {
-        F2Element y = BigIntegerUtils.convertBigIntegerToF2Element(encoded);
-        int signBit = encoded.testBit(7) ? 1 : 0;
+        return decode(BigIntegerUtils.bigIntegerToByte(encoded, Key.KEY_SIZE, false), Params.noOffset);
+    }
+
+    /**
+     * Decodes a compressed point stored as 32 bytes in the given array.
+     *
+     * @param encoded the array holding the compressed point
+     * @param offset the position of the first encoded byte
+     * @return the decoded curve point
+     * @throws EncryptionException if decoding fails or point is invalid
+     */
+    public static FieldPoint decode(byte[] encoded, int offset) throws EncryptionException {
+        F2Element y = LittleEndianCodec.readF2Element(encoded, offset);
+        int signBit = (encoded[offset + Key.KEY_SIZE - 1] >>> 7) & 1;
         y.im = y.im.clearBit(127);
 
         F2Element u = FP2.fp2Sqr1271(y);
@@ -134,45 +175,39 @@ public class CryptoUtils {
         u = FP2.fp2Sub1271(u, F2Element.ONE);
         v = FP2.fp2Add1271(v, F2Element.ONE);
 
-        BigInteger t0 = FP.PUtil.fpSqr1271(v.real);
-        BigInteger t1 = FP.PUtil.fpSqr1271(v.im);         // t1 = v1^2
-        t0 = FP.PUtil.fpAdd1271(t0, t1);                  // t0 = t0+t1
-        t1 = FP.PUtil.fpMul1271(u.real, v.real);          // t1 = u0*v0
-        BigInteger t2 = FP.PUtil.fpMul1271(u.im, v.im);   // t2 = u1*v1
-        t1 = FP.PUtil.fpAdd1271(t1, t2);                  // t1 = t1+t2
-        t2 = FP.PUtil.fpMul1271(u.im, v.real);            // t2 = u1*v0
-        BigInteger t3 = FP.PUtil.fpMul1271(u.real, v.im); // t3 = u0*v1
-        t2 = FP.PUtil.fpSub1271(t2, t3);                  // t2 = t2-t3
-        t3 = FP.PUtil.fpSqr1271(t1);                      // t3 = t1^2
-        BigInteger t4 = FP.PUtil.fpSqr1271(t2);           // t4 = t2^2
-        t3 = FP.PUtil.fpAdd1271(t3, t4);                  // t3 = t3+t4
-        for (int i = 0; i < 125; i++) {                       // t3 = t3^(2^125)
-            t3 = FP.PUtil.fpSqr1271(t3);
-        }
+        // u/v = (t1 + t2*i)/t0 with t0 = v0^2+v1^2, so x = sqrt(u/v) only needs GF(p) exponentiations
+        BigInteger t0 = FP.PUtil.fpAdd1271(FP.PUtil.fpSqr1271(v.real), FP.PUtil.fpSqr1271(v.im));
+        BigInteger t1 = FP.PUtil.fpAdd1271(FP.PUtil.fpMul1271(u.real, v.real), FP.PUtil.fpMul1271(u.im, v.im));
+        final BigInteger t2 = FP.PUtil.fpSub1271(FP.PUtil.fpMul1271(u.im, v.real), FP.PUtil.fpMul1271(u.real, v.im));
+
+        // n = sqrt(t1^2+t2^2), the norm of t1 + t2*i
+        final BigInteger n = FP.PUtil.fpSqrt1271(FP.PUtil.fpAdd1271(FP.PUtil.fpSqr1271(t1), FP.PUtil.fpSqr1271(t2)));
 
-        BigInteger t = FP.PUtil.fpAdd1271(t1, t3);      // t = t1+t3
+        BigInteger t = FP.PUtil.fpAdd1271(t1, n);       // t = t1+n
         if (t.equals(BigInteger.ZERO)) {
-            t = FP.PUtil.fpSub1271(t1, t3);             // t = t1-t3
+            t = FP.PUtil.fpSub1271(t1, n);              // t = t1-n
         }
         t = FP.PUtil.fpAdd1271(t, t);                   // t = 2*t
-        t3 = FP.PUtil.fpSqr1271(t0);                    // t3 = t0^2
-        t3 = FP.PUtil.fpMul1271(t3, t0);                // t3 = t3*t0
-        t3 = FP.PUtil.fpMul1271(t, t3);                 // t3 = t3*t
-        BigInteger r = FP.PUtil.fpExp1251(t3);          // r = t3^(2^125-1)
-        t3 = FP.PUtil.fpMul1271(t0, r);                 // t3 = t0*r
-        BigInteger x0 = FP.PUtil.fpMul1271(t, t3);      // x0 = t*t3
-        t1 = FP.PUtil.fpSqr1271(x0);
-        t1 = FP.PUtil.fpMul1271(t0, t1);                // t1 = t0*x0^2
-        x0 = FP.PUtil.fpDiv1271(x0);                    // x0 = x0/2
-        BigInteger x1 = FP.PUtil.fpMul1271(t2, t3);     // x1 = t3*t2
+
+        // Combined inverse square root r = (t*t0^3)^(2^125-1), which also yields 1/t0
+        final BigInteger r = FP.PUtil.fpExp1251(FP.PUtil.fpMul1271(t, FP.PUtil.fpMul1271(FP.PUtil.fpSqr1271(t0), t0)));
+        final BigInteger t3 = FP.PUtil.fpMul1271(t0, r);      // t3 = t0*r
+        BigInteger x0 = FP.PUtil.fpMul1271(t, t3);            // x0 = t*t3
+        t1 = FP.PUtil.fpMul1271(t0, FP.PUtil.fpSqr1271(x0));  // t1 = t0*x0^2
+        x0 = FP.PUtil.fpDiv1271(x0);                          // x0 = x0/2
+        BigInteger x1 = FP.PUtil.fpMul1271(t2, t3);           // x1 = t3*t2
 
         if (!t.equals(t1)) {        // If t != t1 then swap x0 and x1
-            t0 = x0;
+            final BigInteger swap = x0;
             x0 = x1;
-            x1 = t0;
+            x1 = swap;
         }
-        F2Element x = new F2Element(x0, x1);
 
+        // The imaginary part of x^2 is 2*x0*x1, which must equal t2/t0; otherwise x is the conjugate root
+        if (!FP.PUtil.fpMul1271(FP.PUtil.fpAdd1271(x0, x0), FP.PUtil.fpMul1271(x1, t0)).equals(t2)) {
+            x1 = FP.PUtil.fpNeg1271(x1);
+        }
+        F2Element x = new F2Element(x0, x1);
 
         int signDec;
         if (x.isZero()) {
@@ -187,21 +222,16 @@ public class CryptoUtils {
             x = FP2.fp2Neg1271(x);
         }
 
+        // The root and its sign are now fixed, so a single check rejects encodings that are not on the curve
         FieldPoint point = new FieldPoint(x, y);
-        ExtendedPoint testPoint = Curve.pointSetup(point);
-        if (!ECC.eccPointValidate(testPoint)) {
-            testPoint.getX().im = FP.PUtil.fpNeg1271(testPoint.getX().im);
-            point.getX().im = testPoint.getX().im;
-            if (!ECC.eccPointValidate(testPoint)) {       // Final point validation
-                throw new ValidationException("Error validating point in decode.");
-            }
+        if (!ECC.eccPointValidate(Curve.pointSetup(point))) {
+            throw new ValidationException("Error validating point in decode.");
         }
         return point;
     }
 
+    // Reads the response s, stored little-endian in the lower 32 bytes of the signature.
     public static BigInteger extractSignatureTopBytesReverse(BigInteger signature) {
-        final BigInteger sig32 = signature.mod(Key.POW_256);
-        final byte[] sig32Array = addLeadingZeros(sig32.toByteArray(), Key.KEY_SIZE + 1);
-        return new BigInteger(1, ByteArrayUtils.reverseByteArray(sig32Array, Optional.of(REMOVE_TRAILING_ZERO)));
+        return LittleEndianCodec.readScalar(BigIntegerUtils.bigIntegerToByte(signature, Key.SIGNATURE_SIZE, false), Key.KEY_SIZE);
     }
-}
\ No newline at end of file
+}
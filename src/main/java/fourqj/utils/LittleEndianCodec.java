@@ -0,0 +1,161 @@
+package fourqj.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import fourqj.constants.Key;
+import fourqj.constants.Params;
+import fourqj.types.data.F2Element;
+
+
+/**
+ * Reads and writes field elements and scalars in the little-endian byte layout
+ * used by the reference FourQ implementation.
+ * <p>
+ * Field elements of GF(2^127-1) take 16 bytes, elements of GF((2^127-1)^2) take 32 bytes
+ * (real part first) and scalars take 32 bytes. Bytes are moved eight at a time through
+ * byte-array and ByteBuffer view VarHandles, so no intermediate reversed copies are made.
+ * The ByteBuffer methods use absolute indices and work on heap and direct buffers alike.
+ * <p>
+ * Values written are expected to be non-negative; only their lowest length bytes are kept.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+public final class LittleEndianCodec {
+    /** Size in bytes of an element of GF(2^127-1). */
+    public static final int FIELD_ELEMENT_SIZE = Key.KEY_SIZE / 2;
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle BUFFER_LONG_LE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private LittleEndianCodec() {}
+
+    /**
+     * Reads length little-endian bytes as a non-negative integer.
+     *
+     * @param src the source array
+     * @param offset the position of the least significant byte
+     * @param length the number of bytes to read
+     * @return the integer value
+     */
+    public static BigInteger readInteger(byte[] src, int offset, int length) {
+        final byte[] bigEndian = new byte[length];
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            LONG_BE.set(bigEndian, length - Long.BYTES - i, (long) LONG_LE.get(src, offset + i));
+        }
+        for (; i < length; i++) bigEndian[length - 1 - i] = src[offset + i];
+        return new BigInteger(Params.signPositive, bigEndian);
+    }
+
+    /**
+     * Writes the lowest length bytes of a non-negative integer in little-endian order.
+     *
+     * @param value the value to write
+     * @param dst the destination array
+     * @param offset the position of the least significant byte
+     * @param length the number of bytes to write
+     */
+    public static void writeInteger(BigInteger value, byte[] dst, int offset, int length) {
+        final byte[] bigEndian = value.toByteArray();
+        int i = 0;
+        for (; i + Long.BYTES <= length && bigEndian.length - Long.BYTES - i >= 0; i += Long.BYTES) {
+            LONG_LE.set(dst, offset + i, (long) LONG_BE.get(bigEndian, bigEndian.length - Long.BYTES - i));
+        }
+        for (; i < length; i++) {
+            final int index = bigEndian.length - 1 - i;
+            dst[offset + i] = index >= 0 ? bigEndian[index] : 0;
+        }
+    }
+
+    /**
+     * Reads length little-endian bytes as a non-negative integer.
+     *
+     * @param src the source buffer, whose position is left unchanged
+     * @param index the absolute index of the least significant byte
+     * @param length the number of bytes to read
+     * @return the integer value
+     */
+    public static BigInteger readInteger(ByteBuffer src, int index, int length) {
+        final byte[] bigEndian = new byte[length];
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            LONG_BE.set(bigEndian, length - Long.BYTES - i, (long) BUFFER_LONG_LE.get(src, index + i));
+        }
+        for (; i < length; i++) bigEndian[length - 1 - i] = src.get(index + i);
+        return new BigInteger(Params.signPositive, bigEndian);
+    }
+
+    /**
+     * Writes the lowest length bytes of a non-negative integer in little-endian order.
+     *
+     * @param value the value to write
+     * @param dst the destination buffer, whose position is left unchanged
+     * @param index the absolute index of the least significant byte
+     * @param length the number of bytes to write
+     */
+    public static void writeInteger(BigInteger value, ByteBuffer dst, int index, int length) {
+        final byte[] bigEndian = value.toByteArray();
+        int i = 0;
+        for (; i + Long.BYTES <= length && bigEndian.length - Long.BYTES - i >= 0; i += Long.BYTES) {
+            BUFFER_LONG_LE.set(dst, index + i, (long) LONG_BE.get(bigEndian, bigEndian.length - Long.BYTES - i));
+        }
+        for (; i < length; i++) {
+            final int position = bigEndian.length - 1 - i;
+            dst.put(index + i, position >= 0 ? bigEndian[position] : 0);
+        }
+    }
+
+    /** Reads a 32-byte scalar from src at offset. */
+    public static BigInteger readScalar(byte[] src, int offset) {
+        return readInteger(src, offset, Key.KEY_SIZE);
+    }
+
+    /** Writes a scalar as 32 bytes into dst at offset. */
+    public static void writeScalar(BigInteger value, byte[] dst, int offset) {
+        writeInteger(value, dst, offset, Key.KEY_SIZE);
+    }
+
+    /** Reads a 32-byte scalar from src at the absolute index. */
+    public static BigInteger readScalar(ByteBuffer src, int index) {
+        return readInteger(src, index, Key.KEY_SIZE);
+    }
+
+    /** Writes a scalar as 32 bytes into dst at the absolute index. */
+    public static void writeScalar(BigInteger value, ByteBuffer dst, int index) {
+        writeInteger(value, dst, index, Key.KEY_SIZE);
+    }
+
+    /** Reads an element of GF((2^127-1)^2) stored as real part then imaginary part. */
+    public static F2Element readF2Element(byte[] src, int offset) {
+        return new F2Element(
+                readInteger(src, offset, FIELD_ELEMENT_SIZE),
+                readInteger(src, offset + FIELD_ELEMENT_SIZE, FIELD_ELEMENT_SIZE)
+        );
+    }
+
+    /** Writes an element of GF((2^127-1)^2) as real part then imaginary part. */
+    public static void writeF2Element(F2Element value, byte[] dst, int offset) {
+        writeInteger(value.real, dst, offset, FIELD_ELEMENT_SIZE);
+        writeInteger(value.im, dst, offset + FIELD_ELEMENT_SIZE, FIELD_ELEMENT_SIZE);
+    }
+
+    /** Reads an element of GF((2^127-1)^2) at the absolute index, real part first. */
+    public static F2Element readF2Element(ByteBuffer src, int index) {
+        return new F2Element(
+                readInteger(src, index, FIELD_ELEMENT_SIZE),
+                readInteger(src, index + FIELD_ELEMENT_SIZE, FIELD_ELEMENT_SIZE)
+        );
+    }
+
+    /** Writes an element of GF((2^127-1)^2) at the absolute index, real part first. */
+    public static void writeF2Element(F2Element value, ByteBuffer dst, int index) {
+        writeInteger(value.real, dst, index, FIELD_ELEMENT_SIZE);
+        writeInteger(value.im, dst, index + FIELD_ELEMENT_SIZE, FIELD_ELEMENT_SIZE);
+    }
+}
@@ -0,0 +1,80 @@
+package fourqj.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Striped deterministic random bit generators backing {@link CryptoUtils#randomBytes}.
+ * <p>
+ * A single {@link SecureRandom} is synchronized internally by most providers, so threads
+ * generating keys or batch verification coefficients at once queue up on its lock. Here
+ * each calling thread is mapped by its id to one of a fixed set of stripes, at least twice
+ * the number of cores, each holding an independent 256-bit DRBG seeded by the system
+ * entropy source. Threads then rarely share a generator, and virtual threads do not each
+ * pay for instantiating one, as they would with a thread-local generator.
+ * <p>
+ * Stripes are instantiated on first use, with a personalization string naming the stripe.
+ * If the platform has no DRBG, a default {@link SecureRandom} is used instead.
+ *
+ * @author Naman Malhotra, James Hughff
+ * @since 1.0.3
+ */
+final class StripedRandom {
+    private static final int SECURITY_STRENGTH = 256;
+    private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1));
+    private static final AtomicReferenceArray<SecureRandom> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    private StripedRandom() {}
+
+    static void nextBytes(byte[] out) {
+        stripe().nextBytes(out);
+    }
+
+    static void nextBytes(byte[] out, int offset, int length) {
+        if (offset == 0 && length == out.length) {
+            nextBytes(out);
+            return;
+        }
+        final byte[] bytes = new byte[length];
+        nextBytes(bytes);
+        System.arraycopy(bytes, 0, out, offset, length);
+        Arrays.fill(bytes, (byte) 0);
+    }
+
+    // Fills the buffer from its position to its limit and advances the position to the limit
+    static void nextBytes(ByteBuffer out) {
+        if (out.hasArray()) {
+            nextBytes(out.array(), out.arrayOffset() + out.position(), out.remaining());
+            out.position(out.limit());
+            return;
+        }
+        final byte[] bytes = new byte[out.remaining()];
+        nextBytes(bytes);
+        out.put(bytes);
+        Arrays.fill(bytes, (byte) 0);
+    }
+
+    private static SecureRandom stripe() {
+        final int index = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+        final SecureRandom random = stripes.get(index);
+        if (random != null) return random;
+        stripes.compareAndSet(index, null, instantiate(index));
+        return stripes.get(index);
+    }
+
+    private static SecureRandom instantiate(int index) {
+        final byte[] personalization = ("fourqj stripe " + index).getBytes(StandardCharsets.US_ASCII);
+        try {
+            return SecureRandom.getInstance("DRBG", DrbgParameters.instantiation(
+                    SECURITY_STRENGTH, DrbgParameters.Capability.RESEED_ONLY, personalization));
+        } catch (NoSuchAlgorithmException | IllegalArgumentException e) {
+            return new SecureRandom();
+        }
+    }
+}
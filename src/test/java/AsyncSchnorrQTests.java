@@ -0,0 +1,127 @@
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import fourqj.api.AsyncSchnorrQ;
+import fourqj.api.SchnorrQ;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.utils.BigIntegerUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class AsyncSchnorrQTests {
+    private final BigInteger VALID_PRIVATE_KEY = new BigInteger("9aa51ec6af8420987dee03b1453a9eeb8e7bf17db8b7a175b6294ba2095410bd", 16);
+    private final byte[] SECRET_KEY = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+
+    @Test
+    void testAsyncResultsMatchBlockingApi() throws Exception {
+        byte[] message = new byte[100_001];
+        new Random(5).nextBytes(message);
+        SchnorrQ schnorrQ = new SchnorrQ(new Kangaroo12());
+        SigningKeyMaterial key = schnorrQ.signingKeyMaterial(SECRET_KEY);
+
+        try (AsyncSchnorrQ async = new AsyncSchnorrQ(new Kangaroo12(), 2)) {
+            byte[] signature = async.sign(key, message).get();
+            assertArrayEquals(schnorrQ.sign(key, message), signature);
+
+            assertTrue(async.verify(key.publicKey(), signature, message).get());
+            assertTrue(async.verify(key.publicKey(), signature, new ByteArrayInputStream(message)).get());
+            assertTrue(async.verify(key.publicKey(), signature, Channels.newChannel(new ByteArrayInputStream(message))).get());
+
+            message[12] ^= 1;
+            assertFalse(async.verify(key.publicKey(), signature, message).get());
+            assertFalse(async.verify(key.publicKey(), signature, new ByteArrayInputStream(message)).get());
+        }
+    }
+
+    @Test
+    void testFailuresCompleteExceptionally() throws Exception {
+        try (AsyncSchnorrQ async = new AsyncSchnorrQ()) {
+            SigningKeyMaterial key = new SchnorrQ().signingKeyMaterial(SECRET_KEY);
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> async.verify(key.publicKey(), new byte[63], new byte[1]).get());
+            assertInstanceOf(InvalidArgumentException.class, e.getCause());
+
+            e = assertThrows(ExecutionException.class,
+                    () -> async.verify(key.publicKey(), new byte[63], new ByteArrayInputStream(new byte[1])).get());
+            assertInstanceOf(InvalidArgumentException.class, e.getCause());
+        }
+        assertThrows(InvalidArgumentException.class, () -> new AsyncSchnorrQ(new Kangaroo12(), 0));
+    }
+
+    @Test
+    void testDeadlineStopsStalledStream() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream stalled = new InputStream() {
+            @Override
+            public int read() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+        };
+
+        try (AsyncSchnorrQ async = new AsyncSchnorrQ()) {
+            SigningKeyMaterial key = new SchnorrQ().signingKeyMaterial(SECRET_KEY);
+            byte[] signature = new SchnorrQ().sign(key, new byte[0]);
+            CompletableFuture<Boolean> result = async.verify(key.publicKey(), signature, stalled, Duration.ofMillis(50));
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(TimeoutException.class, e.getCause());
+            release.countDown();
+
+            CompletableFuture<Boolean> cancelled = async.verify(key.publicKey(), signature, new byte[0]);
+            cancelled.cancel(false);
+            assertTrue(cancelled.isCancelled());
+        }
+    }
+
+    @Test
+    void testCallsAfterCloseReturnFailedFutures() {
+        SigningKeyMaterial key = new SchnorrQ().signingKeyMaterial(SECRET_KEY);
+        byte[] signature = new SchnorrQ().sign(key, new byte[1]);
+        AsyncSchnorrQ async = new AsyncSchnorrQ();
+        async.close();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> async.sign(key, new byte[1]).get());
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        e = assertThrows(ExecutionException.class, () -> async.verify(key.publicKey(), signature, new byte[1]).get());
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        e = assertThrows(ExecutionException.class,
+                () -> async.verify(key.publicKey(), signature, new ByteArrayInputStream(new byte[1])).get());
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    @Test
+    void testErrorFromStreamCompletesExceptionally() throws Exception {
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("stream failure");
+            }
+        };
+
+        try (AsyncSchnorrQ async = new AsyncSchnorrQ()) {
+            SigningKeyMaterial key = new SchnorrQ().signingKeyMaterial(SECRET_KEY);
+            byte[] signature = new SchnorrQ().sign(key, new byte[0]);
+            CompletableFuture<Boolean> result = async.verify(key.publicKey(), signature, broken);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import fourqj.api.BatchProofVerifier;
+import fourqj.api.BatchSigner;
+import fourqj.api.SchnorrQ;
+import fourqj.api.SignedBatch;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.exceptions.InvalidArgumentException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class BatchSignerTests {
+    private final SigningKeyMaterial key = new SchnorrQ().signingKeyMaterial(new byte[Key.KEY_SIZE]);
+
+    private static byte[][] messages(int count) {
+        byte[][] messages = new byte[count][];
+        for (int i = 0; i < count; i++) messages[i] = ("event " + i).getBytes(UTF_8);
+        return messages;
+    }
+
+    @Test
+    void testEveryProofVerifies() {
+        BatchSigner signer = new BatchSigner();
+        for (int count : new int[] { 1, 2, 3, 5, 8, 13 }) {
+            byte[][] messages = messages(count);
+            SignedBatch batch = signer.sign(key, messages);
+            BatchProofVerifier verifier = new BatchProofVerifier();
+            assertEquals(count, batch.size());
+            for (int i = 0; i < count; i++) {
+                assertTrue(verifier.verify(key.publicKey(), batch.header(), batch.proof(i), messages[i]));
+            }
+            assertEquals(1, verifier.rootVerificationCount());
+        }
+    }
+
+    @Test
+    void testForgeriesAreRejected() {
+        byte[][] messages = messages(6);
+        SignedBatch batch = new BatchSigner().sign(key, messages);
+        BatchProofVerifier verifier = new BatchProofVerifier();
+        byte[] header = batch.header();
+
+        assertFalse(verifier.verify(key.publicKey(), header, batch.proof(2), messages[3]));
+        assertFalse(verifier.verify(key.publicKey(), header, batch.proof(2), "forged".getBytes(UTF_8)));
+
+        byte[] proof = batch.proof(4);
+        proof[Integer.BYTES] ^= 1;
+        assertFalse(verifier.verify(key.publicKey(), header, proof, messages[4]));
+        assertFalse(verifier.verify(key.publicKey(), header, new byte[Integer.BYTES], messages[0]));
+
+        byte[] wrongCount = header.clone();
+        wrongCount[0] = 7;
+        assertFalse(verifier.verify(key.publicKey(), wrongCount, batch.proof(5), messages[5]));
+
+        byte[] wrongSignature = header.clone();
+        wrongSignature[SignedBatch.HEADER_SIZE - Key.SIGNATURE_SIZE] ^= 1;
+        assertFalse(verifier.verify(key.publicKey(), wrongSignature, batch.proof(0), messages[0]));
+        assertFalse(verifier.verify(key.publicKey(), wrongSignature, batch.proof(1), messages[1]));
+
+        SigningKeyMaterial other = new SchnorrQ().signingKeyMaterial(batch.root());
+        assertFalse(verifier.verify(other.publicKey(), header, batch.proof(0), messages[0]));
+    }
+
+    @Test
+    void testKangarooTwelveTree() {
+        SchnorrQ k12 = new SchnorrQ(new Kangaroo12());
+        SigningKeyMaterial k12Key = k12.signingKeyMaterial(new byte[Key.KEY_SIZE]);
+        byte[][] messages = messages(2500);
+        SignedBatch batch = new BatchSigner(new Kangaroo12()).sign(k12Key, messages);
+        BatchProofVerifier verifier = new BatchProofVerifier(new Kangaroo12());
+        assertTrue(verifier.verify(k12Key.publicKey(), batch.header(), batch.proof(2499), messages[2499]));
+        assertTrue(verifier.verify(k12Key.publicKey(), batch.header(), batch.proof(1024), messages[1024]));
+        assertFalse(new BatchProofVerifier().verify(k12Key.publicKey(), batch.header(), batch.proof(0), messages[0]));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        BatchSigner signer = new BatchSigner();
+        assertThrows(InvalidArgumentException.class, () -> signer.sign(key, new byte[0][]));
+        assertThrows(InvalidArgumentException.class, () -> signer.sign(key, new byte[][] { null }));
+        SignedBatch batch = signer.sign(key, messages(3));
+        assertThrows(InvalidArgumentException.class, () -> batch.proof(3));
+        assertThrows(InvalidArgumentException.class,
+                () -> new BatchProofVerifier().verify(key.publicKey(), new byte[10], batch.proof(0), new byte[0]));
+    }
+}
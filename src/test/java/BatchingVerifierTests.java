@@ -0,0 +1,146 @@
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import fourqj.api.BatchingVerifier;
+import fourqj.api.SchnorrQ;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.InvalidArgumentException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class BatchingVerifierTests {
+    private final SchnorrQ schnorrQ = new SchnorrQ();
+
+    private SigningKeyMaterial key(int seed) {
+        byte[] secretKey = new byte[Key.KEY_SIZE];
+        secretKey[0] = (byte) seed;
+        return schnorrQ.signingKeyMaterial(secretKey);
+    }
+
+    @Test
+    void testResultsMatchIndividualVerification() throws Exception {
+        SigningKeyMaterial[] keys = { key(1), key(2), key(3) };
+        int count = 40;
+        byte[][] publicKeys = new byte[count][];
+        byte[][] signatures = new byte[count][];
+        byte[][] messages = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            SigningKeyMaterial key = keys[i % keys.length];
+            publicKeys[i] = key.publicKey();
+            messages[i] = ("event " + i).getBytes(UTF_8);
+            signatures[i] = schnorrQ.sign(key, messages[i]);
+        }
+        messages[5] = "tampered".getBytes(UTF_8);
+        signatures[11] = signatures[12].clone();              // Valid R and s from another message
+        signatures[17][40] ^= 1;                              // Wrong s
+        signatures[23][3] ^= 1;                               // R that no longer decodes to a point, or to the wrong one
+        signatures[29][Key.SIGNATURE_SIZE - 1] = (byte) 0xFF; // Rejected encoding, verify throws
+
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try (BatchingVerifier verifier = new BatchingVerifier(new SHA512(), 16, Duration.ofMillis(20), 1024, workers)) {
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < count; i++) results.add(verifier.verify(publicKeys[i], signatures[i], messages[i]));
+
+            for (int i = 0; i < count; i++) {
+                if (i == 29) {
+                    int index = i;
+                    ExecutionException e = assertThrows(ExecutionException.class, () -> results.get(index).get());
+                    assertInstanceOf(InvalidArgumentException.class, e.getCause());
+                    continue;
+                }
+                assertEquals(schnorrQ.verify(publicKeys[i], signatures[i], messages[i]), results.get(i).get(), "item " + i);
+            }
+            assertTrue(verifier.batchCount() >= 3);
+            assertFalse(verifier.p99Latency().isNegative());
+            assertTrue(verifier.p99Latency().compareTo(verifier.latencyPercentile(50)) >= 0);
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    @Test
+    void testValidBatchNeedsNoIndividualChecks() throws Exception {
+        SigningKeyMaterial[] keys = { key(5), key(6) };
+        try (BatchingVerifier verifier = new BatchingVerifier(new SHA512(), 12, Duration.ofSeconds(10), 64, Runnable::run)) {
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                byte[] message = ("valid " + i).getBytes(UTF_8);
+                SigningKeyMaterial key = keys[i % keys.length];
+                results.add(verifier.verify(key.publicKey(), schnorrQ.sign(key, message), message));
+            }
+            for (CompletableFuture<Boolean> result : results) assertTrue(result.get());
+            assertEquals(1, verifier.batchCount());
+            assertEquals(0, verifier.individualVerificationCount());
+        }
+    }
+
+    @Test
+    void testSequentialSingleRequestsComplete() throws Exception {
+        SigningKeyMaterial key = key(7);
+        byte[] message = "one at a time".getBytes(UTF_8);
+        byte[] signature = schnorrQ.sign(key, message);
+        ExecutorService producers = Executors.newFixedThreadPool(2);
+        // Batches never fill, so every request relies on the dispatcher waking up for it
+        try (BatchingVerifier verifier = new BatchingVerifier(new SHA512(), 64, Duration.ofMillis(1), 1024, Runnable::run)) {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int p = 0; p < 2; p++) {
+                runs.add(producers.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        assertTrue(verifier.verify(key.publicKey(), signature, message).get(10, TimeUnit.SECONDS));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) run.get();
+        } finally {
+            producers.shutdown();
+        }
+    }
+
+    @Test
+    void testShedsLoadWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // Runs flushes on the dispatcher thread and holds it until released, so the queue backs up
+        BatchingVerifier verifier = new BatchingVerifier(new SHA512(), 3, Duration.ofSeconds(10), 3, task -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            task.run();
+        });
+        SigningKeyMaterial key = key(4);
+        byte[] message = "load".getBytes(UTF_8);
+        byte[] signature = schnorrQ.sign(key, message);
+
+        List<CompletableFuture<Boolean>> accepted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) accepted.add(verifier.verify(key.publicKey(), signature, message));
+        while (verifier.queueDepth() != 0) Thread.onSpinWait();
+        for (int i = 0; i < 3; i++) accepted.add(verifier.verify(key.publicKey(), signature, message));
+
+        CompletableFuture<Boolean> shed = verifier.verify(key.publicKey(), signature, message);
+        ExecutionException e = assertThrows(ExecutionException.class, shed::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1, verifier.shedCount());
+
+        release.countDown();
+        verifier.close();
+        for (CompletableFuture<Boolean> result : accepted) assertTrue(result.get());
+        assertThrows(ExecutionException.class, () -> verifier.verify(key.publicKey(), signature, message).get());
+    }
+}
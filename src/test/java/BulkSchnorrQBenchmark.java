@@ -0,0 +1,79 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import fourqj.api.SchnorrQ;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.constants.Key;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+// Throughput of signAll and verifyAll for growing pool sizes, to check that they scale with cores.
+// Only runs when requested: ./gradlew test --tests BulkSchnorrQBenchmark -Dfourqj.benchmark=true
+@EnabledIfSystemProperty(named = "fourqj.benchmark", matches = "true")
+public class BulkSchnorrQBenchmark {
+    private static final int BATCH_SIZE = 2_000;
+    private static final int MESSAGE_SIZE = 128;
+    private static final int ROUNDS = 3;
+
+    private final SchnorrQ schnorrQ = new SchnorrQ();
+
+    @Test
+    void benchmarkBulkSignAndVerify() {
+        Random random = new Random(1);
+        byte[] secretKey = new byte[Key.KEY_SIZE];
+        random.nextBytes(secretKey);
+        SigningKeyMaterial key = schnorrQ.signingKeyMaterial(secretKey);
+
+        byte[][] messages = new byte[BATCH_SIZE][MESSAGE_SIZE];
+        byte[][] publicKeys = new byte[BATCH_SIZE][];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            random.nextBytes(messages[i]);
+            publicKeys[i] = key.publicKey();
+        }
+        byte[] signatureBlock = new byte[BATCH_SIZE * Key.SIGNATURE_SIZE];
+        byte[][] signatures = new byte[BATCH_SIZE][Key.SIGNATURE_SIZE];
+        boolean[] results = new boolean[BATCH_SIZE];
+
+        // Warm up the JIT before measuring
+        ForkJoinPool warmup = new ForkJoinPool(1);
+        schnorrQ.signAll(key, messages, signatureBlock, warmup);
+        warmup.shutdown();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            System.arraycopy(signatureBlock, i * Key.SIGNATURE_SIZE, signatures[i], 0, Key.SIGNATURE_SIZE);
+        }
+
+        double signBaseline = 0;
+        double verifyBaseline = 0;
+        System.out.printf("%8s %14s %8s %14s %8s%n", "threads", "signs/s", "speedup", "verifies/s", "speedup");
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                long signNanos = Long.MAX_VALUE;
+                long verifyNanos = Long.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    schnorrQ.signAll(key, messages, signatureBlock, pool);
+                    signNanos = Math.min(signNanos, System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    schnorrQ.verifyAll(publicKeys, signatures, messages, results, pool);
+                    verifyNanos = Math.min(verifyNanos, System.nanoTime() - start);
+                }
+                for (boolean result : results) assertTrue(result);
+
+                double signRate = BATCH_SIZE * 1e9 / signNanos;
+                double verifyRate = BATCH_SIZE * 1e9 / verifyNanos;
+                if (threads == 1) {
+                    signBaseline = signRate;
+                    verifyBaseline = verifyRate;
+                }
+                System.out.printf("%8d %14.0f %8.2f %14.0f %8.2f%n",
+                        threads, signRate, signRate / signBaseline, verifyRate, verifyRate / verifyBaseline);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import fourqj.constants.Params;
+import fourqj.crypto.core.Curve;
+import fourqj.crypto.core.ECC;
+import fourqj.types.point.ExtendedPoint;
+import fourqj.types.point.FieldPoint;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ECCMultiScalarTests {
+    private final Random random = new Random(17);
+
+    // Compares the multi-scalar result with the sum of individual multiplications of multiples of the generator
+    private void checkAgainstNaiveSum(int n) {
+        ExtendedPoint[] points = new ExtendedPoint[n];
+        BigInteger[] scalars = new BigInteger[n];
+        BigInteger expected = BigInteger.ZERO;
+        for (int i = 0; i < n; i++) {
+            BigInteger base = new BigInteger(200, random).add(BigInteger.ONE);
+            scalars[i] = new BigInteger(i % 3 == 0 ? 128 : 246, random);
+            if (i % 4 == 1) scalars[i] = scalars[i].negate();
+            points[i] = Curve.pointSetup(ECC.eccMulFixed(base));
+            expected = expected.add(base.multiply(scalars[i]));
+        }
+
+        FieldPoint actual = ECC.eccNorm(ECC.eccMulMulti(points, scalars));
+        FieldPoint reference = ECC.eccMulFixed(expected.mod(Params.CURVE_ORDER));
+        assertTrue(ECC.eccEquals(Curve.pointSetup(reference), Curve.pointSetup(actual)), "n = " + n);
+    }
+
+    @Test
+    void testSmallInputsMatchNaiveSum() {
+        for (int n = 1; n <= 4; n++) checkAgainstNaiveSum(n);
+    }
+
+    @Test
+    void testBucketMethodMatchesNaiveSum() {
+        for (int n : new int[] { 5, 17, 70 }) checkAgainstNaiveSum(n);
+    }
+
+    @Test
+    void testCancellingScalarsGiveNeutralElement() {
+        ExtendedPoint[] points = new ExtendedPoint[10];
+        BigInteger[] scalars = new BigInteger[10];
+        for (int i = 0; i < 10; i += 2) {
+            points[i] = Curve.pointSetup(ECC.eccMulFixed(BigInteger.valueOf(1000 + i)));
+            points[i + 1] = points[i];
+            scalars[i] = new BigInteger(240, random);
+            scalars[i + 1] = scalars[i].negate();
+        }
+        assertTrue(ECC.isNeutral(ECC.eccMulMulti(points, scalars)));
+    }
+
+    @Test
+    void testBatchNormalizationMatchesSingle() {
+        ExtendedPoint[] points = new ExtendedPoint[9];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = ECC.eccMulFixedExtended(new BigInteger(250, random));
+        }
+        FieldPoint[] affine = ECC.eccNormBatch(points);
+        for (int i = 0; i < points.length; i++) {
+            FieldPoint expected = ECC.eccNorm(points[i]);
+            assertEquals(expected.getX(), affine[i].getX());
+            assertEquals(expected.getY(), affine[i].getY());
+        }
+        assertEquals(0, ECC.eccNormBatch(new ExtendedPoint[0]).length);
+    }
+}
@@ -0,0 +1,72 @@
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+
+import fourqj.constants.Params;
+import fourqj.crypto.core.ECC;
+import fourqj.types.data.F2Element;
+import fourqj.types.point.FieldPoint;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ECCSubgroupTests {
+    private static final int HEX_RADIX = 16;
+
+    // A point on the curve whose order is 56*N, so it has both a 2- and a 7-torsion component
+    private final FieldPoint FULL_ORDER_POINT = point(
+            "6600f407ab11a7dbd345ecba154c37ce", "4178fb0a64f38986ff7ce553b749591e",
+            "72890a4139292d22e255accb1a466884", "35d6b5f18e7aa6e99f19950499dd251d");
+    // 392 * FULL_ORDER_POINT, which lies in the prime-order subgroup
+    private final FieldPoint CLEARED_POINT = point(
+            "1ff36ae9425b32a6ad072fc869fed169", "5168f3a968282b14a6583c7a08d1c890",
+            "24fd1f54b8c2c8dcdd991df093389b03", "15f3293780870a1a0b10af537ef28766");
+    // 8*N * FULL_ORDER_POINT, a point of order 7
+    private final FieldPoint ORDER_7_POINT = point(
+            "6c459ee0a70bd152e38010145fe33b83", "6ec58710ec5db904be5d8ee3e855e434",
+            "1c69fd11fdea9df2228b9bbe951f90ce", "648f885068751b371f1ff6e24dee8289");
+
+    private static FieldPoint point(String xr, String xi, String yr, String yi) {
+        return new FieldPoint(
+                new F2Element(new BigInteger(xr, HEX_RADIX), new BigInteger(xi, HEX_RADIX)),
+                new F2Element(new BigInteger(yr, HEX_RADIX), new BigInteger(yi, HEX_RADIX))
+        );
+    }
+
+    @Test
+    void testGeneratorIsInSubgroup() {
+        assertTrue(ECC.isInPrimeSubgroup(ECC.getGeneratorPoint()));
+    }
+
+    @Test
+    void testMultiplesOfGeneratorAreInSubgroup() {
+        for (long k : new long[] { 2, 3, 1000, 65537 }) {
+            assertTrue(ECC.isInPrimeSubgroup(ECC.eccMulFixed(BigInteger.valueOf(k))));
+        }
+        assertTrue(ECC.isInPrimeSubgroup(ECC.eccMulFixed(Params.CURVE_ORDER.subtract(BigInteger.ONE))));
+    }
+
+    @Test
+    void testIdentityIsInSubgroup() {
+        assertTrue(ECC.isInPrimeSubgroup(new FieldPoint(F2Element.ZERO.dup(), F2Element.ONE.dup())));
+    }
+
+    @Test
+    void testPointWithTorsionComponentIsRejected() {
+        assertTrue(ECC.isInPrimeSubgroup(CLEARED_POINT));
+        assertFalse(ECC.isInPrimeSubgroup(FULL_ORDER_POINT));
+        assertFalse(ECC.isInPrimeSubgroup(ORDER_7_POINT));
+    }
+
+    @Test
+    void testPointOfOrderTwoIsRejected() {
+        FieldPoint orderTwo = new FieldPoint(F2Element.ZERO.dup(), new F2Element(Params.PRIME_1271.subtract(BigInteger.ONE), BigInteger.ZERO));
+        assertFalse(ECC.isInPrimeSubgroup(orderTwo));
+    }
+
+    @Test
+    void testPointNotOnCurveIsRejected() {
+        FieldPoint generator = ECC.getGeneratorPoint();
+        FieldPoint offCurve = new FieldPoint(generator.getX(), F2Element.ONE.dup());
+        assertFalse(ECC.isInPrimeSubgroup(offCurve));
+    }
+}
@@ -0,0 +1,96 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import fourqj.api.Ecies;
+import fourqj.api.KeyExchange;
+import fourqj.constants.Key;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.exceptions.ValidationException;
+import fourqj.types.data.Pair;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EciesTests {
+    private static final int SEGMENT_SIZE = 1000;
+    private final Pair<byte[], byte[]> RECIPIENT = KeyExchange.compressedKeyGeneration();
+
+    private static byte[] payload(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] encrypt(Ecies ecies, byte[] publicKey, byte[] plaintext) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ecies.encrypt(publicKey, Channels.newChannel(new ByteArrayInputStream(plaintext)), Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static byte[] decrypt(byte[] secretKey, byte[] ciphertext) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Ecies().decrypt(secretKey, Channels.newChannel(new ByteArrayInputStream(ciphertext)), Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    @Test
+    void testRoundTripAcrossSegmentBoundaries() throws Exception {
+        for (Ecies.Aead aead : Ecies.Aead.values()) {
+            Ecies ecies = new Ecies(aead, SEGMENT_SIZE);
+            for (int size : new int[] { 0, 1, SEGMENT_SIZE - 1, SEGMENT_SIZE, SEGMENT_SIZE + 1, 3 * SEGMENT_SIZE + 5 }) {
+                byte[] plaintext = payload(size);
+                byte[] ciphertext = encrypt(ecies, RECIPIENT.second, plaintext);
+                assertEquals(ecies.ciphertextSize(size), ciphertext.length, aead + " size " + size);
+                assertArrayEquals(plaintext, decrypt(RECIPIENT.first, ciphertext), aead + " size " + size);
+            }
+        }
+        byte[] large = payload(300_000);
+        assertArrayEquals(large, decrypt(RECIPIENT.first, encrypt(new Ecies(), RECIPIENT.second, large)));
+    }
+
+    @Test
+    void testEncryptionIsRandomized() throws Exception {
+        byte[] plaintext = payload(100);
+        byte[] first = encrypt(new Ecies(), RECIPIENT.second, plaintext);
+        byte[] second = encrypt(new Ecies(), RECIPIENT.second, plaintext);
+        assertFalse(Arrays.equals(first, second));
+    }
+
+    @Test
+    void testTamperingIsDetected() throws Exception {
+        Ecies ecies = new Ecies(Ecies.Aead.AES_256_GCM, SEGMENT_SIZE);
+        byte[] ciphertext = encrypt(ecies, RECIPIENT.second, payload(3 * SEGMENT_SIZE + 5));
+        int segment = SEGMENT_SIZE + Ecies.TAG_SIZE;
+
+        byte[] flipped = ciphertext.clone();
+        flipped[Ecies.HEADER_SIZE + segment + 7] ^= 1;
+        assertThrows(ValidationException.class, () -> decrypt(RECIPIENT.first, flipped));
+
+        byte[] truncated = Arrays.copyOf(ciphertext, Ecies.HEADER_SIZE + 3 * segment);
+        assertThrows(ValidationException.class, () -> decrypt(RECIPIENT.first, truncated));
+
+        byte[] reordered = ciphertext.clone();
+        System.arraycopy(ciphertext, Ecies.HEADER_SIZE, reordered, Ecies.HEADER_SIZE + segment, segment);
+        System.arraycopy(ciphertext, Ecies.HEADER_SIZE + segment, reordered, Ecies.HEADER_SIZE, segment);
+        assertThrows(ValidationException.class, () -> decrypt(RECIPIENT.first, reordered));
+
+        byte[] resized = ciphertext.clone();
+        resized[5] ^= 1;
+        assertThrows(ValidationException.class, () -> decrypt(RECIPIENT.first, resized));
+
+        assertThrows(ValidationException.class, () -> decrypt(KeyExchange.compressedKeyGeneration().first, ciphertext));
+        assertThrows(ValidationException.class, () -> decrypt(RECIPIENT.first, Arrays.copyOf(ciphertext, Ecies.HEADER_SIZE - 1)));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(InvalidArgumentException.class, () -> new Ecies(Ecies.Aead.AES_256_GCM, 0));
+        assertThrows(InvalidArgumentException.class, () -> new Ecies(Ecies.Aead.AES_256_GCM, Ecies.MAX_SEGMENT_SIZE + 1));
+        assertThrows(InvalidArgumentException.class, () -> encrypt(new Ecies(), new byte[Key.KEY_SIZE - 1], new byte[1]));
+        assertThrows(InvalidArgumentException.class, () -> new Ecies().ciphertextSize(-1));
+    }
+}
@@ -0,0 +1,148 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import fourqj.api.EphemeralKeyPool;
+import fourqj.api.KeyExchange;
+import fourqj.constants.Key;
+import fourqj.exceptions.EncryptionException;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.types.data.Pair;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class EphemeralKeyPoolTests {
+    // Cheap stand-in for key generation: the secret key holds a counter, the public key its bitwise complement
+    private static Supplier<Pair<byte[], byte[]>> countingGenerator(AtomicInteger counter, List<Pair<byte[], byte[]>> generated) {
+        return () -> {
+            byte[] secretKey = ByteBuffer.allocate(Key.KEY_SIZE).putInt(counter.incrementAndGet()).array();
+            byte[] publicKey = new byte[Key.KEY_SIZE];
+            for (int i = 0; i < Key.KEY_SIZE; i++) publicKey[i] = (byte) ~secretKey[i];
+            Pair<byte[], byte[]> pair = new Pair<>(secretKey, publicKey);
+            generated.add(pair);
+            return pair;
+        };
+    }
+
+    private static void awaitAvailable(EphemeralKeyPool pool, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (pool.available() < count) {
+            assertTrue(System.nanoTime() < deadline, "Pool was not refilled in time");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void testPoolServesValidKeyExchangePairs() throws Exception {
+        try (EphemeralKeyPool pool = new EphemeralKeyPool(4, 2)) {
+            awaitAvailable(pool, 4);
+            for (int i = 0; i < 3; i++) {
+                Pair<byte[], byte[]> pair = pool.take();
+                assertArrayEquals(KeyExchange.compressedPublicKey(pair.first), pair.second);
+            }
+            assertEquals(3, pool.hitCount());
+            assertEquals(0, pool.missCount());
+            awaitAvailable(pool, 4);                                // Dropped below the watermark, so refilled to capacity
+        }
+    }
+
+    @Test
+    void testFailingGeneratorBacksOffAndSurfacesInTake() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        AtomicInteger counter = new AtomicInteger();
+        Supplier<Pair<byte[], byte[]>> working = countingGenerator(counter, new CopyOnWriteArrayList<>());
+        Supplier<Pair<byte[], byte[]>> generator = () -> {
+            calls.incrementAndGet();
+            if (failing.get()) throw new IllegalStateException("entropy source unavailable");
+            return working.get();
+        };
+        try (EphemeralKeyPool pool = new EphemeralKeyPool(generator, 4, 2, 1)) {
+            Thread.sleep(300);
+            // 1, 2, 4, ... ms between attempts: a handful in 300 ms, where a spinning refiller makes millions
+            assertTrue(calls.get() < 20, "generator called " + calls.get() + " times");
+
+            EncryptionException e = assertThrows(EncryptionException.class, pool::take);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+
+            failing.set(false);
+            awaitAvailable(pool, 4);
+            assertNotNull(pool.take());
+        }
+    }
+
+    @Test
+    void testEachPairIsHandedOutOnce() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        EphemeralKeyPool pool = new EphemeralKeyPool(countingGenerator(counter, new CopyOnWriteArrayList<>()), 64, 16, 3);
+        Set<ByteBuffer> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService takers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new CopyOnWriteArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(takers.submit(() -> {
+                    for (int i = 0; i < 2000; i++) assertTrue(seen.add(ByteBuffer.wrap(pool.take().first)));
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            takers.shutdown();
+            pool.close();
+        }
+        assertEquals(8000, seen.size());
+        assertEquals(8000, pool.hitCount() + pool.missCount());
+    }
+
+    @Test
+    void testEmptyPoolFallsBackAndCloseWipes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger counter = new AtomicInteger();
+        List<Pair<byte[], byte[]>> generated = new CopyOnWriteArrayList<>();
+        Supplier<Pair<byte[], byte[]>> counting = countingGenerator(counter, generated);
+        Supplier<Pair<byte[], byte[]>> stalled = () -> {
+            if (Thread.currentThread().getName().startsWith("fourqj-key-pool")) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return counting.get();
+        };
+
+        EphemeralKeyPool pool = new EphemeralKeyPool(stalled, 8, 8, 1);
+        assertNotNull(pool.take());
+        assertEquals(0, pool.hitCount());
+        assertEquals(1, pool.missCount());
+
+        release.countDown();
+        awaitAvailable(pool, 8);
+        Pair<byte[], byte[]> taken = pool.take();
+        pool.close();
+        assertThrows(InvalidArgumentException.class, pool::take);
+
+        for (Pair<byte[], byte[]> pair : generated) {
+            boolean wiped = Arrays.equals(pair.first, new byte[Key.KEY_SIZE]);
+            assertEquals(pair != taken && pair != generated.get(0), wiped);
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(InvalidArgumentException.class, () -> new EphemeralKeyPool(0, 1));
+        assertThrows(InvalidArgumentException.class, () -> new EphemeralKeyPool(4, 5));
+        assertThrows(InvalidArgumentException.class, () -> new EphemeralKeyPool(4, 0));
+        assertThrows(InvalidArgumentException.class, () -> new EphemeralKeyPool(KeyExchange::compressedKeyGeneration, 4, 2, 0));
+    }
+}
@@ -0,0 +1,89 @@
+import fourqj.api.HalfAggregation;
+import fourqj.api.SchnorrQ;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.exceptions.InvalidArgumentException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class HalfAggregationTests {
+    private final SchnorrQ schnorrQ = new SchnorrQ();
+    private final HalfAggregation aggregation = new HalfAggregation();
+
+    private SigningKeyMaterial key(int seed) {
+        byte[] secretKey = new byte[Key.KEY_SIZE];
+        secretKey[0] = (byte) seed;
+        return schnorrQ.signingKeyMaterial(secretKey);
+    }
+
+    private byte[][][] signed(int count) {
+        byte[][] publicKeys = new byte[count][];
+        byte[][] messages = new byte[count][];
+        byte[][] signatures = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            SigningKeyMaterial key = key(i % 3 + 1);
+            publicKeys[i] = key.publicKey();
+            messages[i] = ("log entry " + i).getBytes(UTF_8);
+            signatures[i] = schnorrQ.sign(key, messages[i]);
+        }
+        return new byte[][][] { publicKeys, messages, signatures };
+    }
+
+    @Test
+    void testAggregateVerifies() {
+        for (int count : new int[] { 1, 2, 7 }) {
+            byte[][][] batch = signed(count);
+            byte[] aggregate = aggregation.aggregate(batch[0], batch[1], batch[2]);
+            assertEquals(HalfAggregation.aggregateSize(count), aggregate.length);
+            assertTrue(aggregation.verify(batch[0], batch[1], aggregate));
+        }
+
+        SchnorrQ k12 = new SchnorrQ(new Kangaroo12());
+        SigningKeyMaterial key = k12.signingKeyMaterial(new byte[Key.KEY_SIZE]);
+        byte[][] messages = { "a".getBytes(UTF_8), "b".getBytes(UTF_8) };
+        byte[][] publicKeys = { key.publicKey(), key.publicKey() };
+        byte[][] signatures = { k12.sign(key, messages[0]), k12.sign(key, messages[1]) };
+        HalfAggregation k12Aggregation = new HalfAggregation(new Kangaroo12());
+        assertTrue(k12Aggregation.verify(publicKeys, messages, k12Aggregation.aggregate(publicKeys, messages, signatures)));
+    }
+
+    @Test
+    void testTamperingIsDetected() {
+        byte[][][] batch = signed(5);
+        byte[] aggregate = aggregation.aggregate(batch[0], batch[1], batch[2]);
+
+        byte[][] messages = batch[1].clone();
+        messages[3] = "tampered".getBytes(UTF_8);
+        assertFalse(aggregation.verify(batch[0], messages, aggregate));
+
+        byte[][] swapped = { batch[1][1], batch[1][0], batch[1][2], batch[1][3], batch[1][4] };
+        assertFalse(aggregation.verify(batch[0], swapped, aggregate));
+
+        byte[] wrongS = aggregate.clone();
+        wrongS[wrongS.length - Key.KEY_SIZE] ^= 1;
+        assertFalse(aggregation.verify(batch[0], batch[1], wrongS));
+
+        byte[] wrongR = aggregate.clone();
+        wrongR[2 * Key.KEY_SIZE + 3] ^= 1;
+        assertFalse(aggregation.verify(batch[0], batch[1], wrongR));
+
+        byte[][] signatures = batch[2].clone();
+        signatures[2] = signatures[2].clone();
+        signatures[2][40] ^= 1;
+        assertFalse(aggregation.verify(batch[0], batch[1], aggregation.aggregate(batch[0], batch[1], signatures)));
+    }
+
+    @Test
+    void testMalformedInputsAreRejected() {
+        byte[][][] batch = signed(2);
+        byte[] aggregate = aggregation.aggregate(batch[0], batch[1], batch[2]);
+        assertThrows(InvalidArgumentException.class, () -> aggregation.aggregate(new byte[0][], new byte[0][], new byte[0][]));
+        assertThrows(InvalidArgumentException.class, () -> aggregation.aggregate(batch[0], batch[1], new byte[][] { batch[2][0] }));
+        assertThrows(InvalidArgumentException.class, () -> aggregation.verify(batch[0], batch[1], new byte[Key.SIGNATURE_SIZE]));
+        assertThrows(InvalidArgumentException.class, () -> aggregation.verify(batch[0], new byte[][] { batch[1][0] }, aggregate));
+    }
+}
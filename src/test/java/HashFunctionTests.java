@@ -0,0 +1,187 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.bouncycastle.crypto.digests.Kangaroo;
+import org.junit.jupiter.api.Test;
+
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.crypto.primitives.SHA512;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashFunctionTests {
+    private final byte[] MESSAGE = message(20_000);
+
+    private static byte[] message(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    void testSha512MatchesMessageDigest() throws Exception {
+        assertArrayEquals(MessageDigest.getInstance("SHA-512").digest(MESSAGE), new SHA512().computeHash(MESSAGE, false));
+    }
+
+    @Test
+    void testIncrementalMatchesOneShot() {
+        for (HashFunction hash : new HashFunction[] { new SHA512(), new Kangaroo12() }) {
+            byte[] expected = hash.computeHash(MESSAGE, false);
+
+            byte[] split = hash.hasher()
+                    .update(MESSAGE, 0, 100)
+                    .update(ByteBuffer.wrap(MESSAGE, 100, 9_900))
+                    .update(Arrays.copyOfRange(MESSAGE, 10_000, MESSAGE.length))
+                    .doFinal();
+            assertArrayEquals(expected, split);
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(MESSAGE.length).put(MESSAGE).flip();
+            byte[] out = new byte[HashFunction.HASH_OUTPUT_SIZE + 1];
+            hash.hasher().update(direct).doFinal(out, 1);
+            assertFalse(direct.hasRemaining());
+            assertArrayEquals(expected, Arrays.copyOfRange(out, 1, out.length));
+        }
+    }
+
+    @Test
+    void testHasherIsResetForReuse() {
+        for (HashFunction hash : new HashFunction[] { new SHA512(), new Kangaroo12() }) {
+            byte[] expected = hash.computeHash(MESSAGE, false);
+            hash.hasher().update(new byte[] { 1, 2, 3 });
+            assertArrayEquals(expected, hash.hasher().update(MESSAGE).doFinal());
+            assertArrayEquals(expected, hash.hasher().update(MESSAGE).doFinal());
+        }
+    }
+
+    @Test
+    void testDefaultHasherBuffersInput() {
+        HashFunction sha512 = new SHA512();
+        HashFunction plain = sha512::computeHash;
+        assertArrayEquals(sha512.computeHash(MESSAGE, false),
+                plain.hasher().update(MESSAGE, 0, 5).update(ByteBuffer.wrap(MESSAGE, 5, MESSAGE.length - 5)).doFinal());
+    }
+
+    private static byte[] serialKangaroo12(byte[] input, int length) {
+        Kangaroo.KangarooTwelve digest = new Kangaroo.KangarooTwelve();
+        digest.update(input, 0, length);
+        byte[] out = new byte[HashFunction.HASH_OUTPUT_SIZE];
+        digest.doFinal(out, 0, out.length);
+        return out;
+    }
+
+    @Test
+    void testKangaroo12MatchesSerialDigestAcrossLeafBoundaries() {
+        byte[] input = message(40 * 8192 + 3);
+        HashFunction k12 = new Kangaroo12();
+        for (int length : new int[] { 0, 1, 167, 168, 8190, 8191, 8192, 8193, 16383, 16384, 16385, 24575, 9 * 8192, 40 * 8192 + 3 }) {
+            byte[] expected = serialKangaroo12(input, length);
+            assertArrayEquals(expected, k12.computeHash(Arrays.copyOf(input, length), false), "length " + length);
+
+            HashFunction.Hasher hasher = k12.hasher();
+            Random random = new Random(length);
+            for (int offset = 0; offset < length; ) {
+                int step = Math.min(length - offset, random.nextInt(3 * 8192));
+                hasher.update(input, offset, step);
+                offset += step;
+            }
+            assertArrayEquals(expected, hasher.doFinal(), "split length " + length);
+        }
+    }
+
+    @Test
+    void testKangaroo12ParallelLeavesMatchSerialDigest() {
+        byte[] input = message(5 * 1024 * 1024 + 17);
+        byte[] expected = serialKangaroo12(input, input.length);
+        HashFunction k12 = new Kangaroo12();
+        assertArrayEquals(expected, k12.computeHash(input, false));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(input.length).put(input).flip();
+        assertArrayEquals(expected, k12.newHasher().update(input, 0, 5000).update(direct.position(5000)).doFinal());
+    }
+
+    @Test
+    void testDirectOutputMatchesComputeHash() {
+        for (HashFunction hash : new HashFunction[] { new SHA512(), new Kangaroo12() }) {
+            for (int length : new int[] { 0, 31, 200, 8191, 19_000 }) {
+                byte[] input = Arrays.copyOfRange(MESSAGE, 3, 3 + length);
+                byte[] expected = hash.computeHash(input, false);
+                byte[] out = new byte[HashFunction.HASH_OUTPUT_SIZE + 2];
+                hash.computeHash(MESSAGE, 3, length, out, 1, false);
+                assertArrayEquals(expected, Arrays.copyOfRange(out, 1, out.length - 1));
+                assertEquals(0, out[0]);
+                assertEquals(0, out[out.length - 1]);
+
+                hash.computeHash(MESSAGE, 3, length, out, 1, true);
+                for (int i = 0; i < HashFunction.HASH_OUTPUT_SIZE; i++) {
+                    assertEquals(expected[HashFunction.HASH_OUTPUT_SIZE - 1 - i], out[1 + i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testComputeHashesMatchesComputeHash() {
+        Random random = new Random(7);
+        byte[][] inputs = new byte[61][];
+        for (int i = 0; i < inputs.length; i++) inputs[i] = message(random.nextInt(400));
+        inputs[3] = new byte[0];
+        inputs[10] = message(166);
+        inputs[11] = message(167);
+        inputs[12] = message(168);
+        inputs[20] = message(8191);
+        inputs[21] = message(8192);
+        inputs[30] = message(30_000);
+
+        for (HashFunction hash : new HashFunction[] { new SHA512(), new Kangaroo12() }) {
+            byte[][] outputs = new byte[inputs.length][HashFunction.HASH_OUTPUT_SIZE];
+            hash.computeHashes(inputs, outputs);
+            for (int i = 0; i < inputs.length; i++) {
+                assertArrayEquals(hash.computeHash(inputs[i], false), outputs[i], "input " + i);
+            }
+            assertThrows(IllegalArgumentException.class, () -> hash.computeHashes(inputs, new byte[1][]));
+        }
+    }
+
+    @Test
+    void testKangaroo12XofMatchesSerialDigest() {
+        byte[] customization = "customization".getBytes(StandardCharsets.US_ASCII);
+        Kangaroo12 k12 = new Kangaroo12();
+        for (int length : new int[] { 0, 100, 8190, 20_000 }) {
+            byte[] input = message(length);
+            Kangaroo.KangarooTwelve digest = new Kangaroo.KangarooTwelve();
+            digest.init(new Kangaroo.KangarooParameters.Builder().setPersonalisation(customization).build());
+            digest.update(input, 0, length);
+            byte[] expected = new byte[300];
+            digest.doFinal(expected, 0, expected.length);
+
+            byte[] out = new byte[301];
+            k12.computeXof(input, customization, out, 1, 300);
+            assertArrayEquals(expected, Arrays.copyOfRange(out, 1, out.length), "length " + length);
+
+            byte[] plain = new byte[HashFunction.HASH_OUTPUT_SIZE + 10];
+            k12.computeXof(input, new byte[0], plain, 0, plain.length);
+            assertArrayEquals(k12.computeHash(input, false), Arrays.copyOf(plain, HashFunction.HASH_OUTPUT_SIZE));
+        }
+    }
+
+    @Test
+    void testKangaroo12RecoversFromOutOfRangeCalls() {
+        Kangaroo12 k12 = new Kangaroo12();
+        byte[] input = "abc".getBytes(StandardCharsets.US_ASCII);
+        byte[] expected = k12.newHasher().update(input).doFinal();
+
+        byte[] ones = new byte[50];
+        Arrays.fill(ones, (byte) 1);
+        assertThrows(IndexOutOfBoundsException.class, () -> k12.hasher().update(ones, 0, 100));
+        assertArrayEquals(expected, k12.computeHash(input, false));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> k12.computeHash(ones, 10, 50, new byte[HashFunction.HASH_OUTPUT_SIZE], 0, false));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> k12.computeHash(ones, 0, 50, new byte[HashFunction.HASH_OUTPUT_SIZE], 1, false));
+        assertArrayEquals(expected, k12.computeHash(input, false));
+    }
+}
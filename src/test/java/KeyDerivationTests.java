@@ -0,0 +1,65 @@
+import java.util.Arrays;
+
+import fourqj.api.KeyDerivation;
+import fourqj.api.SchnorrQ;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.exceptions.InvalidArgumentException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class KeyDerivationTests {
+    private final byte[] CHAIN_CODE = "0123456789abcdef0123456789abcdef".getBytes(UTF_8);
+
+    private void checkDerivation(SchnorrQ schnorrQ, KeyDerivation derivation) {
+        SigningKeyMaterial master = schnorrQ.signingKeyMaterial(new byte[Key.KEY_SIZE]);
+        byte[] masterPublicKey = master.publicKey();
+
+        SigningKeyMaterial child = derivation.deriveSigningKey(master, CHAIN_CODE, 7);
+        assertArrayEquals(derivation.derivePublicKey(masterPublicKey, CHAIN_CODE, 7), child.publicKey());
+        byte[] message = "tenant 7".getBytes(UTF_8);
+        byte[] signature = schnorrQ.sign(child, message);
+        assertTrue(schnorrQ.verify(child.publicKey(), signature, message));
+        assertFalse(schnorrQ.verify(masterPublicKey, signature, message));
+        assertArrayEquals(signature, schnorrQ.sign(derivation.deriveSigningKey(master, CHAIN_CODE, 7), message));
+
+        byte[] childChainCode = derivation.deriveChainCode(masterPublicKey, CHAIN_CODE, 7);
+        SigningKeyMaterial grandchild = derivation.deriveSigningKey(child, childChainCode, 3);
+        assertArrayEquals(derivation.derivePublicKey(child.publicKey(), childChainCode, 3), grandchild.publicKey());
+    }
+
+    @Test
+    void testPublicDerivationMatchesSecretDerivation() {
+        checkDerivation(new SchnorrQ(), new KeyDerivation());
+        checkDerivation(new SchnorrQ(new Kangaroo12()), new KeyDerivation(new Kangaroo12()));
+    }
+
+    @Test
+    void testBatchDerivationMatchesSingle() {
+        KeyDerivation derivation = new KeyDerivation();
+        byte[] masterPublicKey = new SchnorrQ().signingKeyMaterial(new byte[Key.KEY_SIZE]).publicKey();
+        byte[] batch = derivation.derivePublicKeys(masterPublicKey, CHAIN_CODE, 100, 12);
+        assertEquals(12 * Key.KEY_SIZE, batch.length);
+        for (int i = 0; i < 12; i++) {
+            assertArrayEquals(derivation.derivePublicKey(masterPublicKey, CHAIN_CODE, 100 + i),
+                    Arrays.copyOfRange(batch, i * Key.KEY_SIZE, (i + 1) * Key.KEY_SIZE));
+        }
+        assertFalse(Arrays.equals(batch, 0, Key.KEY_SIZE, batch, Key.KEY_SIZE, 2 * Key.KEY_SIZE));
+        assertEquals(0, derivation.derivePublicKeys(masterPublicKey, CHAIN_CODE, Integer.MAX_VALUE, 0).length);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        KeyDerivation derivation = new KeyDerivation();
+        SigningKeyMaterial master = new SchnorrQ().signingKeyMaterial(new byte[Key.KEY_SIZE]);
+        assertThrows(InvalidArgumentException.class, () -> derivation.deriveSigningKey(master, new byte[31], 0));
+        assertThrows(InvalidArgumentException.class, () -> derivation.deriveSigningKey(master, CHAIN_CODE, -1));
+        assertThrows(InvalidArgumentException.class, () -> new KeyDerivation(new Kangaroo12()).deriveSigningKey(master, CHAIN_CODE, 0));
+        assertThrows(InvalidArgumentException.class,
+                () -> derivation.derivePublicKeys(master.publicKey(), CHAIN_CODE, Integer.MAX_VALUE, 2));
+    }
+}
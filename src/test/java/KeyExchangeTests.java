@@ -0,0 +1,81 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import fourqj.api.KeyExchange;
+import fourqj.api.PeerPublicKey;
+import fourqj.constants.Key;
+import fourqj.crypto.core.ECC;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.exceptions.ValidationException;
+import fourqj.types.data.F2Element;
+import fourqj.types.data.Pair;
+import fourqj.types.point.FieldPoint;
+import fourqj.utils.CryptoUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyExchangeTests {
+    private static final int HEX_RADIX = 16;
+
+    // A point of order 56*N and a point of order 7, see ECCSubgroupTests
+    private final byte[] FULL_ORDER_KEY = encode(
+            "6600f407ab11a7dbd345ecba154c37ce", "4178fb0a64f38986ff7ce553b749591e",
+            "72890a4139292d22e255accb1a466884", "35d6b5f18e7aa6e99f19950499dd251d");
+    private final byte[] ORDER_7_KEY = encode(
+            "6c459ee0a70bd152e38010145fe33b83", "6ec58710ec5db904be5d8ee3e855e434",
+            "1c69fd11fdea9df2228b9bbe951f90ce", "648f885068751b371f1ff6e24dee8289");
+
+    private static byte[] encode(String xr, String xi, String yr, String yi) {
+        byte[] encoded = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(new FieldPoint(
+                new F2Element(new BigInteger(xr, HEX_RADIX), new BigInteger(xi, HEX_RADIX)),
+                new F2Element(new BigInteger(yr, HEX_RADIX), new BigInteger(yi, HEX_RADIX))
+        ), encoded, 0);
+        return encoded;
+    }
+
+    @Test
+    void testBothSidesAgree() {
+        Pair<byte[], byte[]> alice = KeyExchange.compressedKeyGeneration();
+        Pair<byte[], byte[]> bob = KeyExchange.compressedKeyGeneration();
+        assertArrayEquals(alice.second, KeyExchange.compressedPublicKey(alice.first));
+
+        byte[] aliceSecret = KeyExchange.compressedSecretAgreement(alice.first, bob.second);
+        byte[] bobSecret = KeyExchange.compressedSecretAgreement(bob.first, alice.second);
+        assertEquals(KeyExchange.SHARED_SECRET_SIZE, aliceSecret.length);
+        assertArrayEquals(aliceSecret, bobSecret);
+
+        PeerPublicKey cachedBob = KeyExchange.peerPublicKey(bob.second);
+        assertArrayEquals(bob.second, cachedBob.encoded());
+        assertArrayEquals(aliceSecret, KeyExchange.compressedSecretAgreement(alice.first, cachedBob));
+
+        Pair<byte[], byte[]> carol = KeyExchange.compressedKeyGeneration();
+        assertFalse(Arrays.equals(aliceSecret, KeyExchange.compressedSecretAgreement(carol.first, cachedBob)));
+    }
+
+    @Test
+    void testCofactorIsCleared() {
+        byte[] secretKey = KeyExchange.compressedKeyGeneration().first;
+        assertArrayEquals(KeyExchange.compressedSecretAgreement(secretKey, FULL_ORDER_KEY),
+                KeyExchange.compressedSecretAgreement(secretKey, KeyExchange.peerPublicKey(FULL_ORDER_KEY)));
+
+        byte[] neutral = new byte[Key.KEY_SIZE];
+        CryptoUtils.encode(ECC.eccNorm(ECC.eccIdentity()), neutral, 0);
+        for (byte[] lowOrder : new byte[][] { ORDER_7_KEY, neutral }) {
+            assertThrows(ValidationException.class, () -> KeyExchange.compressedSecretAgreement(secretKey, lowOrder));
+            assertThrows(ValidationException.class, () -> KeyExchange.peerPublicKey(lowOrder));
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        byte[] publicKey = KeyExchange.compressedKeyGeneration().second;
+        assertThrows(InvalidArgumentException.class, () -> KeyExchange.compressedPublicKey(new byte[31]));
+        assertThrows(InvalidArgumentException.class, () -> KeyExchange.compressedSecretAgreement(null, publicKey));
+        assertThrows(InvalidArgumentException.class, () -> KeyExchange.compressedSecretAgreement(new byte[Key.KEY_SIZE], new byte[33]));
+        assertThrows(IllegalArgumentException.class, () -> KeyExchange.compressedSecretAgreement(new byte[Key.KEY_SIZE], (PeerPublicKey) null));
+        assertThrows(ValidationException.class, () -> KeyExchange.compressedSecretAgreement(new byte[Key.KEY_SIZE], publicKey));
+    }
+}
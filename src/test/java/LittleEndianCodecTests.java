@@ -0,0 +1,67 @@
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.Test;
+
+import fourqj.constants.Key;
+import fourqj.types.data.F2Element;
+import fourqj.utils.BigIntegerUtils;
+import fourqj.utils.CryptoUtils;
+import fourqj.utils.LittleEndianCodec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LittleEndianCodecTests {
+    private final byte[] COUNTING = HexFormat.of().parseHex("000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f");
+    private final BigInteger VALID_SIGNATURE = new BigInteger("f81ec975a9e0d24c480f1456104ca73c2d2785640f45266d03de6b1ef23d9c7edbc5904c4df55027393e3f25cf6a08e889fddd074b2c50e97f5962465e551c00", 16);
+
+    @Test
+    void testReadScalarIsLittleEndian() {
+        BigInteger expected = new BigInteger("1f1e1d1c1b1a191817161514131211100f0e0d0c0b0a09080706050403020100", 16);
+        assertEquals(expected, LittleEndianCodec.readScalar(COUNTING, 0));
+        assertEquals(expected, LittleEndianCodec.readScalar(ByteBuffer.allocateDirect(Key.KEY_SIZE).put(COUNTING), 0));
+        assertEquals(BigInteger.valueOf(0x0201), LittleEndianCodec.readInteger(COUNTING, 1, 2));
+        assertEquals(new BigInteger("0c0b0a090807060504030201", 16), LittleEndianCodec.readInteger(COUNTING, 1, 12));
+    }
+
+    @Test
+    void testWriteScalarRoundTrip() {
+        byte[] out = new byte[Key.KEY_SIZE + 3];
+        LittleEndianCodec.writeScalar(LittleEndianCodec.readScalar(COUNTING, 0), out, 3);
+        assertArrayEquals(COUNTING, Arrays.copyOfRange(out, 3, out.length));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(Key.KEY_SIZE + 5);
+        LittleEndianCodec.writeScalar(LittleEndianCodec.readScalar(COUNTING, 0), direct, 5);
+        assertEquals(LittleEndianCodec.readScalar(COUNTING, 0), LittleEndianCodec.readScalar(direct, 5));
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    void testWriteShortValueZeroFills() {
+        byte[] out = new byte[Key.KEY_SIZE];
+        Arrays.fill(out, (byte) 0x55);
+        LittleEndianCodec.writeScalar(BigInteger.valueOf(0x0102), out, 0);
+        assertEquals(0x02, out[0]);
+        assertEquals(0x01, out[1]);
+        for (int i = 2; i < out.length; i++) assertEquals(0, out[i]);
+    }
+
+    @Test
+    void testF2ElementMatchesBigIntegerSplit() {
+        F2Element element = LittleEndianCodec.readF2Element(COUNTING, 0);
+        assertEquals(BigIntegerUtils.convertBigIntegerToF2Element(new BigInteger(1, COUNTING)), element);
+        assertEquals(new BigInteger("0f0e0d0c0b0a09080706050403020100", 16), element.real);
+
+        byte[] out = new byte[Key.KEY_SIZE];
+        LittleEndianCodec.writeF2Element(element, out, 0);
+        assertArrayEquals(COUNTING, out);
+    }
+
+    @Test
+    void testSignatureSplit() {
+        byte[] signature = BigIntegerUtils.bigIntegerToByte(VALID_SIGNATURE, Key.SIGNATURE_SIZE, false);
+        assertEquals(LittleEndianCodec.readScalar(signature, Key.KEY_SIZE), CryptoUtils.extractSignatureTopBytesReverse(VALID_SIGNATURE));
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.Arrays;
+
+import fourqj.api.MuSig;
+import fourqj.api.SchnorrQ;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.exceptions.InvalidArgumentException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class MuSigTests {
+    private final byte[] MESSAGE = "approve transfer 42".getBytes(UTF_8);
+
+    private SigningKeyMaterial[] signers(SchnorrQ schnorrQ, int count) {
+        SigningKeyMaterial[] signers = new SigningKeyMaterial[count];
+        for (int i = 0; i < count; i++) {
+            byte[] secretKey = new byte[Key.KEY_SIZE];
+            secretKey[0] = (byte) (i + 1);
+            signers[i] = schnorrQ.signingKeyMaterial(secretKey);
+        }
+        return signers;
+    }
+
+    private static byte[][] publicKeys(SigningKeyMaterial[] signers) {
+        byte[][] publicKeys = new byte[signers.length][];
+        for (int i = 0; i < signers.length; i++) publicKeys[i] = signers[i].publicKey();
+        return publicKeys;
+    }
+
+    private void checkAggregateSignature(SchnorrQ schnorrQ, MuSig muSig, int count) {
+        SigningKeyMaterial[] signers = signers(schnorrQ, count);
+        MuSig.AggregateKey key = muSig.aggregateKeys(publicKeys(signers));
+
+        MuSig.SecretNonce[] nonces = new MuSig.SecretNonce[count];
+        byte[][] publicNonces = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            nonces[i] = muSig.generateNonce(signers[i]);
+            publicNonces[i] = nonces[i].publicNonce();
+        }
+
+        MuSig.Session session = muSig.session(key, publicNonces, MESSAGE);
+        byte[][] partials = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            partials[i] = session.partialSign(signers[i], nonces[i]);
+            assertTrue(session.verifyPartial(i, partials[i]));
+        }
+        byte[] signature = session.aggregate(partials);
+        assertTrue(schnorrQ.verify(key.publicKey(), signature, MESSAGE));
+        assertFalse(schnorrQ.verify(key.publicKey(), signature, "approve transfer 43".getBytes(UTF_8)));
+
+        if (count > 1) {
+            assertFalse(session.verifyPartial(1, partials[0]));
+            byte[][] swapped = partials.clone();
+            swapped[0] = partials[1];
+            swapped[1] = partials[0];
+            assertArrayEquals(signature, session.aggregate(swapped));
+            swapped[1] = partials[1];
+            assertFalse(schnorrQ.verify(key.publicKey(), session.aggregate(swapped), MESSAGE));
+        }
+    }
+
+    @Test
+    void testAggregateSignatureVerifiesUnderAggregateKey() {
+        checkAggregateSignature(new SchnorrQ(), new MuSig(), 1);
+        checkAggregateSignature(new SchnorrQ(), new MuSig(), 5);
+        checkAggregateSignature(new SchnorrQ(new Kangaroo12()), new MuSig(new Kangaroo12()), 3);
+    }
+
+    @Test
+    void testAggregateKeyDependsOnKeyList() {
+        MuSig muSig = new MuSig();
+        byte[][] publicKeys = publicKeys(signers(new SchnorrQ(), 3));
+        byte[] aggregate = muSig.aggregateKeys(publicKeys).publicKey();
+        assertArrayEquals(aggregate, muSig.aggregateKeys(publicKeys.clone()).publicKey());
+
+        byte[][] reordered = { publicKeys[2], publicKeys[0], publicKeys[1] };
+        assertFalse(Arrays.equals(aggregate, muSig.aggregateKeys(reordered).publicKey()));
+    }
+
+    @Test
+    void testSecretNonceIsSingleUse() {
+        SchnorrQ schnorrQ = new SchnorrQ();
+        MuSig muSig = new MuSig();
+        SigningKeyMaterial[] signers = signers(schnorrQ, 2);
+        MuSig.AggregateKey key = muSig.aggregateKeys(publicKeys(signers));
+        MuSig.SecretNonce first = muSig.generateNonce(signers[0]);
+        MuSig.SecretNonce second = muSig.generateNonce(signers[1]);
+        byte[][] publicNonces = { first.publicNonce(), second.publicNonce() };
+
+        MuSig.Session session = muSig.session(key, publicNonces, MESSAGE);
+        assertThrows(InvalidArgumentException.class, () -> session.partialSign(signers[0], second));
+        session.partialSign(signers[0], first);
+        assertThrows(InvalidArgumentException.class, () -> session.partialSign(signers[0], first));
+        MuSig.Session other = muSig.session(key, publicNonces, "another message".getBytes(UTF_8));
+        assertThrows(InvalidArgumentException.class, () -> other.partialSign(signers[0], first));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        SchnorrQ schnorrQ = new SchnorrQ();
+        MuSig muSig = new MuSig();
+        SigningKeyMaterial[] signers = signers(schnorrQ, 2);
+        byte[][] publicKeys = publicKeys(signers);
+        assertThrows(InvalidArgumentException.class, () -> muSig.aggregateKeys(new byte[0][]));
+        assertThrows(InvalidArgumentException.class, () -> muSig.aggregateKeys(new byte[][] { publicKeys[0], publicKeys[0] }));
+        assertThrows(InvalidArgumentException.class, () -> muSig.aggregateKeys(new byte[][] { new byte[31] }));
+
+        MuSig.AggregateKey key = muSig.aggregateKeys(publicKeys);
+        byte[] nonce = muSig.generateNonce(signers[0]).publicNonce();
+        assertThrows(InvalidArgumentException.class, () -> muSig.session(key, new byte[][] { nonce }, MESSAGE));
+        MuSig.Session session = muSig.session(key, new byte[][] { nonce, nonce }, MESSAGE);
+        assertThrows(InvalidArgumentException.class, () -> session.verifyPartial(2, new byte[Key.KEY_SIZE]));
+        assertThrows(InvalidArgumentException.class, () -> session.aggregate(new byte[][] { new byte[Key.KEY_SIZE] }));
+        SigningKeyMaterial outsider = signers(schnorrQ, 3)[2];
+        assertThrows(InvalidArgumentException.class, () -> session.partialSign(outsider, muSig.generateNonce(outsider)));
+    }
+}
@@ -107,4 +107,11 @@ public class PUtilTests {
         BigInteger expected = base.modPow(BigInteger.ONE.shiftLeft(125).subtract(ONE), PRIME);
         assertEquals(expected, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFpSqrt1271() {
+        BigInteger root = new BigInteger("1234567890abcdef1234567890abcdef", 16);
+        BigInteger result = PUtil.fpSqrt1271(PUtil.fpSqr1271(root));
+        assertTrue(result.equals(root) || result.equals(PUtil.fpNeg1271(root)));
+    }
+}
@@ -0,0 +1,61 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import fourqj.api.PrecomputedNonceSigner;
+import fourqj.api.SchnorrQ;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.utils.BigIntegerUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class PrecomputedNonceSignerTests {
+    private final BigInteger VALID_PRIVATE_KEY = new BigInteger("9aa51ec6af8420987dee03b1453a9eeb8e7bf17db8b7a175b6294ba2095410bd", 16);
+    private final byte[] SECRET_KEY = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+
+    @Test
+    void testSignaturesVerifyAndNeverReuseNonces() throws InterruptedException {
+        for (SchnorrQ schnorrQ : new SchnorrQ[] { new SchnorrQ(), new SchnorrQ(new Kangaroo12()) }) {
+            SigningKeyMaterial key = schnorrQ.signingKeyMaterial(SECRET_KEY);
+            try (PrecomputedNonceSigner signer = schnorrQ.precomputedNonceSigner(key, 4)) {
+                long deadline = System.nanoTime() + 30_000_000_000L;
+                while (signer.available() < 4 && System.nanoTime() < deadline) Thread.sleep(10);
+
+                byte[] message = "online".getBytes(UTF_8);
+                Set<String> commitments = new HashSet<>();
+                for (int i = 0; i < 6; i++) {
+                    byte[] signature = signer.sign(message);
+                    assertTrue(schnorrQ.verify(key.publicKey(), signature, message));
+                    assertTrue(commitments.add(Arrays.toString(Arrays.copyOf(signature, Key.KEY_SIZE))));
+                }
+                assertTrue(signer.hitCount() >= 4);
+                assertEquals(6, signer.hitCount() + signer.missCount());
+
+                byte[] block = new byte[Key.SIGNATURE_SIZE + 3];
+                signer.sign(message, block, 3);
+                assertTrue(schnorrQ.verify(key.publicKey(), Arrays.copyOfRange(block, 3, block.length), message));
+            }
+        }
+    }
+
+    @Test
+    void testClosedSignerAndBadArguments() {
+        SchnorrQ schnorrQ = new SchnorrQ();
+        SigningKeyMaterial key = schnorrQ.signingKeyMaterial(SECRET_KEY);
+        assertThrows(InvalidArgumentException.class, () -> schnorrQ.precomputedNonceSigner(key, 0));
+        assertThrows(InvalidArgumentException.class, () -> new SchnorrQ(new Kangaroo12()).precomputedNonceSigner(key, 2));
+
+        PrecomputedNonceSigner signer = schnorrQ.precomputedNonceSigner(key, 2);
+        assertThrows(InvalidArgumentException.class, () -> signer.sign(new byte[1], new byte[10], 0));
+        signer.close();
+        assertEquals(0, signer.available());
+        assertThrows(InvalidArgumentException.class, () -> signer.sign(new byte[1]));
+    }
+}
@@ -0,0 +1,65 @@
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import fourqj.constants.Key;
+import fourqj.utils.CryptoUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class RandomBytesTests {
+    @Test
+    void testRandomIntegersAreNonNegative() {
+        for (int i = 0; i < 256; i++) {
+            BigInteger value = CryptoUtils.randomBytes(Key.KEY_SIZE);
+            assertTrue(value.signum() >= 0);
+            assertTrue(value.bitLength() <= Key.KEY_SIZE * Byte.SIZE);
+        }
+    }
+
+    @Test
+    void testRangesAndBuffersAreFilledExactly() {
+        byte[] out = new byte[48];
+        CryptoUtils.randomBytes(out, 8, Key.KEY_SIZE);
+        for (int i = 0; i < 8; i++) assertEquals(0, out[i]);
+        for (int i = 8 + Key.KEY_SIZE; i < out.length; i++) assertEquals(0, out[i]);
+
+        for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(40), ByteBuffer.allocateDirect(40) }) {
+            buffer.position(4).limit(36);
+            CryptoUtils.randomBytes(buffer);
+            assertEquals(36, buffer.position());
+            buffer.limit(40);
+            assertEquals(0, buffer.get(0));
+            assertEquals(0, buffer.get(39));
+        }
+    }
+
+    @Test
+    void testConcurrentThreadsDrawDistinctBytes() throws Exception {
+        Set<ByteBuffer> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        byte[] key = new byte[Key.KEY_SIZE];
+                        CryptoUtils.randomBytes(key);
+                        assertTrue(seen.add(ByteBuffer.wrap(key)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(4000, seen.size());
+    }
+}
@@ -1,15 +1,32 @@
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HexFormat;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import fourqj.exceptions.ValidationException;
 import fourqj.exceptions.EncryptionException;
 import fourqj.exceptions.InvalidArgumentException;
 import fourqj.api.SchnorrQ;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.constants.Key;
+import fourqj.utils.BigIntegerUtils;
 import fourqj.utils.ByteArrayUtils;
 import fourqj.types.data.Pair;
 
@@ -190,6 +207,272 @@ public class SchnorrQTests {
         assertTrue(schnorrQ.schnorrQVerify(VALID_PUBLIC_KEY, VALID_SIGNATURE, VALID_MESSAGE));
     }
 
+    @Test
+    void testByteKeyGenSignVerify() throws EncryptionException {
+        byte[] secretKey = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+        byte[] publicKey = schnorrQ.keyGeneration(secretKey);
+        assertEquals(VALID_PUBLIC_KEY, new BigInteger(1, publicKey));
+
+        byte[] signature = schnorrQ.sign(secretKey, publicKey, VALID_MESSAGE);
+        assertEquals(VALID_SIGNATURE, new BigInteger(1, signature));
+        assertTrue(schnorrQ.verify(publicKey, signature, VALID_MESSAGE));
+
+        signature[Key.KEY_SIZE] ^= 1;
+        assertFalse(schnorrQ.verify(publicKey, signature, VALID_MESSAGE));
+    }
+
+    @Test
+    void testByteBufferSignWithOffsets() throws EncryptionException {
+        byte[] secretKey = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+        byte[] publicKey = BigIntegerUtils.bigIntegerToByte(VALID_PUBLIC_KEY, Key.KEY_SIZE, false);
+        byte[] expected = BigIntegerUtils.bigIntegerToByte(VALID_SIGNATURE, Key.SIGNATURE_SIZE, false);
+
+        ByteBuffer heap = ByteBuffer.allocate(Key.SIGNATURE_SIZE + 3).position(3);
+        schnorrQ.sign(secretKey, publicKey, ByteBuffer.wrap(VALID_MESSAGE), heap);
+        assertEquals(Key.SIGNATURE_SIZE + 3, heap.position());
+        assertArrayEquals(expected, Arrays.copyOfRange(heap.array(), 3, Key.SIGNATURE_SIZE + 3));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(Key.SIGNATURE_SIZE);
+        schnorrQ.sign(secretKey, publicKey, ByteBuffer.wrap(VALID_MESSAGE), direct);
+        byte[] fromDirect = new byte[Key.SIGNATURE_SIZE];
+        direct.flip().get(fromDirect);
+        assertArrayEquals(expected, fromDirect);
+
+        byte[] packed = new byte[2 + Key.SIGNATURE_SIZE + Key.KEY_SIZE + VALID_MESSAGE.length];
+        System.arraycopy(publicKey, 0, packed, 2 + Key.SIGNATURE_SIZE, Key.KEY_SIZE);
+        System.arraycopy(VALID_MESSAGE, 0, packed, 2 + Key.SIGNATURE_SIZE + Key.KEY_SIZE, VALID_MESSAGE.length);
+        schnorrQ.sign(secretKey, 0, packed, 2 + Key.SIGNATURE_SIZE, packed, 2 + Key.SIGNATURE_SIZE + Key.KEY_SIZE,
+                VALID_MESSAGE.length, packed, 2);
+        assertArrayEquals(expected, Arrays.copyOfRange(packed, 2, 2 + Key.SIGNATURE_SIZE));
+        assertTrue(schnorrQ.verify(packed, 2 + Key.SIGNATURE_SIZE, packed, 2, packed,
+                2 + Key.SIGNATURE_SIZE + Key.KEY_SIZE, VALID_MESSAGE.length));
+    }
+
+    @Test
+    void testStreamingVerify() throws IOException {
+        byte[] secretKey = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+        byte[] publicKey = BigIntegerUtils.bigIntegerToByte(VALID_PUBLIC_KEY, Key.KEY_SIZE, false);
+        byte[] message = new byte[200_003];
+        new Random(7).nextBytes(message);
+        byte[] signature = schnorrQ.sign(secretKey, publicKey, message);
+
+        assertTrue(schnorrQ.verify(publicKey, signature, new ByteArrayInputStream(message)));
+        assertTrue(schnorrQ.verify(publicKey, signature, Channels.newChannel(new ByteArrayInputStream(message))));
+
+        message[message.length - 1] ^= 1;
+        assertFalse(schnorrQ.verify(publicKey, signature, new ByteArrayInputStream(message)));
+        assertFalse(schnorrQ.verify(publicKey, signature, Channels.newChannel(new ByteArrayInputStream(message))));
+    }
+
+    @Test
+    void testSignFileMatchesInMemorySignature() throws IOException {
+        byte[] secretKey = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+        byte[] message = new byte[300_001];
+        new Random(11).nextBytes(message);
+        Path file = Files.createTempFile("schnorrq", ".bin");
+        try {
+            Files.write(file, message);
+            for (SchnorrQ scheme : new SchnorrQ[] { schnorrQ, new SchnorrQ(new Kangaroo12()) }) {
+                SigningKeyMaterial key = scheme.signingKeyMaterial(secretKey);
+                byte[] expected = scheme.sign(secretKey, key.publicKey(), message);
+                assertArrayEquals(expected, scheme.sign(key, message));
+                assertArrayEquals(expected, scheme.sign(key, file));
+                assertTrue(scheme.verify(key.publicKey(), expected, message));
+            }
+
+            Files.write(file, new byte[0]);
+            SigningKeyMaterial key = schnorrQ.signingKeyMaterial(secretKey);
+            assertArrayEquals(schnorrQ.sign(key, new byte[0]), schnorrQ.sign(key, file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testSignFileFailsWhenTruncatedWhileMapped() throws IOException {
+        byte[] secretKey = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+        Path file = Files.createTempFile("schnorrq", ".bin");
+        try {
+            Files.write(file, new byte[1 << 20]);
+            // Truncates the file as soon as the first mapped segment reaches the hash, as a concurrent writer could
+            SHA512 sha512 = new SHA512();
+            HashFunction truncating = new HashFunction() {
+                @Override
+                public byte[] computeHash(byte[] bytes, boolean reverse) {
+                    return sha512.computeHash(bytes, reverse);
+                }
+
+                @Override
+                public Hasher hasher() {
+                    Hasher hasher = sha512.newHasher();
+                    return new Hasher() {
+                        @Override
+                        public Hasher update(byte[] input, int offset, int length) {
+                            hasher.update(input, offset, length);
+                            return this;
+                        }
+
+                        @Override
+                        public Hasher update(ByteBuffer input) {
+                            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                                channel.truncate(0);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            hasher.update(input);
+                            return this;
+                        }
+
+                        @Override
+                        public void doFinal(byte[] out, int offset) {
+                            hasher.doFinal(out, offset);
+                        }
+                    };
+                }
+            };
+            SchnorrQ scheme = new SchnorrQ(truncating);
+            SigningKeyMaterial key = scheme.signingKeyMaterial(secretKey);
+            assertThrows(EncryptionException.class, () -> scheme.sign(key, file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testSigningKeyMaterialChecks() {
+        byte[] secretKey = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+        SigningKeyMaterial key = schnorrQ.signingKeyMaterial(secretKey);
+        assertEquals(VALID_PUBLIC_KEY, new BigInteger(1, key.publicKey()));
+        assertThrows(InvalidArgumentException.class, () -> new SchnorrQ(new Kangaroo12()).sign(key, VALID_MESSAGE));
+
+        key.destroy();
+        assertTrue(key.isDestroyed());
+        assertThrows(InvalidArgumentException.class, () -> schnorrQ.sign(key, VALID_MESSAGE));
+    }
+
+    @Test
+    void testGenerateKeyPairsMatchesKeyGeneration() {
+        byte[] keyPairs = schnorrQ.generateKeyPairs(130);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        byte[] fromExecutor;
+        try {
+            fromExecutor = schnorrQ.generateKeyPairs(70, executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(130 * Key.KEY_PAIR_SIZE, keyPairs.length);
+        assertEquals(70 * Key.KEY_PAIR_SIZE, fromExecutor.length);
+        for (byte[] pairs : new byte[][] { keyPairs, fromExecutor }) {
+            for (int offset = 0; offset < pairs.length; offset += Key.KEY_PAIR_SIZE) {
+                byte[] secretKey = Arrays.copyOfRange(pairs, offset, offset + Key.KEY_SIZE);
+                assertArrayEquals(schnorrQ.keyGeneration(secretKey),
+                        Arrays.copyOfRange(pairs, offset + Key.KEY_SIZE, offset + Key.KEY_PAIR_SIZE));
+            }
+        }
+        assertFalse(Arrays.equals(keyPairs, 0, Key.KEY_SIZE, keyPairs, Key.KEY_PAIR_SIZE, Key.KEY_PAIR_SIZE + Key.KEY_SIZE));
+        assertEquals(0, schnorrQ.generateKeyPairs(0).length);
+        assertThrows(InvalidArgumentException.class, () -> schnorrQ.generateKeyPairs(-1));
+    }
+
+    @Test
+    void testSignAllMatchesSequentialSigning() {
+        byte[] secretKey = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+        SigningKeyMaterial key = schnorrQ.signingKeyMaterial(secretKey);
+        Random random = new Random(13);
+        byte[][] messages = new byte[37][];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = new byte[random.nextInt(300)];
+            random.nextBytes(messages[i]);
+        }
+
+        byte[] signatures = new byte[messages.length * Key.SIGNATURE_SIZE];
+        schnorrQ.signAll(key, messages, signatures);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            byte[] fromExecutor = new byte[signatures.length];
+            schnorrQ.signAll(key, Arrays.asList(messages), fromExecutor);
+            assertArrayEquals(signatures, fromExecutor);
+            schnorrQ.signAll(key, messages, fromExecutor, executor);
+            assertArrayEquals(signatures, fromExecutor);
+        } finally {
+            executor.shutdown();
+        }
+        for (int i = 0; i < messages.length; i++) {
+            assertArrayEquals(schnorrQ.sign(key, messages[i]),
+                    Arrays.copyOfRange(signatures, i * Key.SIGNATURE_SIZE, (i + 1) * Key.SIGNATURE_SIZE));
+        }
+    }
+
+    @Test
+    void testBulkKangaroo12MixesBatchedAndStreamedMessages() {
+        SchnorrQ kangaroo = new SchnorrQ(new Kangaroo12());
+        byte[] secretKey = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+        SigningKeyMaterial key = kangaroo.signingKeyMaterial(secretKey);
+        Random random = new Random(17);
+        byte[][] messages = new byte[40][];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = new byte[i % 5 == 0 ? 8100 + random.nextInt(200) : random.nextInt(300)];
+            random.nextBytes(messages[i]);
+        }
+
+        byte[] signatures = new byte[messages.length * Key.SIGNATURE_SIZE];
+        kangaroo.signAll(key, messages, signatures);
+        byte[][] publicKeys = new byte[messages.length][];
+        byte[][] split = new byte[messages.length][];
+        for (int i = 0; i < messages.length; i++) {
+            publicKeys[i] = key.publicKey();
+            split[i] = Arrays.copyOfRange(signatures, i * Key.SIGNATURE_SIZE, (i + 1) * Key.SIGNATURE_SIZE);
+            assertArrayEquals(kangaroo.sign(key, messages[i]), split[i], "message " + i);
+        }
+        split[5][0] ^= 1;
+        split[6][0] ^= 1;
+
+        boolean[] results = new boolean[messages.length];
+        kangaroo.verifyAll(publicKeys, split, messages, results);
+        for (int i = 0; i < messages.length; i++) {
+            assertEquals(i != 5 && i != 6, results[i], "item " + i);
+        }
+    }
+
+    @Test
+    void testVerifyAllReportsEachItem() {
+        byte[] secretKey = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+        SigningKeyMaterial key = schnorrQ.signingKeyMaterial(secretKey);
+        int count = 12;
+        byte[][] publicKeys = new byte[count][];
+        byte[][] signatures = new byte[count][];
+        byte[][] messages = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            publicKeys[i] = key.publicKey();
+            messages[i] = ("message " + i).getBytes(UTF_8);
+            signatures[i] = schnorrQ.sign(key, messages[i]);
+        }
+        messages[3] = "tampered".getBytes(UTF_8);
+        signatures[7][Key.SIGNATURE_SIZE - 1] = (byte) 0xFF;    // Rejected encoding
+        publicKeys[9] = new byte[Key.KEY_SIZE];
+        publicKeys[9][0] = 2;                                    // Does not decode to a curve point
+
+        boolean[] results = new boolean[count];
+        schnorrQ.verifyAll(publicKeys, signatures, messages, results);
+        for (int i = 0; i < count; i++) {
+            assertEquals(i != 3 && i != 7 && i != 9, results[i], "item " + i);
+        }
+
+        assertThrows(InvalidArgumentException.class,
+                () -> schnorrQ.verifyAll(publicKeys, signatures, messages, new boolean[count - 1]));
+        signatures[0] = new byte[Key.SIGNATURE_SIZE - 1];
+        assertThrows(InvalidArgumentException.class, () -> schnorrQ.verifyAll(publicKeys, signatures, messages, results));
+    }
+
+    @Test
+    void testByteApiRejectsBadLengths() {
+        byte[] publicKey = BigIntegerUtils.bigIntegerToByte(VALID_PUBLIC_KEY, Key.KEY_SIZE, false);
+        assertThrows(InvalidArgumentException.class, () -> schnorrQ.keyGeneration(new byte[31]));
+        assertThrows(InvalidArgumentException.class, () -> schnorrQ.verify(publicKey, new byte[63], VALID_MESSAGE));
+        assertThrows(InvalidArgumentException.class,
+                () -> schnorrQ.sign(new byte[Key.KEY_SIZE], publicKey, ByteBuffer.wrap(VALID_MESSAGE), ByteBuffer.allocate(10)));
+    }
+
     // Takes 3-5 minutes to run sometimes beware
     // Runs 100,000 key generation pair tests in the key_gen_tests.txt file
     @Test
@@ -0,0 +1,84 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+import fourqj.api.SchnorrQ;
+import fourqj.api.SchnorrQph;
+import fourqj.api.SigningKeyMaterial;
+import fourqj.constants.Key;
+import fourqj.crypto.primitives.HashFunction;
+import fourqj.crypto.primitives.Kangaroo12;
+import fourqj.crypto.primitives.SHA512;
+import fourqj.exceptions.InvalidArgumentException;
+import fourqj.utils.BigIntegerUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class SchnorrQphTests {
+    private final BigInteger VALID_PRIVATE_KEY = new BigInteger("9aa51ec6af8420987dee03b1453a9eeb8e7bf17db8b7a175b6294ba2095410bd", 16);
+    private final byte[] SECRET_KEY = BigIntegerUtils.bigIntegerToByte(VALID_PRIVATE_KEY, Key.KEY_SIZE, false);
+
+    private byte[] randomMessage(int length, long seed) {
+        byte[] message = new byte[length];
+        new Random(seed).nextBytes(message);
+        return message;
+    }
+
+    @Test
+    void testSignVerifyAcrossInputs() throws IOException {
+        byte[] message = randomMessage(150_007, 3);
+        for (HashFunction hash : new HashFunction[] { new SHA512(), new Kangaroo12() }) {
+            SchnorrQph scheme = new SchnorrQph(hash);
+            SigningKeyMaterial key = scheme.signingKeyMaterial(SECRET_KEY);
+            byte[] signature = scheme.sign(key, message);
+
+            assertArrayEquals(signature, scheme.sign(key, new ByteArrayInputStream(message)));
+            assertArrayEquals(signature, scheme.sign(key, Channels.newChannel(new ByteArrayInputStream(message))));
+            assertArrayEquals(signature, scheme.signDigest(key, scheme.prehash().update(message).doFinal()));
+
+            assertTrue(scheme.verify(key.publicKey(), signature, message));
+            assertTrue(scheme.verify(key.publicKey(), signature, new ByteArrayInputStream(message)));
+            assertTrue(scheme.verify(key.publicKey(), signature, Channels.newChannel(new ByteArrayInputStream(message))));
+            assertTrue(scheme.verifyDigest(key.publicKey(), signature, hash.computeHash(message, false)));
+
+            message[0] ^= 1;
+            assertFalse(scheme.verify(key.publicKey(), signature, message));
+            assertFalse(scheme.verify(key.publicKey(), signature, new ByteArrayInputStream(message)));
+            message[0] ^= 1;
+        }
+    }
+
+    @Test
+    void testDomainSeparation() {
+        byte[] message = "prehashed".getBytes(UTF_8);
+        SchnorrQ plain = new SchnorrQ();
+        SchnorrQph prehashed = new SchnorrQph();
+        SchnorrQph withContext = new SchnorrQph(new SHA512(), "context".getBytes(UTF_8));
+        byte[] publicKey = plain.keyGeneration(SECRET_KEY);
+        SigningKeyMaterial key = prehashed.signingKeyMaterial(SECRET_KEY);
+
+        // A plain signature over the digest must not pass as a prehashed signature, and vice versa
+        byte[] digest = prehashed.prehash().update(message).doFinal();
+        assertFalse(prehashed.verifyDigest(publicKey, plain.sign(SECRET_KEY, publicKey, digest), digest));
+        assertFalse(plain.verify(publicKey, prehashed.signDigest(key, digest), digest));
+
+        byte[] signature = withContext.sign(key, message);
+        assertTrue(withContext.verify(publicKey, signature, message));
+        assertFalse(prehashed.verify(publicKey, signature, message));
+    }
+
+    @Test
+    void testRejectsBadInputs() {
+        SchnorrQph scheme = new SchnorrQph();
+        SigningKeyMaterial key = scheme.signingKeyMaterial(SECRET_KEY);
+        assertThrows(InvalidArgumentException.class, () -> new SchnorrQph(new SHA512(), new byte[256]));
+        assertThrows(InvalidArgumentException.class, () -> scheme.signDigest(key, new byte[32]));
+        assertThrows(InvalidArgumentException.class, () -> scheme.verifyDigest(key.publicKey(), new byte[64], new byte[63]));
+        assertThrows(InvalidArgumentException.class, () -> new SchnorrQph(new Kangaroo12()).sign(key, new byte[1]));
+    }
+}
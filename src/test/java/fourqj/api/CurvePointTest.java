@@ -0,0 +1,94 @@
+package fourqj.api;
+
+import fourqj.crypto.core.ECC;
+import fourqj.exceptions.ValidationException;
+import fourqj.types.data.F2Element;
+import fourqj.types.point.FieldPoint;
+import fourqj.utils.CryptoUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+class CurvePointTest {
+
+    private final CurvePoint g = CurvePoint.generator();
+
+    @Test
+    void addMatchesScalarMultiplication() {
+        CurvePoint sum = g;
+        for (int i = 2; i <= 10; i++) {
+            sum = sum.add(g);
+            Assertions.assertEquals(g.multiply(BigInteger.valueOf(i)), sum);
+        }
+        Assertions.assertEquals(CryptoUtils.encode(ECC.eccMulFixed(BigInteger.TEN)), sum.encode());
+    }
+
+    @Test
+    void twiceEqualsAddToSelf() {
+        Assertions.assertEquals(g.add(g), g.twice());
+        Assertions.assertEquals(g.twice().twice(), g.multiply(BigInteger.valueOf(4)));
+    }
+
+    @Test
+    void subtractAndNegate() {
+        CurvePoint three = g.multiply(BigInteger.valueOf(3));
+        Assertions.assertEquals(g.twice(), three.subtract(g));
+        Assertions.assertEquals(CurvePoint.identity(), g.add(g.negate()));
+        Assertions.assertTrue(g.subtract(g).isIdentity());
+        Assertions.assertEquals(g, g.negate().negate());
+    }
+
+    @Test
+    void identityIsNeutral() {
+        CurvePoint identity = CurvePoint.identity();
+        Assertions.assertEquals(g, g.add(identity));
+        Assertions.assertEquals(g, identity.add(g));
+        Assertions.assertTrue(identity.twice().isIdentity());
+        Assertions.assertFalse(g.isIdentity());
+    }
+
+    @Test
+    void projectiveEqualityAndHashCode() {
+        // (G + 2G) and (2G + G) have different Z coordinates but the same affine point
+        CurvePoint a = g.add(g.twice());
+        CurvePoint b = g.twice().add(g);
+        Assertions.assertEquals(a, b);
+        Assertions.assertEquals(a.hashCode(), b.hashCode());
+        Assertions.assertNotEquals(a, g.twice());
+    }
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        BigInteger publicKey = new BigInteger("41ae5f6d8fcf295b2b67a57b97fe58674818fa17b04844f697f58099dd08856f", 16);
+        CurvePoint point = CurvePoint.decode(publicKey);
+        Assertions.assertEquals(publicKey, point.encode());
+        Assertions.assertEquals(point, CurvePoint.decode(point.add(g).subtract(g).encode()));
+        Assertions.assertTrue(point.isInPrimeSubgroup());
+    }
+
+    @Test
+    void fromAffineRejectsPointsOffTheCurve() {
+        FieldPoint affine = g.toAffine();
+        Assertions.assertEquals(g, CurvePoint.fromAffine(affine));
+        affine.setY(F2Element.ONE.dup());
+        Assertions.assertThrows(ValidationException.class, () -> CurvePoint.fromAffine(affine));
+        Assertions.assertEquals(g, CurvePoint.fromAffine(ECC.getGeneratorPoint()));
+    }
+
+    @Test
+    void decodeRecoversMultiplesOfGenerator() throws Exception {
+        CurvePoint point = g;
+        for (int i = 0; i < 64; i++) {
+            Assertions.assertEquals(point, CurvePoint.decode(point.encode()));
+            Assertions.assertEquals(point.negate(), CurvePoint.decode(point.negate().encode()));
+            point = point.twice().add(g);
+        }
+    }
+
+    @Test
+    void decodeRejectsEncodingsOffTheCurve() {
+        // No point on the curve has y = 2
+        Assertions.assertThrows(ValidationException.class, () -> CurvePoint.decode(BigInteger.TWO.shiftLeft(248)));
+    }
+}